@@ -0,0 +1,78 @@
+package com.plexobject.rx.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.scheduler.Scheduler;
+
+/**
+ * This benchmark measures how long it takes to finish many concurrent
+ * subscriptions whose subscribers block on each element, e.g. for I/O
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockingSubscriberBenchmark {
+    @Param({ "threadPool", "virtual" })
+    public String type;
+
+    @Param({ "100", "10000" })
+    public int subscriptions;
+
+    @Param({ "1" })
+    public long blockMillis;
+
+    private Scheduler scheduler;
+    private Observable<Integer> observable;
+
+    @Setup
+    public void setup() {
+        scheduler = "virtual".equals(type) ? Scheduler
+                .newVirtualThreadScheduler() : Scheduler
+                .newThreadPoolScheduler(8);
+        observable = Observable.range(0, 10).subscribeOn(scheduler);
+    }
+
+    @TearDown
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public void subscribe() throws Exception {
+        CountDownLatch latch = new CountDownLatch(subscriptions);
+        for (int i = 0; i < subscriptions; i++) {
+            observable.subscribe(v -> block(), Throwable::printStackTrace,
+                    latch::countDown);
+        }
+        latch.await();
+    }
+
+    private void block() {
+        try {
+            Thread.sleep(blockMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
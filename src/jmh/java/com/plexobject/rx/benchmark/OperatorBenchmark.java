@@ -0,0 +1,129 @@
+package com.plexobject.rx.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.scheduler.Scheduler;
+
+/**
+ * This benchmark measures cost of operator chains on immediate scheduler. The
+ * pipelines are assembled once and subscribed for each invocation.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OperatorBenchmark {
+    @Param({ "1000", "1000000" })
+    public int size;
+
+    private Observable<Integer> mapFilter;
+    private Observable<Integer> mapFilterSkipLimit;
+    private Observable<Integer> flatMap;
+    private Observable<Integer> flatMapObservable;
+    private Observable<Integer> merge;
+    private Observable<Integer> mergeConcurrent;
+    private Observable<?> zip;
+    private Observable<?> zipWith;
+    private Observable<Integer> cached;
+    private Observable<Integer> sampled;
+    private Observable<Integer> throttledFirst;
+
+    @Setup
+    public void setup() {
+        Scheduler scheduler = Scheduler.newImmediateScheduler();
+        Observable<Integer> range = Observable.range(0, size).subscribeOn(
+                scheduler);
+        mapFilter = range.map(n -> n + 1).filter(n -> n % 3 != 0);
+        mapFilterSkipLimit = range.map(n -> n + 1).map(n -> n * 2)
+                .filter(n -> n % 3 != 0).skip(10).limit(size / 2);
+        flatMap = range.flatMap(n -> Stream.of(n, n));
+        flatMapObservable = range.flatMap(n -> Observable.from(n, n), 64);
+        merge = range.merge(Observable.range(0, size));
+        mergeConcurrent = Observable.merge(Arrays.asList(range,
+                Observable.range(0, size)));
+        zip = range.zip(Observable.range(0, size));
+        zipWith = range.zip(Observable.range(0, size), Integer::sum);
+        cached = range.cache();
+        // records data of the source so that benchmark only measures replay
+        cached.toList();
+        // measures cost of dropping elements of a fast source
+        sampled = range.sample(1, TimeUnit.SECONDS);
+        throttledFirst = range.throttleFirst(1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void mapFilter(Blackhole bh) throws Exception {
+        Subscribers.consume(mapFilter, bh);
+    }
+
+    @Benchmark
+    public void mapFilterSkipLimit(Blackhole bh) throws Exception {
+        Subscribers.consume(mapFilterSkipLimit, bh);
+    }
+
+    @Benchmark
+    public void flatMap(Blackhole bh) throws Exception {
+        Subscribers.consume(flatMap, bh);
+    }
+
+    @Benchmark
+    public void flatMapObservable(Blackhole bh) throws Exception {
+        Subscribers.consume(flatMapObservable, bh);
+    }
+
+    @Benchmark
+    public void merge(Blackhole bh) throws Exception {
+        Subscribers.consume(merge, bh);
+    }
+
+    @Benchmark
+    public void mergeConcurrent(Blackhole bh) throws Exception {
+        Subscribers.consume(mergeConcurrent, bh);
+    }
+
+    @Benchmark
+    public void zip(Blackhole bh) throws Exception {
+        Subscribers.consume(zip, bh);
+    }
+
+    @Benchmark
+    public void zipWith(Blackhole bh) throws Exception {
+        Subscribers.consume(zipWith, bh);
+    }
+
+    @Benchmark
+    public void cached(Blackhole bh) throws Exception {
+        Subscribers.consume(cached, bh);
+    }
+
+    @Benchmark
+    public void sampled(Blackhole bh) throws Exception {
+        Subscribers.consume(sampled, bh);
+    }
+
+    @Benchmark
+    public void throttledFirst(Blackhole bh) throws Exception {
+        Subscribers.consume(throttledFirst, bh);
+    }
+}
@@ -0,0 +1,79 @@
+package com.plexobject.rx.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.plexobject.rx.Observable;
+
+/**
+ * This benchmark compares parallel processing through
+ * CancelableSpliterator.parEach, ordered parallelMap and rails with
+ * sequential processing of the same pipeline
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelBenchmark {
+    @Param({ "1000", "1000000" })
+    public int size;
+
+    @Param({ "0", "100" })
+    public int work;
+
+    private Observable<Integer> sequential;
+    private Observable<Integer> parallel;
+    private Observable<Integer> parallelMap;
+    private Observable<Integer> rails;
+
+    @Setup
+    public void setup() {
+        sequential = Observable.range(0, size).map(this::compute);
+        parallel = sequential.parallel();
+        parallelMap = Observable.range(0, size).parallelMap(this::compute);
+        rails = Observable.range(0, size).parallel(4).map(this::compute)
+                .sequential();
+    }
+
+    @Benchmark
+    public void sequential(Blackhole bh) throws Exception {
+        Subscribers.consume(sequential, bh);
+    }
+
+    @Benchmark
+    public void parallel(Blackhole bh) throws Exception {
+        Subscribers.consume(parallel, bh);
+    }
+
+    @Benchmark
+    public void parallelMap(Blackhole bh) throws Exception {
+        Subscribers.consume(parallelMap, bh);
+    }
+
+    @Benchmark
+    public void rails(Blackhole bh) throws Exception {
+        Subscribers.consume(rails, bh);
+    }
+
+    private Integer compute(Integer n) {
+        Blackhole.consumeCPU(work);
+        return n;
+    }
+}
@@ -0,0 +1,79 @@
+package com.plexobject.rx.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.scheduler.Scheduler;
+
+/**
+ * This benchmark measures end to end cost of subscribing and pushing data with
+ * each scheduler implementation. Note: timer scheduler pushes one element per
+ * tick so its throughput is bounded by the interval.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchedulerBenchmark {
+    @Param({ "immediate", "newThread", "threadPool", "virtual", "timer" })
+    public String type;
+
+    @Param({ "1", "100" })
+    public int size;
+
+    private Scheduler scheduler;
+    private Observable<Integer> observable;
+
+    @Setup
+    public void setup() {
+        switch (type) {
+        case "immediate":
+            scheduler = Scheduler.newImmediateScheduler();
+            break;
+        case "newThread":
+            scheduler = Scheduler.newNewThreadScheduler();
+            break;
+        case "threadPool":
+            scheduler = Scheduler.newThreadPoolScheduler(4);
+            break;
+        case "virtual":
+            scheduler = Scheduler.newVirtualThreadScheduler();
+            break;
+        case "timer":
+            scheduler = Scheduler.newTimerSchedulerWithMilliInterval(1);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown scheduler " + type);
+        }
+        observable = Observable.range(0, size).subscribeOn(scheduler);
+    }
+
+    @TearDown
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public void subscribe(Blackhole bh) throws Exception {
+        Subscribers.consume(observable, bh);
+    }
+}
@@ -0,0 +1,92 @@
+package com.plexobject.rx.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.plexobject.rx.IntObservable;
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.scheduler.Scheduler;
+
+/**
+ * This benchmark measures cost of pushing data from different sources using
+ * immediate scheduler so that scheduling doesn't hide the cost of the source
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SourceBenchmark {
+    @Param({ "1", "1000", "1000000" })
+    public int size;
+
+    private Scheduler scheduler;
+    private Integer[] array;
+    private List<Integer> list;
+
+    @Setup
+    public void setup() {
+        scheduler = Scheduler.newImmediateScheduler();
+        list = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        array = list.toArray(new Integer[size]);
+    }
+
+    @Benchmark
+    public void fromArray(Blackhole bh) throws Exception {
+        Subscribers.consume(Observable.from(array).subscribeOn(scheduler), bh);
+    }
+
+    @Benchmark
+    public void fromCollection(Blackhole bh) throws Exception {
+        Subscribers.consume(Observable.from(list).subscribeOn(scheduler), bh);
+    }
+
+    @Benchmark
+    public void fromStream(Blackhole bh) throws Exception {
+        Subscribers.consume(Observable.from(list.stream())
+                .subscribeOn(scheduler), bh);
+    }
+
+    @Benchmark
+    public void fromIterator(Blackhole bh) throws Exception {
+        Subscribers.consume(Observable.from(list.iterator())
+                .subscribeOn(scheduler), bh);
+    }
+
+    @Benchmark
+    public void range(Blackhole bh) throws Exception {
+        Subscribers.consume(Observable.range(0, size).subscribeOn(scheduler),
+                bh);
+    }
+
+    @Benchmark
+    public void integers(Blackhole bh) throws Exception {
+        Subscribers.consume(Observable.integers(0).limit(size)
+                .subscribeOn(scheduler), bh);
+    }
+
+    @Benchmark
+    public void intRange(Blackhole bh) throws Exception {
+        Subscribers.consume(IntObservable.range(0, size)
+                .subscribeOn(scheduler), bh);
+    }
+}
@@ -0,0 +1,67 @@
+package com.plexobject.rx.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.plexobject.rx.IntObservable;
+import com.plexobject.rx.Observable;
+
+/**
+ * This class subscribes benchmark pipelines and waits until all data is
+ * consumed so that asynchronous schedulers are measured end to end.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+final class Subscribers {
+    private Subscribers() {
+    }
+
+    /**
+     * This method pushes all data of given Observable into the black hole
+     * 
+     * @param observable
+     *            - pipeline to measure
+     * @param bh
+     *            - black hole that consumes the data
+     */
+    static <T> void consume(Observable<T> observable, Blackhole bh)
+            throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        observable.subscribe(v -> bh.consume(v), e -> {
+            error.set(e);
+            latch.countDown();
+        }, latch::countDown);
+        await(latch, error);
+    }
+
+    /**
+     * This method pushes all data of given IntObservable into the black hole
+     * 
+     * @param observable
+     *            - pipeline to measure
+     * @param bh
+     *            - black hole that consumes the data
+     */
+    static void consume(IntObservable observable, Blackhole bh)
+            throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        observable.subscribe(v -> bh.consume(v), e -> {
+            error.set(e);
+            latch.countDown();
+        }, latch::countDown);
+        await(latch, error);
+    }
+
+    private static void await(CountDownLatch latch,
+            AtomicReference<Throwable> error) throws InterruptedException {
+        latch.await();
+        if (error.get() != null) {
+            throw new IllegalStateException("Benchmark failed", error.get());
+        }
+    }
+}
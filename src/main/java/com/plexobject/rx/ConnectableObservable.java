@@ -0,0 +1,31 @@
+package com.plexobject.rx;
+
+/**
+ * This interface defines an Observable that shares a single subscription of
+ * its source with all of its subscribers. Subscribers only register for data
+ * and the source is subscribed when connect is called, so that all
+ * subscribers can be registered before any data is pushed.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public interface ConnectableObservable<T> extends Observable<T> {
+    /**
+     * This method subscribes to the source and pushes its data to the current
+     * subscribers. Calling it again while connected returns the same
+     * connection.
+     *
+     * @return connection that unsubscribes from the source when disposed
+     */
+    Disposable connect();
+
+    /**
+     * This method returns Observable that connects when first subscriber
+     * subscribes and disconnects when last subscriber unsubscribes
+     *
+     * @return instance of Observable
+     */
+    Observable<T> refCount();
+}
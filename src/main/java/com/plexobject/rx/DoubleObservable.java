@@ -0,0 +1,200 @@
+package com.plexobject.rx;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.DoubleStream;
+
+import com.plexobject.rx.impl.DoubleObservableImpl;
+import com.plexobject.rx.scheduler.Scheduler;
+
+/**
+ * This is a primitive specialization of Observable for double values. Data is
+ * kept as DoubleStream and pushed to DoubleConsumer so that values are never
+ * boxed unless user converts it to Observable using boxed or mapToObj methods.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public interface DoubleObservable {
+    /**
+     * This method creates DoubleObservable from array of values
+     * 
+     * @param values
+     *            - array of values
+     * @return instance of DoubleObservable
+     */
+    public static DoubleObservable of(double... values) {
+        Objects.requireNonNull(values);
+        return new DoubleObservableImpl(() -> DoubleStream.of(values));
+    }
+
+    /**
+     * This method creates DoubleObservable from a given stream. As the stream
+     * can only be consumed once, returned DoubleObservable can only be
+     * subscribed once.
+     * 
+     * @param stream
+     *            - source input
+     * @return instance of DoubleObservable
+     */
+    public static DoubleObservable from(DoubleStream stream) {
+        Objects.requireNonNull(stream);
+        return new DoubleObservableImpl(() -> stream);
+    }
+
+    /**
+     * This method filters values based on given predicate
+     * 
+     * @param predicate
+     *            - predicate function
+     * @return instance of DoubleObservable
+     */
+    DoubleObservable filter(DoublePredicate predicate);
+
+    /**
+     * This method transforms values using given mapper function
+     * 
+     * @param mapper
+     *            - mapper function
+     * @return instance of DoubleObservable
+     */
+    DoubleObservable map(DoubleUnaryOperator mapper);
+
+    /**
+     * This method transforms values into objects using given mapper function
+     * 
+     * @param mapper
+     *            - mapper function
+     * @return instance of Observable
+     */
+    <R> Observable<R> mapToObj(DoubleFunction<? extends R> mapper);
+
+    /**
+     * This method boxes values
+     * 
+     * @return instance of Observable
+     */
+    Observable<Double> boxed();
+
+    /**
+     * This method limits number of values that would be pushed to the
+     * subscriber
+     * 
+     * @param maxSize
+     *            - max size
+     * @return instance of DoubleObservable
+     */
+    DoubleObservable limit(long maxSize);
+
+    /**
+     * This method skips first n values
+     * 
+     * @param n
+     *            - number of values to skip
+     * @return instance of DoubleObservable
+     */
+    DoubleObservable skip(long n);
+
+    /**
+     * This method creates DoubleObservable that pushes sum of all values upon
+     * subscription
+     * 
+     * @return instance of DoubleObservable with a single value
+     */
+    DoubleObservable sum();
+
+    /**
+     * This method creates DoubleObservable that pushes average of all values
+     * upon subscription. It doesn't push any value if there is no data.
+     * 
+     * @return instance of DoubleObservable with at most a single value
+     */
+    DoubleObservable average();
+
+    /**
+     * This method creates Observable that pushes count, sum, min, average and
+     * max of all values upon subscription
+     * 
+     * @return instance of Observable with a single value
+     */
+    Observable<DoubleSummaryStatistics> summaryStatistics();
+
+    /**
+     * This method returns a new DoubleObservable that pushes data using given
+     * scheduler
+     * 
+     * @param scheduler
+     *            - to set
+     * @return instance of DoubleObservable
+     */
+    DoubleObservable subscribeOn(Scheduler scheduler);
+
+    /**
+     * This method returns a new DoubleObservable that changes how much data is
+     * pushed by each background task before it yields back to the scheduler.
+     * 
+     * @param maxBatchSize
+     *            - max number of values pushed by a single task
+     * @param timeSliceMillis
+     *            - max time in milliseconds a single task can run, 0 for no
+     *            limit
+     * @return instance of DoubleObservable
+     */
+    DoubleObservable drainBatch(int maxBatchSize, long timeSliceMillis);
+
+    /**
+     * This method subscribes given consumer and starts pushing the data
+     * 
+     * @param onNext
+     *            - consumer function that is called to consume the data
+     * @param onError
+     *            - consumer function that is called for notifying an error
+     * @return subscription handle that can be used for unsubscribing
+     */
+    Subscription subscribe(DoubleConsumer onNext, Consumer<Throwable> onError);
+
+    /**
+     * This method subscribes given consumer and starts pushing the data
+     * 
+     * @param onNext
+     *            - consumer function that is called to consume the data
+     * @param onError
+     *            - consumer function that is called for notifying an error
+     * @param onCompletion
+     *            - function that is invoked when all data is pushed
+     *            successfully
+     * @return subscription handle that can be used for unsubscribing
+     */
+    Subscription subscribe(DoubleConsumer onNext, Consumer<Throwable> onError,
+            OnCompletion onCompletion);
+
+    /**
+     * This method subscribes given consumer with bounded demand
+     * 
+     * @param onNext
+     *            - consumer function that is called to consume the data
+     * @param onError
+     *            - consumer function that is called for notifying an error
+     * @param onCompletion
+     *            - function that is invoked when all data is pushed
+     *            successfully
+     * @param initialRequest
+     *            - number of values to push before subscriber requests more
+     * @return subscription handle that can be used for requesting more data
+     *         and for unsubscribing
+     */
+    Subscription subscribe(DoubleConsumer onNext, Consumer<Throwable> onError,
+            OnCompletion onCompletion, long initialRequest);
+
+    /**
+     * This returns all values as an array
+     * 
+     * @return array of values
+     */
+    double[] toArray();
+}
@@ -0,0 +1,241 @@
+package com.plexobject.rx;
+
+import java.util.IntSummaryStatistics;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+import com.plexobject.rx.impl.IntObservableImpl;
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.IntNatsSpliterator;
+
+/**
+ * This is a primitive specialization of Observable for int values. Data is
+ * kept as IntStream and pushed to IntConsumer so that values are never boxed
+ * unless user converts it to Observable using boxed or mapToObj methods.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public interface IntObservable {
+    /**
+     * This method creates IntObservable from array of values
+     * 
+     * @param values
+     *            - array of values
+     * @return instance of IntObservable
+     */
+    public static IntObservable of(int... values) {
+        Objects.requireNonNull(values);
+        return new IntObservableImpl(() -> IntStream.of(values));
+    }
+
+    /**
+     * This method creates IntObservable from a given stream. As the stream can
+     * only be consumed once, returned IntObservable can only be subscribed
+     * once.
+     * 
+     * @param stream
+     *            - source input
+     * @return instance of IntObservable
+     */
+    public static IntObservable from(IntStream stream) {
+        Objects.requireNonNull(stream);
+        return new IntObservableImpl(() -> stream);
+    }
+
+    /**
+     * Creates range of numbers starting at from until it reaches to exclusively
+     * 
+     * @param from
+     *            - starting range of number
+     * @param to
+     *            - ending range of number exclusively
+     * @return instance of IntObservable
+     */
+    public static IntObservable range(int from, int to) {
+        return new IntObservableImpl(() -> IntStream.range(from, to));
+    }
+
+    /**
+     * Creates natural numbers starting from given number up
+     * to Integer.MAX_VALUE
+     * 
+     * @param from
+     *            - starting number
+     * @return instance of IntObservable
+     */
+    public static IntObservable integers(int from) {
+        return new IntObservableImpl(
+                () -> new IntNatsSpliterator(from).getStream());
+    }
+
+    /**
+     * This method filters values based on given predicate
+     * 
+     * @param predicate
+     *            - predicate function
+     * @return instance of IntObservable
+     */
+    IntObservable filter(IntPredicate predicate);
+
+    /**
+     * This method transforms values using given mapper function
+     * 
+     * @param mapper
+     *            - mapper function
+     * @return instance of IntObservable
+     */
+    IntObservable map(IntUnaryOperator mapper);
+
+    /**
+     * This method transforms values into objects using given mapper function
+     * 
+     * @param mapper
+     *            - mapper function
+     * @return instance of Observable
+     */
+    <R> Observable<R> mapToObj(IntFunction<? extends R> mapper);
+
+    /**
+     * This method converts values to long
+     * 
+     * @return instance of LongObservable
+     */
+    LongObservable asLongObservable();
+
+    /**
+     * This method converts values to double
+     * 
+     * @return instance of DoubleObservable
+     */
+    DoubleObservable asDoubleObservable();
+
+    /**
+     * This method boxes values
+     * 
+     * @return instance of Observable
+     */
+    Observable<Integer> boxed();
+
+    /**
+     * This method limits number of values that would be pushed to the
+     * subscriber
+     * 
+     * @param maxSize
+     *            - max size
+     * @return instance of IntObservable
+     */
+    IntObservable limit(long maxSize);
+
+    /**
+     * This method skips first n values
+     * 
+     * @param n
+     *            - number of values to skip
+     * @return instance of IntObservable
+     */
+    IntObservable skip(long n);
+
+    /**
+     * This method creates IntObservable that pushes sum of all values upon
+     * subscription
+     * 
+     * @return instance of IntObservable with a single value
+     */
+    IntObservable sum();
+
+    /**
+     * This method creates DoubleObservable that pushes average of all values
+     * upon subscription. It doesn't push any value if there is no data.
+     * 
+     * @return instance of DoubleObservable with at most a single value
+     */
+    DoubleObservable average();
+
+    /**
+     * This method creates Observable that pushes count, sum, min, average and
+     * max of all values upon subscription
+     * 
+     * @return instance of Observable with a single value
+     */
+    Observable<IntSummaryStatistics> summaryStatistics();
+
+    /**
+     * This method returns a new IntObservable that pushes data using given
+     * scheduler
+     * 
+     * @param scheduler
+     *            - to set
+     * @return instance of IntObservable
+     */
+    IntObservable subscribeOn(Scheduler scheduler);
+
+    /**
+     * This method returns a new IntObservable that changes how much data is
+     * pushed by each background task before it yields back to the scheduler.
+     * 
+     * @param maxBatchSize
+     *            - max number of values pushed by a single task
+     * @param timeSliceMillis
+     *            - max time in milliseconds a single task can run, 0 for no
+     *            limit
+     * @return instance of IntObservable
+     */
+    IntObservable drainBatch(int maxBatchSize, long timeSliceMillis);
+
+    /**
+     * This method subscribes given consumer and starts pushing the data
+     * 
+     * @param onNext
+     *            - consumer function that is called to consume the data
+     * @param onError
+     *            - consumer function that is called for notifying an error
+     * @return subscription handle that can be used for unsubscribing
+     */
+    Subscription subscribe(IntConsumer onNext, Consumer<Throwable> onError);
+
+    /**
+     * This method subscribes given consumer and starts pushing the data
+     * 
+     * @param onNext
+     *            - consumer function that is called to consume the data
+     * @param onError
+     *            - consumer function that is called for notifying an error
+     * @param onCompletion
+     *            - function that is invoked when all data is pushed
+     *            successfully
+     * @return subscription handle that can be used for unsubscribing
+     */
+    Subscription subscribe(IntConsumer onNext, Consumer<Throwable> onError,
+            OnCompletion onCompletion);
+
+    /**
+     * This method subscribes given consumer with bounded demand
+     * 
+     * @param onNext
+     *            - consumer function that is called to consume the data
+     * @param onError
+     *            - consumer function that is called for notifying an error
+     * @param onCompletion
+     *            - function that is invoked when all data is pushed
+     *            successfully
+     * @param initialRequest
+     *            - number of values to push before subscriber requests more
+     * @return subscription handle that can be used for requesting more data
+     *         and for unsubscribing
+     */
+    Subscription subscribe(IntConsumer onNext, Consumer<Throwable> onError,
+            OnCompletion onCompletion, long initialRequest);
+
+    /**
+     * This returns all values as an array
+     * 
+     * @return array of values
+     */
+    int[] toArray();
+}
@@ -0,0 +1,21 @@
+package com.plexobject.rx;
+
+/**
+ * This enum defines what periodic Observables do with ticks that could not be
+ * pushed on time, e.g. because subscriber was slow or had no outstanding
+ * demand.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public enum IntervalPolicy {
+    /**
+     * Missed ticks are pushed back to back as soon as possible so that
+     * subscriber eventually receives every tick
+     */
+    CATCH_UP,
+    /**
+     * Missed ticks are dropped and only the latest tick is pushed
+     */
+    SKIP
+}
@@ -0,0 +1,234 @@
+package com.plexobject.rx;
+
+import java.util.LongSummaryStatistics;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.LongStream;
+
+import com.plexobject.rx.impl.LongObservableImpl;
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.LongNatsSpliterator;
+
+/**
+ * This is a primitive specialization of Observable for long values. Data is
+ * kept as LongStream and pushed to LongConsumer so that values are never boxed
+ * unless user converts it to Observable using boxed or mapToObj methods.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public interface LongObservable {
+    /**
+     * This method creates LongObservable from array of values
+     * 
+     * @param values
+     *            - array of values
+     * @return instance of LongObservable
+     */
+    public static LongObservable of(long... values) {
+        Objects.requireNonNull(values);
+        return new LongObservableImpl(() -> LongStream.of(values));
+    }
+
+    /**
+     * This method creates LongObservable from a given stream. As the stream can
+     * only be consumed once, returned LongObservable can only be subscribed
+     * once.
+     * 
+     * @param stream
+     *            - source input
+     * @return instance of LongObservable
+     */
+    public static LongObservable from(LongStream stream) {
+        Objects.requireNonNull(stream);
+        return new LongObservableImpl(() -> stream);
+    }
+
+    /**
+     * Creates range of numbers starting at from until it reaches to exclusively
+     * 
+     * @param from
+     *            - starting range of number
+     * @param to
+     *            - ending range of number exclusively
+     * @return instance of LongObservable
+     */
+    public static LongObservable range(long from, long to) {
+        return new LongObservableImpl(() -> LongStream.range(from, to));
+    }
+
+    /**
+     * Creates natural numbers starting from given number below
+     * Long.MAX_VALUE
+     * 
+     * @param from
+     *            - starting number
+     * @return instance of LongObservable
+     */
+    public static LongObservable integers(long from) {
+        return new LongObservableImpl(
+                () -> new LongNatsSpliterator(from).getStream());
+    }
+
+    /**
+     * This method filters values based on given predicate
+     * 
+     * @param predicate
+     *            - predicate function
+     * @return instance of LongObservable
+     */
+    LongObservable filter(LongPredicate predicate);
+
+    /**
+     * This method transforms values using given mapper function
+     * 
+     * @param mapper
+     *            - mapper function
+     * @return instance of LongObservable
+     */
+    LongObservable map(LongUnaryOperator mapper);
+
+    /**
+     * This method transforms values into objects using given mapper function
+     * 
+     * @param mapper
+     *            - mapper function
+     * @return instance of Observable
+     */
+    <R> Observable<R> mapToObj(LongFunction<? extends R> mapper);
+
+    /**
+     * This method converts values to double
+     * 
+     * @return instance of DoubleObservable
+     */
+    DoubleObservable asDoubleObservable();
+
+    /**
+     * This method boxes values
+     * 
+     * @return instance of Observable
+     */
+    Observable<Long> boxed();
+
+    /**
+     * This method limits number of values that would be pushed to the
+     * subscriber
+     * 
+     * @param maxSize
+     *            - max size
+     * @return instance of LongObservable
+     */
+    LongObservable limit(long maxSize);
+
+    /**
+     * This method skips first n values
+     * 
+     * @param n
+     *            - number of values to skip
+     * @return instance of LongObservable
+     */
+    LongObservable skip(long n);
+
+    /**
+     * This method creates LongObservable that pushes sum of all values upon
+     * subscription
+     * 
+     * @return instance of LongObservable with a single value
+     */
+    LongObservable sum();
+
+    /**
+     * This method creates DoubleObservable that pushes average of all values
+     * upon subscription. It doesn't push any value if there is no data.
+     * 
+     * @return instance of DoubleObservable with at most a single value
+     */
+    DoubleObservable average();
+
+    /**
+     * This method creates Observable that pushes count, sum, min, average and
+     * max of all values upon subscription
+     * 
+     * @return instance of Observable with a single value
+     */
+    Observable<LongSummaryStatistics> summaryStatistics();
+
+    /**
+     * This method returns a new LongObservable that pushes data using given
+     * scheduler
+     * 
+     * @param scheduler
+     *            - to set
+     * @return instance of LongObservable
+     */
+    LongObservable subscribeOn(Scheduler scheduler);
+
+    /**
+     * This method returns a new LongObservable that changes how much data is
+     * pushed by each background task before it yields back to the scheduler.
+     * 
+     * @param maxBatchSize
+     *            - max number of values pushed by a single task
+     * @param timeSliceMillis
+     *            - max time in milliseconds a single task can run, 0 for no
+     *            limit
+     * @return instance of LongObservable
+     */
+    LongObservable drainBatch(int maxBatchSize, long timeSliceMillis);
+
+    /**
+     * This method subscribes given consumer and starts pushing the data
+     * 
+     * @param onNext
+     *            - consumer function that is called to consume the data
+     * @param onError
+     *            - consumer function that is called for notifying an error
+     * @return subscription handle that can be used for unsubscribing
+     */
+    Subscription subscribe(LongConsumer onNext, Consumer<Throwable> onError);
+
+    /**
+     * This method subscribes given consumer and starts pushing the data
+     * 
+     * @param onNext
+     *            - consumer function that is called to consume the data
+     * @param onError
+     *            - consumer function that is called for notifying an error
+     * @param onCompletion
+     *            - function that is invoked when all data is pushed
+     *            successfully
+     * @return subscription handle that can be used for unsubscribing
+     */
+    Subscription subscribe(LongConsumer onNext, Consumer<Throwable> onError,
+            OnCompletion onCompletion);
+
+    /**
+     * This method subscribes given consumer with bounded demand
+     * 
+     * @param onNext
+     *            - consumer function that is called to consume the data
+     * @param onError
+     *            - consumer function that is called for notifying an error
+     * @param onCompletion
+     *            - function that is invoked when all data is pushed
+     *            successfully
+     * @param initialRequest
+     *            - number of values to push before subscriber requests more
+     * @return subscription handle that can be used for requesting more data
+     *         and for unsubscribing
+     */
+    Subscription subscribe(LongConsumer onNext, Consumer<Throwable> onError,
+            OnCompletion onCompletion, long initialRequest);
+
+    /**
+     * This returns all values as an array
+     * 
+     * @return array of values
+     */
+    long[] toArray();
+}
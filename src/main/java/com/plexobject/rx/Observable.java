@@ -1,5 +1,6 @@
 package com.plexobject.rx;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -7,19 +8,42 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import com.plexobject.rx.impl.ObservableBuffer;
+import com.plexobject.rx.impl.ObservableCache;
+import com.plexobject.rx.impl.ObservableCombineLatest;
+import com.plexobject.rx.impl.ObservableConnectable;
 import com.plexobject.rx.impl.ObservableDelegate;
 import com.plexobject.rx.impl.ObservableImpl;
+import com.plexobject.rx.impl.ObservableInterval;
+import com.plexobject.rx.impl.ObservableMerge;
 import com.plexobject.rx.impl.ObservableNever;
+import com.plexobject.rx.impl.ObservableObserveOn;
+import com.plexobject.rx.impl.ObservableParallelMap;
+import com.plexobject.rx.impl.ObservableSwitchMap;
+import com.plexobject.rx.impl.ObservableThrottle;
+import com.plexobject.rx.impl.ObservableWindow;
+import com.plexobject.rx.impl.ObservableWithLatestFrom;
+import com.plexobject.rx.impl.ObservableZip;
 import com.plexobject.rx.impl.Observer;
+import com.plexobject.rx.impl.ParallelObservableImpl;
+import com.plexobject.rx.impl.PublishSubject;
+import com.plexobject.rx.impl.ReplaySubject;
 import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.ArraySource;
+import com.plexobject.rx.util.ArrayZipSpliterator;
+import com.plexobject.rx.util.CancelableSpliterator;
+import com.plexobject.rx.util.CollectionSource;
 import com.plexobject.rx.util.NatsSpliterator;
+import com.plexobject.rx.util.RangeSource;
 import com.plexobject.rx.util.SpliteratorAdapter;
 import com.plexobject.rx.util.Tuple;
 
@@ -34,6 +58,12 @@ import com.plexobject.rx.util.Tuple;
  *            type of subscription data
  */
 public interface Observable<T> {
+    /**
+     * Default number of elements buffered by operators that hand off data
+     * between threads
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 128;
+
     /**
      * This method allows user to create Observable by passing a consumer
      * function for notifying subscribers.
@@ -55,12 +85,15 @@ public interface Observable<T> {
      * @return instance of Observable
      */
     @SafeVarargs
+    @SuppressWarnings("varargs")
     public static <T> Observable<T> from(T... values) {
-        return new ObservableImpl<T>(Stream.of(values), null);
+        // array is only read by the source
+        return new ObservableImpl<T>(new ArraySource<T>(values), null);
     }
 
     /**
-     * This method creates Observable from a given stream
+     * This method creates Observable from a given stream. As the source can
+     * only be read once, returned Observable can only be subscribed once.
      * 
      * @param stream
      *            - source input
@@ -72,7 +105,8 @@ public interface Observable<T> {
     }
 
     /**
-     * This method creates Observable from an iterator
+     * This method creates Observable from an iterator. As the source can only
+     * be read once, returned Observable can only be subscribed once.
      * 
      * @param it
      *            - source iterator
@@ -85,7 +119,8 @@ public interface Observable<T> {
     }
 
     /**
-     * This method creates Observable from a spliterator
+     * This method creates Observable from a spliterator. As the source can only
+     * be read once, returned Observable can only be subscribed once.
      * 
      * @param it
      *            - source spliterator
@@ -105,7 +140,7 @@ public interface Observable<T> {
      */
     public static <T> Observable<T> from(Collection<T> c) {
         Objects.requireNonNull(c);
-        return new ObservableImpl<T>(c.stream(), null);
+        return new ObservableImpl<T>(new CollectionSource<T>(c), null);
     }
 
     /**
@@ -141,7 +176,7 @@ public interface Observable<T> {
      */
     public static <T> Observable<T> throwing(Throwable error) {
         Objects.requireNonNull(error);
-        return new ObservableImpl<T>(Stream.<T> of(), error);
+        return new ObservableImpl<T>(() -> Stream.<T> of(), error);
     }
 
     /**
@@ -154,12 +189,12 @@ public interface Observable<T> {
      * @return instance of Observable
      */
     public static Observable<Integer> range(int from, int to) {
-        return new ObservableImpl<Integer>(IntStream.range(from, to).boxed(),
-                null);
+        return new ObservableImpl<Integer>(new RangeSource(from, to), null);
     }
 
     /**
-     * Creates infinite natural numbers starting from given number
+     * Creates natural numbers starting from given number up
+     * to Integer.MAX_VALUE
      * 
      * @param from
      *            - starting number
@@ -167,7 +202,61 @@ public interface Observable<T> {
      */
     public static Observable<Integer> integers(int from) {
         return new ObservableImpl<Integer>(
-                new NatsSpliterator(from).getStream(), null);
+                () -> new NatsSpliterator(from).getStream(), null);
+    }
+
+    /**
+     * This method creates Observable that pushes index of each period starting
+     * from 0 at fixed rate. The first tick is pushed after one period and
+     * ticks that could not be pushed on time are pushed as soon as possible.
+     * 
+     * @param period
+     *            - time between ticks
+     * @param unit
+     *            - time unit of period
+     * @return instance of Observable
+     */
+    public static Observable<Long> interval(long period, TimeUnit unit) {
+        return interval(period, period, unit, IntervalPolicy.CATCH_UP);
+    }
+
+    /**
+     * This method creates Observable that pushes index of each period starting
+     * from 0 at fixed rate. The n-th tick is due at initialDelay + n * period
+     * after subscription regardless of how long previous ticks took, so the
+     * rate doesn't drift. Ticks stop when subscription is disposed.
+     * 
+     * @param initialDelay
+     *            - delay before first tick
+     * @param period
+     *            - time between ticks
+     * @param unit
+     *            - time unit of delay and period
+     * @param policy
+     *            - whether ticks that are late are pushed or dropped
+     * @return instance of Observable
+     */
+    public static Observable<Long> interval(long initialDelay, long period,
+            TimeUnit unit, IntervalPolicy policy) {
+        Objects.requireNonNull(unit);
+        return new ObservableInterval(initialDelay, period, unit,
+                Long.MAX_VALUE, policy);
+    }
+
+    /**
+     * This method creates Observable that pushes 0 after given delay and then
+     * completes
+     * 
+     * @param delay
+     *            - delay before pushing the value
+     * @param unit
+     *            - time unit of delay
+     * @return instance of Observable
+     */
+    public static Observable<Long> timer(long delay, TimeUnit unit) {
+        Objects.requireNonNull(unit);
+        return new ObservableInterval(delay, 1, unit, 1,
+                IntervalPolicy.CATCH_UP);
     }
 
     /**
@@ -179,6 +268,174 @@ public interface Observable<T> {
         return new ObservableNever<T>();
     }
 
+    /**
+     * This method merges data of given Observables, which are all subscribed
+     * at the same time and push their data as it becomes available
+     * 
+     * @param sources
+     *            - Observables to merge
+     * @return instance of Observable
+     */
+    public static <T> Observable<T> merge(
+            Collection<? extends Observable<? extends T>> sources) {
+        return merge(sources, Integer.MAX_VALUE);
+    }
+
+    /**
+     * This method merges data of given Observables, up to maxConcurrency of
+     * them are subscribed at a time and next Observable is subscribed when
+     * one of them completes
+     * 
+     * @param sources
+     *            - Observables to merge
+     * @param maxConcurrency
+     *            - max number of Observables subscribed at a time
+     * @return instance of Observable
+     */
+    public static <T> Observable<T> merge(
+            Collection<? extends Observable<? extends T>> sources,
+            int maxConcurrency) {
+        Objects.requireNonNull(sources);
+        return merge(new ObservableImpl<Observable<? extends T>>(
+                () -> sources.stream().map(o -> o), null), maxConcurrency,
+                DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * This method merges data of Observables that are pushed by given
+     * Observable. Each Observable is subscribed as soon as it's pushed, up to
+     * maxConcurrency of them at a time, and its data is buffered up to
+     * bufferSize elements until it's pushed to the subscriber.
+     * 
+     * @param sources
+     *            - Observable of Observables to merge
+     * @param maxConcurrency
+     *            - max number of Observables subscribed at a time
+     * @param bufferSize
+     *            - max number of elements buffered for each Observable
+     * @return instance of Observable
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Observable<T> merge(
+            Observable<? extends Observable<? extends T>> sources,
+            int maxConcurrency, int bufferSize) {
+        Objects.requireNonNull(sources);
+        return new ObservableMerge<Observable<? extends T>, T>(
+                (Observable<Observable<? extends T>>) sources,
+                Function.identity(), maxConcurrency, bufferSize);
+    }
+
+    /**
+     * This method combines elements at the same position of given Observables
+     * using given function. Elements are passed to the function in a flat
+     * array in the order of Observables and it stops when any Observable has
+     * no more data. Observables that are created from streams or collections
+     * are pulled together, otherwise elements are buffered as they are pushed
+     * by each Observable until elements of all Observables are available.
+     * 
+     * @param sources
+     *            - Observables to combine
+     * @param zipper
+     *            - function that combines elements
+     * @return instance of Observable
+     */
+    public static <R> Observable<R> zip(List<? extends Observable<?>> sources,
+            Function<Object[], ? extends R> zipper) {
+        Objects.requireNonNull(sources);
+        Objects.requireNonNull(zipper);
+        for (Observable<?> source : sources) {
+            if (!(source instanceof Streamable)) {
+                return zip(sources, zipper, DEFAULT_BUFFER_SIZE);
+            }
+        }
+        return new ObservableImpl<R>(() -> {
+            Spliterator<?>[] spliterators = new Spliterator<?>[sources.size()];
+            for (int i = 0; i < spliterators.length; i++) {
+                spliterators[i] = ((Streamable<?>) sources.get(i)).getStream()
+                        .spliterator();
+            }
+            return new ArrayZipSpliterator<R>(spliterators, zipper)
+                    .getStream();
+        }, null);
+    }
+
+    /**
+     * This method combines elements at the same position of given Observables
+     * as they are pushed, e.g. by Observables that are created with create()
+     * or that push data on different schedulers. Each Observable is only asked
+     * for as many elements as its buffer can hold.
+     * 
+     * @param sources
+     *            - Observables to combine
+     * @param zipper
+     *            - function that combines elements
+     * @param bufferSize
+     *            - max number of elements buffered for each Observable
+     * @return instance of Observable
+     */
+    public static <R> Observable<R> zip(List<? extends Observable<?>> sources,
+            Function<Object[], ? extends R> zipper, int bufferSize) {
+        return new ObservableZip<R>(sources, zipper, bufferSize);
+    }
+
+    /**
+     * This method combines latest elements of two Observables whenever either
+     * of them pushes data after both have pushed at least one element
+     * 
+     * @param first
+     *            - first Observable
+     * @param second
+     *            - second Observable
+     * @param combiner
+     *            - function that combines latest elements
+     * @return instance of Observable
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B, R> Observable<R> combineLatest(
+            Observable<? extends A> first, Observable<? extends B> second,
+            BiFunction<? super A, ? super B, ? extends R> combiner) {
+        Objects.requireNonNull(combiner);
+        return combineLatest(Arrays.asList(first, second),
+                values -> combiner.apply((A) values[0], (B) values[1]));
+    }
+
+    /**
+     * This method combines latest elements of given Observables whenever any
+     * of them pushes data after all of them have pushed at least one element.
+     * Latest elements are passed to the function in a flat array in the order
+     * of Observables. It completes when all Observables have completed or
+     * when any Observable completes without pushing any element.
+     * 
+     * @param sources
+     *            - Observables to combine
+     * @param combiner
+     *            - function that combines latest elements
+     * @return instance of Observable
+     */
+    public static <R> Observable<R> combineLatest(
+            List<? extends Observable<?>> sources,
+            Function<Object[], ? extends R> combiner) {
+        return combineLatest(sources, combiner, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * This method combines latest elements of given Observables whenever any
+     * of them pushes data
+     * 
+     * @param sources
+     *            - Observables to combine
+     * @param combiner
+     *            - function that combines latest elements
+     * @param bufferSize
+     *            - max number of elements buffered for each Observable
+     * @return instance of Observable
+     */
+    public static <R> Observable<R> combineLatest(
+            List<? extends Observable<?>> sources,
+            Function<Object[], ? extends R> combiner, int bufferSize) {
+        return new ObservableCombineLatest<R>(sources, combiner, bufferSize);
+    }
+
     /**
      * This method counts number of elements in stream and creates another
      * stream with that value that is consumed by the subscriber
@@ -223,6 +480,73 @@ public interface Observable<T> {
     <R> Observable<R> flatMap(
             Function<? super T, ? extends Stream<? extends R>> mapper);
 
+    /**
+     * This method creates an Observable for each element using given function
+     * and merges their data. Created Observables are subscribed as soon as
+     * they are created so they can push data at the same time on their own
+     * schedulers.
+     * 
+     * @param mapper
+     *            - function that creates Observable for an element
+     * @param maxConcurrency
+     *            - max number of created Observables subscribed at a time
+     * @return instance of Observable
+     */
+    default <R> Observable<R> flatMap(
+            Function<? super T, ? extends Observable<? extends R>> mapper,
+            int maxConcurrency) {
+        return flatMap(mapper, maxConcurrency, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * This method creates an Observable for each element using given function
+     * and merges their data
+     * 
+     * @param mapper
+     *            - function that creates Observable for an element
+     * @param maxConcurrency
+     *            - max number of created Observables subscribed at a time
+     * @param prefetch
+     *            - max number of elements buffered for each created
+     *            Observable
+     * @return instance of Observable
+     */
+    default <R> Observable<R> flatMap(
+            Function<? super T, ? extends Observable<? extends R>> mapper,
+            int maxConcurrency, int prefetch) {
+        return new ObservableMerge<T, R>(this, mapper, maxConcurrency,
+                prefetch);
+    }
+
+    /**
+     * This method creates an Observable for each element using given function
+     * and pushes their data in order, i.e. next Observable is subscribed when
+     * previous Observable completes
+     * 
+     * @param mapper
+     *            - function that creates Observable for an element
+     * @return instance of Observable
+     */
+    default <R> Observable<R> concatMap(
+            Function<? super T, ? extends Observable<? extends R>> mapper) {
+        return flatMap(mapper, 1, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * This method creates an Observable for each element using given function
+     * and only pushes data of the latest Observable, previous Observable is
+     * unsubscribed as soon as next element arrives
+     * 
+     * @param mapper
+     *            - function that creates Observable for an element
+     * @return instance of Observable
+     */
+    default <R> Observable<R> switchMap(
+            Function<? super T, ? extends Observable<? extends R>> mapper) {
+        return new ObservableSwitchMap<T, R>(this, mapper,
+                DEFAULT_BUFFER_SIZE);
+    }
+
     /**
      * This method limits number of elments in internal stream that would be
      * pushed to the subscriber
@@ -259,7 +583,8 @@ public interface Observable<T> {
     Observable<T> sorted(Comparator<? super T> comparator);
 
     /**
-     * This method changes scheduler for this Observable
+     * This method returns a new Observable that pushes data using given
+     * scheduler, this Observable is not changed
      * 
      * @param scheduler
      *            - to set
@@ -268,7 +593,366 @@ public interface Observable<T> {
     Observable<T> subscribeOn(Scheduler scheduler);
 
     /**
-     * This method merges internal stream with stream of another Observable
+     * This method returns a new Observable that changes how much data is
+     * pushed by each background task before it yields back to the scheduler.
+     * A task pushes up to maxBatchSize elements or stops earlier when its time
+     * slice has expired.
+     * 
+     * @param maxBatchSize
+     *            - max number of elements pushed by a single task
+     * @param timeSliceMillis
+     *            - max time in milliseconds a single task can run, 0 for no
+     *            limit
+     * @return instance of Observable
+     */
+    Observable<T> drainBatch(int maxBatchSize, long timeSliceMillis);
+
+    /**
+     * This method moves notifications of this Observable to given scheduler
+     * using a buffer of default size
+     * 
+     * @param scheduler
+     *            - scheduler that notifies subscriber
+     * @return instance of Observable
+     */
+    default Observable<T> observeOn(Scheduler scheduler) {
+        return observeOn(scheduler, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * This method moves notifications of this Observable to given scheduler.
+     * Unlike subscribeOn, which changes where data is produced, observeOn
+     * changes where subscriber is notified. Data is handed off through a
+     * bounded queue and this Observable is only asked for as many elements as
+     * the queue can hold.
+     * 
+     * @param scheduler
+     *            - scheduler that notifies subscriber
+     * @param bufferSize
+     *            - max number of elements buffered between schedulers
+     * @return instance of Observable
+     */
+    default Observable<T> observeOn(Scheduler scheduler, int bufferSize) {
+        return new ObservableObserveOn<T>(this, scheduler, bufferSize);
+    }
+
+    /**
+     * This method collects data of this Observable into lists of given size
+     * so that subscriber can process data in batches. Last list may have
+     * fewer elements.
+     * 
+     * @param count
+     *            - number of elements in each list
+     * @return instance of Observable
+     */
+    default Observable<List<T>> buffer(int count) {
+        return new ObservableBuffer<T>(this, count, 0, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * This method collects data of this Observable into lists that are pushed
+     * at the end of each timespan. Lists are not pushed for timespans without
+     * any data.
+     * 
+     * @param timespan
+     *            - time during which data is collected into a list
+     * @param unit
+     *            - time unit of timespan
+     * @return instance of Observable
+     */
+    default Observable<List<T>> buffer(long timespan, TimeUnit unit) {
+        return buffer(timespan, unit, Integer.MAX_VALUE);
+    }
+
+    /**
+     * This method collects data of this Observable into lists that are pushed
+     * at the end of each timespan or as soon as they reach max count,
+     * whichever comes first
+     * 
+     * @param timespan
+     *            - time during which data is collected into a list
+     * @param unit
+     *            - time unit of timespan
+     * @param maxCount
+     *            - max number of elements in each list
+     * @return instance of Observable
+     */
+    default Observable<List<T>> buffer(long timespan, TimeUnit unit,
+            int maxCount) {
+        Objects.requireNonNull(unit);
+        if (timespan <= 0) {
+            throw new IllegalArgumentException("Illegal timespan " + timespan);
+        }
+        return new ObservableBuffer<T>(this, maxCount,
+                unit.toNanos(timespan), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * This method divides data of this Observable into windows of given size,
+     * where each window is an Observable so that operators can be applied to
+     * it. A window is pushed as soon as it receives its first element and it
+     * receives data as it arrives until it's full. A window replays its data
+     * so it can be subscribed any number of times.
+     * 
+     * @param count
+     *            - number of elements in each window
+     * @return instance of Observable
+     */
+    default Observable<Observable<T>> window(int count) {
+        return new ObservableWindow<T>(this, count, 0, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * This method divides data of this Observable into windows of given
+     * timespan, where each window is an Observable that is pushed as soon as
+     * it receives its first element and is completed at the end of its
+     * timespan
+     * 
+     * @param timespan
+     *            - time during which data is pushed to a window
+     * @param unit
+     *            - time unit of timespan
+     * @return instance of Observable
+     */
+    default Observable<Observable<T>> window(long timespan, TimeUnit unit) {
+        Objects.requireNonNull(unit);
+        if (timespan <= 0) {
+            throw new IllegalArgumentException("Illegal timespan " + timespan);
+        }
+        return new ObservableWindow<T>(this, Integer.MAX_VALUE,
+                unit.toNanos(timespan), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * This method pushes the latest element of this Observable at the end of
+     * each period and drops other elements, so subscriber receives at most
+     * one element per period. Periods without any data are skipped and the
+     * latest element is pushed when this Observable completes.
+     * 
+     * @param period
+     *            - time between elements that are pushed
+     * @param unit
+     *            - time unit of period
+     * @return instance of Observable
+     */
+    default Observable<T> sample(long period, TimeUnit unit) {
+        return new ObservableThrottle<T>(this, ObservableThrottle.Mode.LAST,
+                period, unit);
+    }
+
+    /**
+     * This method is same as sample, which pushes the latest element of this
+     * Observable at the end of each period
+     * 
+     * @param period
+     *            - time between elements that are pushed
+     * @param unit
+     *            - time unit of period
+     * @return instance of Observable
+     */
+    default Observable<T> throttleLast(long period, TimeUnit unit) {
+        return sample(period, unit);
+    }
+
+    /**
+     * This method pushes the first element of this Observable and drops
+     * other elements until the period has elapsed. Elements are pushed on the
+     * thread of this Observable and they are dropped while subscriber has no
+     * outstanding demand.
+     * 
+     * @param period
+     *            - time during which elements are dropped after an element
+     *            is pushed
+     * @param unit
+     *            - time unit of period
+     * @return instance of Observable
+     */
+    default Observable<T> throttleFirst(long period, TimeUnit unit) {
+        return new ObservableThrottle<T>(this, ObservableThrottle.Mode.FIRST,
+                period, unit);
+    }
+
+    /**
+     * This method pushes an element of this Observable only after given
+     * timeout has passed without receiving another element, so bursts of
+     * data are reduced to their last element. The latest element is pushed
+     * when this Observable completes.
+     * 
+     * @param timeout
+     *            - time without any other element before an element is
+     *            pushed
+     * @param unit
+     *            - time unit of timeout
+     * @return instance of Observable
+     */
+    default Observable<T> debounce(long timeout, TimeUnit unit) {
+        return new ObservableThrottle<T>(this,
+                ObservableThrottle.Mode.DEBOUNCE, timeout, unit);
+    }
+
+    /**
+     * This method returns ConnectableObservable that shares a single
+     * subscription of this Observable with all of its subscribers after it's
+     * connected. Subscribers only receive data that is pushed after they
+     * subscribe.
+     * 
+     * @return instance of ConnectableObservable
+     */
+    default ConnectableObservable<T> publish() {
+        return new ObservableConnectable<T>(this, PublishSubject::new);
+    }
+
+    /**
+     * This method returns Observable that shares a single subscription of
+     * this Observable while it has any subscribers. It subscribes to this
+     * Observable when first subscriber subscribes and unsubscribes when last
+     * subscriber unsubscribes.
+     * 
+     * @return instance of Observable
+     */
+    default Observable<T> share() {
+        return publish().refCount();
+    }
+
+    /**
+     * This method returns Observable that subscribes to this Observable when
+     * first subscriber subscribes and records its data so that it's replayed
+     * to later subscribers without subscribing to this Observable again
+     * 
+     * @return instance of Observable
+     */
+    default Observable<T> cache() {
+        return cache(ObservableCache.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * This method returns Observable that records data of this Observable
+     * using segments of given size and replays it to all subscribers
+     * 
+     * @param segmentSize
+     *            - number of elements in each segment of the storage
+     * @return instance of Observable
+     */
+    default Observable<T> cache(int segmentSize) {
+        return new ObservableCache<T>(this, segmentSize);
+    }
+
+    /**
+     * This method returns ConnectableObservable that records data of this
+     * Observable after it's connected and replays it to each subscriber
+     * 
+     * @return instance of ConnectableObservable
+     */
+    default ConnectableObservable<T> replay() {
+        return new ObservableConnectable<T>(this,
+                () -> new ReplaySubject<T>(Integer.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    /**
+     * This method returns ConnectableObservable that keeps last given number
+     * of elements of this Observable and replays them to each subscriber
+     * 
+     * @param maxSize
+     *            - max number of elements to keep
+     * @return instance of ConnectableObservable
+     */
+    default ConnectableObservable<T> replay(int maxSize) {
+        return new ObservableConnectable<T>(this,
+                () -> new ReplaySubject<T>(maxSize, Long.MAX_VALUE));
+    }
+
+    /**
+     * This method returns ConnectableObservable that keeps elements of this
+     * Observable that were pushed within given time and replays them to each
+     * subscriber
+     * 
+     * @param maxAge
+     *            - max age of elements to keep
+     * @param unit
+     *            - time unit of max age
+     * @return instance of ConnectableObservable
+     */
+    default ConnectableObservable<T> replay(long maxAge, TimeUnit unit) {
+        Objects.requireNonNull(unit);
+        long maxAgeNanos = unit.toNanos(maxAge);
+        return new ObservableConnectable<T>(this,
+                () -> new ReplaySubject<T>(Integer.MAX_VALUE, maxAgeNanos));
+    }
+
+    /**
+     * This method divides data of this Observable into given number of rails
+     * in round-robin fashion, which are processed concurrently. Unlike
+     * parallel, it doesn't depend on splitting of internal stream so it can
+     * be used with any Observable.
+     * 
+     * @param rails
+     *            - number of rails
+     * @return instance of ParallelObservable
+     */
+    default ParallelObservable<T> parallel(int rails) {
+        return new ParallelObservableImpl<T>(this, rails, null);
+    }
+
+    /**
+     * This method divides data of this Observable into given number of rails
+     * by hash of the key so that elements with the same key are processed by
+     * the same rail in the order they were pushed
+     * 
+     * @param rails
+     *            - number of rails
+     * @param keySelector
+     *            - function that returns key of an element
+     * @return instance of ParallelObservable
+     */
+    default ParallelObservable<T> parallel(int rails,
+            Function<? super T, ?> keySelector) {
+        Objects.requireNonNull(keySelector);
+        return new ParallelObservableImpl<T>(this, rails, keySelector);
+    }
+
+    /**
+     * This method applies given function to the data of this Observable in
+     * parallel using shared fork-join pool and notifies subscriber serially in
+     * the same order as this Observable pushed the data
+     * 
+     * @param mapper
+     *            - function that is applied in parallel
+     * @return instance of Observable
+     */
+    default <R> Observable<R> parallelMap(
+            Function<? super T, ? extends R> mapper) {
+        return parallelMap(mapper, CancelableSpliterator.defaultPool(),
+                DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * This method applies given function to the data of this Observable in
+     * parallel using given fork-join pool. Results are kept in a reorder
+     * buffer until results of all preceding elements are pushed so subscriber
+     * is notified serially in the same order as this Observable pushed the
+     * data. An error thrown by the function is notified after results of
+     * preceding elements.
+     * 
+     * @param mapper
+     *            - function that is applied in parallel
+     * @param pool
+     *            - fork-join pool that applies the function
+     * @param maxInFlight
+     *            - max number of elements that are being processed or waiting
+     *            for preceding elements
+     * @return instance of Observable
+     */
+    default <R> Observable<R> parallelMap(
+            Function<? super T, ? extends R> mapper, ForkJoinPool pool,
+            int maxInFlight) {
+        return new ObservableParallelMap<T, R>(this, mapper, pool,
+                maxInFlight);
+    }
+
+    /**
+     * This method merges data of this Observable with data of another
+     * Observable. Both Observables are subscribed at the same time and their
+     * data is pushed as it becomes available.
      * 
      * @param other
      *            - other Observable
@@ -286,6 +970,39 @@ public interface Observable<T> {
      */
     <U> Observable<Tuple> zip(Observable<? extends U> other);
 
+    /**
+     * This method combines elements at the same position of this and another
+     * Observable using given function, e.g. Pair::of, without creating an
+     * intermediate tuple. It stops when either Observable has no more data.
+     * If other Observable is not created from a stream or collection then
+     * elements are buffered as they are pushed by both Observables.
+     * 
+     * @param other
+     *            - other Observable
+     * @param zipper
+     *            - function that combines two elements
+     * @return instance of Observable
+     */
+    <U, R> Observable<R> zip(Observable<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends R> zipper);
+
+    /**
+     * This method combines each element of this Observable with the latest
+     * element of another Observable. Elements that are pushed before the
+     * other Observable has pushed any element are dropped.
+     * 
+     * @param other
+     *            - other Observable
+     * @param combiner
+     *            - function that combines elements
+     * @return instance of Observable
+     */
+    default <U, R> Observable<R> withLatestFrom(Observable<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends R> combiner) {
+        return new ObservableWithLatestFrom<T, U, R>(this, other, combiner,
+                DEFAULT_BUFFER_SIZE);
+    }
+
     /**
      * Converts internal stream into parallel stream (underlying stream must
      * support parallel processing)
@@ -294,6 +1011,16 @@ public interface Observable<T> {
      */
     Observable<T> parallel();
 
+    /**
+     * Converts internal stream into parallel stream that is pushed to the
+     * subscriber using given fork-join pool instead of the shared pool
+     * 
+     * @param pool
+     *            - fork-join pool that pushes the data
+     * @return instance of Observable that supports parallel stream
+     */
+    Observable<T> parallel(ForkJoinPool pool);
+
     /**
      * This method subscribes given consumer and starts pushing the data. By
      * default, data is pushed asynchronously using thread-pool scheduler.
@@ -311,6 +1038,29 @@ public interface Observable<T> {
     Subscription subscribe(Consumer<T> onNext, Consumer<Throwable> onError,
             OnCompletion onCompletion);
 
+    /**
+     * This method subscribes given consumer with bounded demand. Observable
+     * pushes at most initialRequest elements and then waits until subscriber
+     * requests more elements using request method of subscription, which keeps
+     * memory bounded when subscriber is slower than the source. Note:
+     * Observables created from consumer function push data regardless of the
+     * demand.
+     * 
+     * @param onNext
+     *            - consumer function that is called to consume the data
+     * @param onError
+     *            - consumer function that is called for notifying an error
+     * @param onCompletion
+     *            - function that is invoked when all data is pushed
+     *            successfully
+     * @param initialRequest
+     *            - number of elements to push before subscriber requests more
+     * @return subscription handle that can be used for requesting more data
+     *         and for unsubscribing
+     */
+    Subscription subscribe(Consumer<T> onNext, Consumer<Throwable> onError,
+            OnCompletion onCompletion, long initialRequest);
+
     /**
      * This method subscribes given consumer and starts pushing the data. By
      * default, data is pushed asynchronously using thread-pool scheduler. Note:
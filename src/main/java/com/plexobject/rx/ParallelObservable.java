@@ -0,0 +1,106 @@
+package com.plexobject.rx;
+
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.plexobject.rx.scheduler.Scheduler;
+
+/**
+ * This interface defines operators of an Observable whose data is divided into
+ * a fixed number of rails. Data of each rail is processed one element at a
+ * time in the order it was pushed by source Observable but rails are processed
+ * concurrently by the scheduler. Unlike parallel stream, which depends on
+ * splitting of the source, rails can be used with any source including
+ * iterators and Observables created by user-defined function. Data is either
+ * assigned to the rails in round-robin fashion or by hash of a key so that all
+ * elements with the same key are processed in the same rail.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of rail data
+ */
+public interface ParallelObservable<T> {
+    /**
+     * This method returns number of rails
+     *
+     * @return number of rails
+     */
+    int getRails();
+
+    /**
+     * This method changes scheduler that processes the rails, each rail uses
+     * its own worker of the scheduler
+     *
+     * @param scheduler
+     *            - scheduler that processes the rails
+     * @return instance of ParallelObservable
+     */
+    ParallelObservable<T> runOn(Scheduler scheduler);
+
+    /**
+     * This method changes scheduler that processes the rails and number of
+     * elements that are requested from source Observable ahead of processing
+     *
+     * @param scheduler
+     *            - scheduler that processes the rails
+     * @param prefetch
+     *            - max number of elements that are buffered across all rails
+     * @return instance of ParallelObservable
+     */
+    ParallelObservable<T> runOn(Scheduler scheduler, int prefetch);
+
+    /**
+     * This method applies given function to the data of each rail
+     *
+     * @param mapper
+     *            - function that converts data
+     * @return instance of ParallelObservable
+     */
+    <R> ParallelObservable<R> map(Function<? super T, ? extends R> mapper);
+
+    /**
+     * This method filters data of each rail
+     *
+     * @param predicate
+     *            - function that returns true for elements that are kept
+     * @return instance of ParallelObservable
+     */
+    ParallelObservable<T> filter(Predicate<? super T> predicate);
+
+    /**
+     * This method reduces data of each rail to a single value that is pushed
+     * when source Observable completes
+     *
+     * @param initial
+     *            - function that creates initial value of each rail
+     * @param reducer
+     *            - function that combines current value with next element
+     * @return instance of ParallelObservable with a single element per rail
+     */
+    <R> ParallelObservable<R> reduce(Supplier<R> initial,
+            BiFunction<R, ? super T, R> reducer);
+
+    /**
+     * This method reduces data of each rail and then reduces values of all
+     * rails to a single value. Returned Observable doesn't push any data if
+     * the rails are empty.
+     *
+     * @param reducer
+     *            - function that combines two values
+     * @return instance of Observable with a single element
+     */
+    Observable<T> reduce(BinaryOperator<T> reducer);
+
+    /**
+     * This method merges the rails back into an Observable whose subscriber is
+     * notified serially. Data of different rails is pushed in the order it's
+     * processed.
+     *
+     * @return instance of Observable
+     */
+    Observable<T> sequential();
+}
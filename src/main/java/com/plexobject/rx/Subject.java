@@ -0,0 +1,118 @@
+package com.plexobject.rx;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.plexobject.rx.impl.BehaviorSubject;
+import com.plexobject.rx.impl.Observer;
+import com.plexobject.rx.impl.PublishSubject;
+import com.plexobject.rx.impl.ReplaySubject;
+
+/**
+ * This interface defines a hot Observable that is also an Observer so data
+ * that is pushed to it is multicasted to all of its current subscribers
+ * instead of reading the source again for each subscriber. Subjects push data
+ * on the thread that calls onNext, which must not be called concurrently, so
+ * demand of subscribers is tracked but not enforced, use operators or observeOn
+ * to buffer data for slow subscribers.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public interface Subject<T> extends Observable<T>, Observer<T> {
+    /**
+     * This method returns true if Subject has any subscribers
+     *
+     * @return true if there are subscribers
+     */
+    boolean hasSubscribers();
+
+    /**
+     * This method creates Subject that only pushes data that is received
+     * after subscription
+     *
+     * @return instance of Subject
+     */
+    public static <T> Subject<T> newPublishSubject() {
+        return new PublishSubject<T>();
+    }
+
+    /**
+     * This method creates Subject that pushes the latest element to new
+     * subscribers followed by data that is received after subscription
+     *
+     * @return instance of Subject
+     */
+    public static <T> Subject<T> newBehaviorSubject() {
+        return new BehaviorSubject<T>();
+    }
+
+    /**
+     * This method creates Subject that pushes given element to new subscribers
+     * until another element is received
+     *
+     * @param initial
+     *            - element that is pushed before any data is received
+     * @return instance of Subject
+     */
+    public static <T> Subject<T> newBehaviorSubject(T initial) {
+        return new BehaviorSubject<T>(initial);
+    }
+
+    /**
+     * This method creates Subject that replays all received data to new
+     * subscribers
+     *
+     * @return instance of Subject
+     */
+    public static <T> Subject<T> newReplaySubject() {
+        return new ReplaySubject<T>(Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * This method creates Subject that replays last given number of elements
+     * to new subscribers
+     *
+     * @param maxSize
+     *            - max number of elements to keep
+     * @return instance of Subject
+     */
+    public static <T> Subject<T> newReplaySubject(int maxSize) {
+        return new ReplaySubject<T>(maxSize, Long.MAX_VALUE);
+    }
+
+    /**
+     * This method creates Subject that replays elements that were received
+     * within given time to new subscribers
+     *
+     * @param maxAge
+     *            - max age of elements to keep
+     * @param unit
+     *            - time unit of max age
+     * @return instance of Subject
+     */
+    public static <T> Subject<T> newReplaySubject(long maxAge,
+            TimeUnit unit) {
+        return newReplaySubject(Integer.MAX_VALUE, maxAge, unit);
+    }
+
+    /**
+     * This method creates Subject that replays last given number of elements
+     * that were received within given time to new subscribers
+     *
+     * @param maxSize
+     *            - max number of elements to keep
+     * @param maxAge
+     *            - max age of elements to keep
+     * @param unit
+     *            - time unit of max age
+     * @return instance of Subject
+     */
+    public static <T> Subject<T> newReplaySubject(int maxSize, long maxAge,
+            TimeUnit unit) {
+        Objects.requireNonNull(unit);
+        return new ReplaySubject<T>(maxSize, unit.toNanos(maxAge));
+    }
+}
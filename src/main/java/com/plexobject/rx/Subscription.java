@@ -14,4 +14,16 @@ public interface Subscription extends Disposable {
      * @return subscription status - true/false
      */
     boolean isSubscribed();
+
+    /**
+     * This method requests n more elements from the Observable. Subscription
+     * created without initial request has unbounded demand and doesn't need to
+     * call this method, otherwise Observable stops pushing data when all
+     * requested elements have been delivered until more elements are
+     * requested.
+     * 
+     * @param n
+     *            - number of elements, must be positive
+     */
+    void request(long n);
 }
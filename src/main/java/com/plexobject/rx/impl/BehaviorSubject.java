@@ -0,0 +1,37 @@
+package com.plexobject.rx.impl;
+
+/**
+ * This implementation of Subject pushes the latest element, or initial element
+ * if no data has been received, to new subscribers followed by data that is
+ * received after subscription. Subscribers that subscribe after Subject has
+ * completed are only notified for completion or error.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class BehaviorSubject<T> extends ReplaySubject<T> {
+    public BehaviorSubject() {
+        super(1, Long.MAX_VALUE);
+    }
+
+    public BehaviorSubject(T initial) {
+        this();
+        onNext(initial);
+    }
+
+    /**
+     * This method skips the latest element when Subject has completed
+     */
+    @Override
+    Node startNode() {
+        Node node = super.startNode();
+        if (done) {
+            while (node.next != null) {
+                node = node.next;
+            }
+        }
+        return node;
+    }
+}
@@ -0,0 +1,242 @@
+package com.plexobject.rx.impl;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Cancelable;
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.util.BoundedQueue;
+
+/**
+ * This class is base class of drain loops that combine data of multiple
+ * Observables. Each source is subscribed with its own upstream subscription
+ * and its callbacks are tagged with the index of the source. Sources may push
+ * data from different threads so each implementation keeps the data in
+ * lock-free queues and only the drain loop touches the combined state.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <R>
+ *            type of subscription data
+ */
+abstract class CombineDrain<R> extends DrainTask {
+    private static final Logger logger = LoggerFactory
+            .getLogger(CombineDrain.class);
+    static final Object NULL = new Object();
+
+    final SubscriptionObserver<R> subscription;
+    final DeferredSubscription[] upstreams;
+    final int bufferSize;
+    final int limit;
+    volatile Throwable error;
+
+    CombineDrain(SubscriptionObserver<R> subscription,
+            DeferredSubscription[] upstreams, int bufferSize) {
+        super(ObservableImpl.defaultScheduler, subscription, subscription
+                .getDemand(), DEFAULT_BATCH_SIZE, TimeUnit.MILLISECONDS
+                .toNanos(DEFAULT_TIME_SLICE_MILLIS));
+        this.subscription = subscription;
+        this.upstreams = upstreams;
+        this.bufferSize = bufferSize;
+        this.limit = Math.max(1, bufferSize - (bufferSize >> 2));
+    }
+
+    /**
+     * This method creates upstream subscriptions for given number of sources
+     */
+    static DeferredSubscription[] newUpstreams(int size) {
+        DeferredSubscription[] upstreams = new DeferredSubscription[size];
+        for (int i = 0; i < size; i++) {
+            upstreams[i] = new DeferredSubscription();
+        }
+        return upstreams;
+    }
+
+    /**
+     * This method creates queue for the data of given source. Observables
+     * that are created with create() and Subjects, including shared
+     * Observables, push data without waiting for requests so their data is
+     * kept in an unbounded queue.
+     */
+    static <E> BoundedQueue<E> newQueue(Observable<?> source, int capacity) {
+        return ignoresDemand(source) ? unboundedQueue() : ObservableObserveOn
+                .newQueue(source, capacity);
+    }
+
+    static boolean ignoresDemand(Observable<?> source) {
+        while (source instanceof ObservableSubscribeOn) {
+            source = ((ObservableSubscribeOn<?>) source).source;
+        }
+        return source instanceof ObservableDelegate
+                || source instanceof SubjectBase
+                || source instanceof ObservableConnectable
+                || source instanceof ObservableRefCount;
+    }
+
+    /**
+     * This method creates lock-free queue that never rejects an element
+     */
+    static <E> BoundedQueue<E> unboundedQueue() {
+        final Queue<E> queue = new ConcurrentLinkedQueue<>();
+        return new BoundedQueue<E>() {
+            @Override
+            public boolean offer(E obj) {
+                return queue.offer(obj);
+            }
+
+            @Override
+            public E poll() {
+                return queue.poll();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return queue.isEmpty();
+            }
+
+            @Override
+            public int capacity() {
+                return Integer.MAX_VALUE;
+            }
+        };
+    }
+
+    /**
+     * This method returns Cancelable that disposes all upstream subscriptions
+     * when subscriber unsubscribes
+     */
+    static Cancelable cancelAll(DeferredSubscription[] upstreams) {
+        return new Cancelable() {
+            private volatile boolean canceled;
+
+            @Override
+            public void cancel() {
+                canceled = true;
+                for (DeferredSubscription upstream : upstreams) {
+                    upstream.dispose();
+                }
+            }
+
+            @Override
+            public boolean isCanceled() {
+                return canceled;
+            }
+        };
+    }
+
+    /**
+     * This method starts the drain loop and subscribes to the sources in
+     * order
+     */
+    @SuppressWarnings("unchecked")
+    void subscribe(List<? extends Observable<?>> sources) {
+        start();
+        for (int i = 0; i < sources.size(); i++) {
+            final int index = i;
+            Observable<Object> source = (Observable<Object>) sources.get(i);
+            upstreams[i].setUpstream(source.subscribe(
+                    obj -> onNext(index, obj), this::onError,
+                    () -> onCompleted(index), initialRequest(index)));
+        }
+    }
+
+    /**
+     * This method returns number of elements that are requested from the
+     * source when it's subscribed
+     */
+    long initialRequest(int index) {
+        return bufferSize;
+    }
+
+    /**
+     * This method is called when source at given index pushes data
+     */
+    abstract void onNext(int index, Object obj);
+
+    /**
+     * This method is called when source at given index is completed
+     */
+    abstract void onCompleted(int index);
+
+    /**
+     * This method is called when any source fails, remaining sources are
+     * disposed and error is notified by the drain loop
+     */
+    void onError(Throwable e) {
+        if (error == null) {
+            error = e;
+        }
+        cancelSources();
+        schedule();
+    }
+
+    void cancelSources() {
+        for (DeferredSubscription upstream : upstreams) {
+            upstream.dispose();
+        }
+    }
+
+    /**
+     * This method notifies subscriber if any source has failed
+     *
+     * @return true if error was notified
+     */
+    boolean checkError() {
+        Throwable e = error;
+        if (e != null) {
+            notifyError(e);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method pushes combined element to the subscriber
+     *
+     * @return PUSHED or TERMINATED if subscriber failed
+     */
+    int emit(R obj) {
+        try {
+            subscription.onNext(obj);
+        } catch (Throwable e) {
+            cancelSources();
+            notifyError(e);
+            return TERMINATED;
+        }
+        return PUSHED;
+    }
+
+    void notifyError(Throwable error) {
+        try {
+            subscription.onError(error);
+        } catch (Throwable e) {
+            logger.error("Failed to notify subscriber for error " + error, e);
+        }
+    }
+
+    /**
+     * This method disposes remaining sources and notifies subscriber for
+     * completion
+     */
+    void notifyCompleted() {
+        cancelSources();
+        try {
+            subscription.onCompleted();
+        } catch (Throwable e) {
+            logger.error("Failed to notify subscriber for onCompletion", e);
+        }
+    }
+
+    static Object wrap(Object obj) {
+        return obj == null ? NULL : obj;
+    }
+
+    static Object unwrap(Object obj) {
+        return obj == NULL ? null : obj;
+    }
+}
@@ -0,0 +1,84 @@
+package com.plexobject.rx.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.plexobject.rx.Cancelable;
+import com.plexobject.rx.Subscription;
+
+/**
+ * This class is used by operators that subscribe to another Observable. It
+ * keeps track of requests and disposal that happen before the subscription of
+ * upstream Observable is available, e.g. when upstream pushes data
+ * synchronously while subscribing, and forwards them when it's set.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public class DeferredSubscription implements Subscription, Cancelable {
+    private volatile Subscription upstream;
+    private volatile boolean disposed;
+    private final AtomicLong missedRequests = new AtomicLong();
+
+    /**
+     * This method sets subscription of upstream Observable
+     * 
+     * @param upstream
+     *            - subscription
+     */
+    public void setUpstream(Subscription upstream) {
+        this.upstream = upstream;
+        if (disposed) {
+            upstream.dispose();
+            return;
+        }
+        long n = missedRequests.getAndSet(0);
+        if (n > 0) {
+            upstream.request(n);
+        }
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Illegal request " + n);
+        }
+        Subscription s = upstream;
+        if (s != null) {
+            s.request(n);
+            return;
+        }
+        missedRequests.addAndGet(n);
+        s = upstream;
+        if (s != null) {
+            long missed = missedRequests.getAndSet(0);
+            if (missed > 0) {
+                s.request(missed);
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        Subscription s = upstream;
+        if (s != null) {
+            s.dispose();
+        }
+    }
+
+    @Override
+    public boolean isSubscribed() {
+        Subscription s = upstream;
+        return !disposed && (s == null || s.isSubscribed());
+    }
+
+    @Override
+    public void cancel() {
+        dispose();
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return disposed;
+    }
+}
@@ -0,0 +1,262 @@
+package com.plexobject.rx.impl;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.DoubleObservable;
+import com.plexobject.rx.DoubleObservable;
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.Demand;
+
+/**
+ * This is default implementation of DoubleObservable that keeps data as
+ * DoubleStream. Similar to ObservableImpl, each operator returns a new instance
+ * and a fresh stream is created for each subscription.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public class DoubleObservableImpl implements DoubleObservable {
+    private static final Logger logger = LoggerFactory
+            .getLogger(DoubleObservableImpl.class);
+
+    private final Supplier<DoubleStream> source;
+    private final Scheduler scheduler;
+    private final int batchSize;
+    private final long timeSliceMillis;
+
+    public DoubleObservableImpl(final Supplier<DoubleStream> source) {
+        this(source, ObservableImpl.defaultScheduler,
+                DrainTask.DEFAULT_BATCH_SIZE,
+                DrainTask.DEFAULT_TIME_SLICE_MILLIS);
+    }
+
+    DoubleObservableImpl(final Supplier<DoubleStream> source,
+            Scheduler scheduler, int batchSize, long timeSliceMillis) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.batchSize = batchSize;
+        this.timeSliceMillis = timeSliceMillis;
+    }
+
+    /**
+     * This class pulls values from the spliterator of internal stream and
+     * pushes them to the subscriber in batches without boxing
+     */
+    private class DoubleDrain extends DrainTask implements DoubleConsumer {
+        private final SubscriptionObserver<Double> subscription;
+        private final DoubleConsumer onNext;
+        private final Spliterator.OfDouble spliterator;
+        private boolean failed;
+
+        private DoubleDrain(SubscriptionObserver<Double> subscription,
+                DoubleConsumer onNext, Spliterator.OfDouble spliterator) {
+            super(scheduler, subscription, subscription.getDemand(),
+                    batchSize, TimeUnit.MILLISECONDS.toNanos(timeSliceMillis));
+            this.subscription = subscription;
+            this.onNext = onNext;
+            this.spliterator = spliterator;
+        }
+
+        @Override
+        int pushNext() {
+            try {
+                if (!spliterator.tryAdvance(this)) {
+                    notifyCompleted(subscription);
+                    return TERMINATED;
+                }
+            } catch (Throwable e) {
+                notifyError(subscription, e);
+                return TERMINATED;
+            }
+            return failed ? TERMINATED : PUSHED;
+        }
+
+        @Override
+        boolean completeIfEmpty() {
+            if (spliterator.getExactSizeIfKnown() == 0) {
+                notifyCompleted(subscription);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void accept(double value) {
+            if (!subscription.isSubscribed()) {
+                return;
+            }
+            try {
+                onNext.accept(value);
+            } catch (Throwable e) {
+                notifyError(subscription, e);
+                failed = true;
+            }
+        }
+    }
+
+    @Override
+    public DoubleObservable filter(DoublePredicate predicate) {
+        Objects.requireNonNull(predicate);
+
+        return withSource(() -> source.get().filter(predicate));
+    }
+
+    @Override
+    public DoubleObservable map(DoubleUnaryOperator mapper) {
+        Objects.requireNonNull(mapper);
+
+        return withSource(() -> source.get().map(mapper));
+    }
+
+    @Override
+    public <R> Observable<R> mapToObj(DoubleFunction<? extends R> mapper) {
+        Objects.requireNonNull(mapper);
+
+        Supplier<Stream<R>> newSource = () -> source.get().mapToObj(mapper);
+        return new ObservableImpl<R>(newSource, null).subscribeOn(scheduler)
+                .drainBatch(batchSize, timeSliceMillis);
+    }
+
+    @Override
+    public Observable<Double> boxed() {
+        return mapToObj(Double::valueOf);
+    }
+
+    @Override
+    public DoubleObservable limit(long maxSize) {
+        return withSource(() -> source.get().limit(maxSize));
+    }
+
+    @Override
+    public DoubleObservable skip(long n) {
+        return withSource(() -> source.get().skip(n));
+    }
+
+    /**
+     * This method sums values when the DoubleObservable is subscribed
+     */
+    @Override
+    public DoubleObservable sum() {
+        return withSource(() -> DoubleStream.of(source.get().sum()));
+    }
+
+    /**
+     * This method averages values when the DoubleObservable is subscribed
+     */
+    @Override
+    public DoubleObservable average() {
+        return new DoubleObservableImpl(() -> {
+            OptionalDouble average = source.get().average();
+            return average.isPresent() ? DoubleStream.of(average
+                    .getAsDouble()) : DoubleStream.empty();
+        }, scheduler, batchSize, timeSliceMillis);
+    }
+
+    /**
+     * This method collects statistics when the DoubleObservable is subscribed
+     */
+    @Override
+    public Observable<DoubleSummaryStatistics> summaryStatistics() {
+        Supplier<Stream<DoubleSummaryStatistics>> newSource = () -> Stream
+                .of(source.get().summaryStatistics());
+        return new ObservableImpl<DoubleSummaryStatistics>(newSource, null)
+                .subscribeOn(scheduler).drainBatch(batchSize, timeSliceMillis);
+    }
+
+    @Override
+    public DoubleObservable subscribeOn(Scheduler scheduler) {
+        Objects.requireNonNull(scheduler);
+
+        return new DoubleObservableImpl(source, scheduler, batchSize,
+                timeSliceMillis);
+    }
+
+    @Override
+    public DoubleObservable drainBatch(int maxBatchSize, long timeSliceMillis) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Illegal batch size "
+                    + maxBatchSize);
+        }
+        if (timeSliceMillis < 0) {
+            throw new IllegalArgumentException("Illegal time slice "
+                    + timeSliceMillis);
+        }
+        return new DoubleObservableImpl(source, scheduler, maxBatchSize,
+                timeSliceMillis);
+    }
+
+    @Override
+    public Subscription subscribe(DoubleConsumer onNext,
+            Consumer<Throwable> onError) {
+        return subscribe(onNext, onError, null);
+    }
+
+    @Override
+    public Subscription subscribe(DoubleConsumer onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion) {
+        return subscribe(onNext, onError, onCompletion, Demand.UNBOUNDED);
+    }
+
+    /**
+     * This method subscribes user for receiving values from stream while
+     * pushing no more data than requested by the subscriber
+     */
+    @Override
+    public Subscription subscribe(DoubleConsumer onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        SubscriptionObserver<Double> subscription = new SubscriptionImpl<Double>(
+                onNext::accept, onError, onCompletion, null, initialRequest);
+        new DoubleDrain(subscription, onNext, source.get().spliterator())
+                .start();
+        return subscription;
+    }
+
+    @Override
+    public double[] toArray() {
+        return source.get().toArray();
+    }
+
+    private DoubleObservable withSource(Supplier<DoubleStream> newSource) {
+        return new DoubleObservableImpl(newSource, scheduler, batchSize,
+                timeSliceMillis);
+    }
+
+    private static void notifyError(SubscriptionObserver<?> subscription,
+            Throwable error) {
+        try {
+            subscription.onError(error);
+        } catch (Throwable e) {
+            logger.error("Failed to notify subscriber for error " + error, e);
+        }
+    }
+
+    private static void notifyCompleted(SubscriptionObserver<?> subscription) {
+        try {
+            subscription.onCompleted();
+        } catch (Throwable e) {
+            logger.error("Failed to notify subscriber for onCompletion", e);
+        }
+    }
+}
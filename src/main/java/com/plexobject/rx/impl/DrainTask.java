@@ -0,0 +1,155 @@
+package com.plexobject.rx.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.scheduler.Worker;
+import com.plexobject.rx.util.Demand;
+
+/**
+ * This class pushes data to the subscriber in batches. Each task that is
+ * registered with the scheduler pushes up to batch-size elements or runs until
+ * its time slice expires before yielding back to the scheduler, so the cost of
+ * scheduling is paid once per batch instead of once per element. The drain
+ * loop also stops when subscriber's demand is exhausted or when there is no
+ * data available and it's registered again with the scheduler when subscriber
+ * requests more data or when producer signals new data. All tasks of a drain
+ * loop are scheduled through a single worker of the scheduler so they never
+ * overlap.
+ *
+ * @author Shahzad Bhatti
+ *
+ */
+abstract class DrainTask {
+    static final int DEFAULT_BATCH_SIZE = 128;
+    static final long DEFAULT_TIME_SLICE_MILLIS = 1;
+
+    /**
+     * Element was pushed to the subscriber
+     */
+    static final int PUSHED = 0;
+    /**
+     * No element is available right now
+     */
+    static final int EMPTY = 1;
+    /**
+     * Subscriber was notified for completion or error
+     */
+    static final int TERMINATED = 2;
+
+    private final Worker worker;
+    private final Subscription subscription;
+    private final Demand demand;
+    private final int batchSize;
+    private final long timeSliceNanos;
+    private final AtomicInteger wip = new AtomicInteger();
+
+    DrainTask(Scheduler scheduler, Subscription subscription, Demand demand,
+            int batchSize, long timeSliceNanos) {
+        this.worker = scheduler.createWorker();
+        this.subscription = subscription;
+        this.demand = demand;
+        this.batchSize = Math.max(1,
+                Math.min(batchSize, scheduler.getMaxElementsPerTick()));
+        this.timeSliceNanos = timeSliceNanos;
+    }
+
+    /**
+     * This method registers the drain loop with the scheduler and resumes it
+     * whenever subscriber requests more data. Pending tasks are released when
+     * subscriber unsubscribes.
+     */
+    void start() {
+        demand.setListener(this::schedule);
+        demand.setCancelListener(this::onCancel);
+        schedule();
+    }
+
+    /**
+     * This method is called once when subscriber unsubscribes to release
+     * pending tasks
+     */
+    void onCancel() {
+        worker.dispose();
+    }
+
+    /**
+     * This method pushes next element to the subscriber
+     *
+     * @return PUSHED if an element was pushed, EMPTY if no element is
+     *         available right now or TERMINATED if source is exhausted or an
+     *         error was notified
+     */
+    abstract int pushNext();
+
+    /**
+     * This method is called when demand is exhausted or no data is available
+     * to complete subscription without waiting for more requests if source is
+     * known to be empty
+     *
+     * @return true if completion was notified, false otherwise
+     */
+    boolean completeIfEmpty() {
+        return false;
+    }
+
+    /**
+     * This method registers the drain loop unless it's already running or
+     * registered, in which case running loop will pick up the new demand or
+     * data.
+     */
+    void schedule() {
+        if (wip.getAndIncrement() == 0) {
+            worker.schedule(DrainTask::drain, this);
+        }
+    }
+
+    /**
+     * This method is called asynchronously by scheduler. It pushes a batch of
+     * elements while subscription is still valid and there is outstanding
+     * demand. It registers itself again with the scheduler when the batch is
+     * done or time slice has expired.
+     */
+    private void drain() {
+        int missed = wip.get();
+        for (;;) {
+            final long requested = demand.get();
+            final long deadline = timeSliceNanos > 0 ? System.nanoTime()
+                    + timeSliceNanos : 0;
+            long emitted = 0;
+            boolean yield = false;
+            while (emitted < requested) {
+                if (!subscription.isSubscribed()) {
+                    return;
+                }
+                int result = pushNext();
+                if (result == TERMINATED) {
+                    return;
+                } else if (result == EMPTY) {
+                    break;
+                }
+                emitted++;
+                if (emitted == batchSize || deadline != 0
+                        && System.nanoTime() - deadline >= 0) {
+                    yield = true;
+                    break;
+                }
+            }
+            demand.produced(emitted);
+            if (yield) {
+                if (subscription.isSubscribed()) {
+                    worker.schedule(DrainTask::drain, this);
+                }
+                return;
+            }
+            if (completeIfEmpty()) {
+                return;
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+}
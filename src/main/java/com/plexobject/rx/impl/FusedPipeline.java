@@ -0,0 +1,204 @@
+package com.plexobject.rx.impl;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.plexobject.rx.util.FusedQueue;
+import com.plexobject.rx.util.QueueFuseable;
+
+/**
+ * This class describes a chain of synchronous map, filter, skip and limit
+ * operators applied to a source that can be polled directly. Adjacent
+ * operators of same kind are collapsed into a single stage when the chain is
+ * assembled, e.g. two maps are composed into one function and two filters
+ * into one predicate. Upon subscription, the whole chain is executed by a
+ * single cursor that polls the source and applies all stages in a loop, so
+ * there is no stream, spliterator or intermediate subscriber between the
+ * source and the drain loop.
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+final class FusedPipeline<T> {
+    private static final int MAP = 0;
+    private static final int FILTER = 1;
+    private static final int SKIP = 2;
+    private static final int LIMIT = 3;
+
+    /**
+     * This is returned by the cursor when there are no more elements
+     */
+    static final Object DONE = new Object();
+
+    private static final class Stage {
+        private final int kind;
+        private final Function<Object, Object> mapper;
+        private final Predicate<Object> predicate;
+        private final long count;
+
+        private Stage(int kind, Function<Object, Object> mapper,
+                Predicate<Object> predicate, long count) {
+            this.kind = kind;
+            this.mapper = mapper;
+            this.predicate = predicate;
+            this.count = count;
+        }
+    }
+
+    private final QueueFuseable<?> source;
+    private final Stage[] stages;
+
+    FusedPipeline(QueueFuseable<T> source) {
+        this(source, new Stage[0]);
+    }
+
+    private FusedPipeline(QueueFuseable<?> source, Stage[] stages) {
+        this.source = source;
+        this.stages = stages;
+    }
+
+    @SuppressWarnings("unchecked")
+    <R> FusedPipeline<R> map(Function<? super T, ? extends R> mapper) {
+        Function<Object, Object> f = (Function<Object, Object>) mapper;
+        Stage last = last(MAP);
+        if (last != null) {
+            return replaceLast(new Stage(MAP, last.mapper.andThen(f), null, 0));
+        }
+        return append(new Stage(MAP, f, null, 0));
+    }
+
+    @SuppressWarnings("unchecked")
+    FusedPipeline<T> filter(Predicate<? super T> predicate) {
+        Predicate<Object> p = (Predicate<Object>) predicate;
+        Stage last = last(FILTER);
+        if (last != null) {
+            return replaceLast(new Stage(FILTER, null, last.predicate.and(p),
+                    0));
+        }
+        return append(new Stage(FILTER, null, p, 0));
+    }
+
+    FusedPipeline<T> skip(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException(Long.toString(n));
+        }
+        Stage last = last(SKIP);
+        if (last != null) {
+            long count = last.count + n;
+            return replaceLast(new Stage(SKIP, null, null,
+                    count < 0 ? Long.MAX_VALUE : count));
+        }
+        return append(new Stage(SKIP, null, null, n));
+    }
+
+    FusedPipeline<T> limit(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException(Long.toString(maxSize));
+        }
+        Stage last = last(LIMIT);
+        if (last != null) {
+            return replaceLast(new Stage(LIMIT, null, null, Math.min(
+                    last.count, maxSize)));
+        }
+        return append(new Stage(LIMIT, null, null, maxSize));
+    }
+
+    /**
+     * This method creates a new cursor for a subscription
+     * 
+     * @return cursor that pulls elements through all stages
+     */
+    Cursor open() {
+        return new Cursor(source.fusedQueue(), stages);
+    }
+
+    private Stage last(int kind) {
+        if (stages.length > 0 && stages[stages.length - 1].kind == kind) {
+            return stages[stages.length - 1];
+        }
+        return null;
+    }
+
+    private <R> FusedPipeline<R> append(Stage stage) {
+        Stage[] newStages = Arrays.copyOf(stages, stages.length + 1);
+        newStages[stages.length] = stage;
+        return new FusedPipeline<R>(source, newStages);
+    }
+
+    private <R> FusedPipeline<R> replaceLast(Stage stage) {
+        Stage[] newStages = stages.clone();
+        newStages[stages.length - 1] = stage;
+        return new FusedPipeline<R>(source, newStages);
+    }
+
+    /**
+     * This class keeps state of skip and limit stages for a single
+     * subscription and is only accessed by its drain loop
+     */
+    static final class Cursor {
+        private final FusedQueue<?> queue;
+        private final Stage[] stages;
+        private final long[] counters;
+        private boolean limitReached;
+
+        private Cursor(FusedQueue<?> queue, Stage[] stages) {
+            this.queue = queue;
+            this.stages = stages;
+            this.counters = new long[stages.length];
+            for (int i = 0; i < stages.length; i++) {
+                if (stages[i].kind == LIMIT && stages[i].count == 0) {
+                    limitReached = true;
+                }
+            }
+        }
+
+        /**
+         * This method returns next element that passes through all stages
+         * 
+         * @return next element or DONE if there are no more elements
+         */
+        Object next() {
+            outer: while (!limitReached && !queue.isEmpty()) {
+                Object value = queue.poll();
+                for (int i = 0; i < stages.length; i++) {
+                    final Stage stage = stages[i];
+                    switch (stage.kind) {
+                    case MAP:
+                        value = stage.mapper.apply(value);
+                        break;
+                    case FILTER:
+                        if (!stage.predicate.test(value)) {
+                            continue outer;
+                        }
+                        break;
+                    case SKIP:
+                        if (counters[i] < stage.count) {
+                            counters[i]++;
+                            continue outer;
+                        }
+                        break;
+                    default:
+                        if (++counters[i] == stage.count) {
+                            limitReached = true;
+                        }
+                        break;
+                    }
+                }
+                return value;
+            }
+            return DONE;
+        }
+
+        /**
+         * This method returns true if there are no more elements
+         * 
+         * @return true if source is exhausted or a limit is reached
+         */
+        boolean isDone() {
+            return limitReached || queue.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.plexobject.rx.impl;
+
+import java.util.IntSummaryStatistics;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.DoubleObservable;
+import com.plexobject.rx.IntObservable;
+import com.plexobject.rx.LongObservable;
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.Demand;
+
+/**
+ * This is default implementation of IntObservable that keeps data as
+ * IntStream. Similar to ObservableImpl, each operator returns a new instance
+ * and a fresh stream is created for each subscription.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public class IntObservableImpl implements IntObservable {
+    private static final Logger logger = LoggerFactory
+            .getLogger(IntObservableImpl.class);
+
+    private final Supplier<IntStream> source;
+    private final Scheduler scheduler;
+    private final int batchSize;
+    private final long timeSliceMillis;
+
+    public IntObservableImpl(final Supplier<IntStream> source) {
+        this(source, ObservableImpl.defaultScheduler,
+                DrainTask.DEFAULT_BATCH_SIZE,
+                DrainTask.DEFAULT_TIME_SLICE_MILLIS);
+    }
+
+    IntObservableImpl(final Supplier<IntStream> source, Scheduler scheduler,
+            int batchSize, long timeSliceMillis) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.batchSize = batchSize;
+        this.timeSliceMillis = timeSliceMillis;
+    }
+
+    /**
+     * This class pulls values from the spliterator of internal stream and
+     * pushes them to the subscriber in batches without boxing
+     */
+    private class IntDrain extends DrainTask implements IntConsumer {
+        private final SubscriptionObserver<Integer> subscription;
+        private final IntConsumer onNext;
+        private final Spliterator.OfInt spliterator;
+        private boolean failed;
+
+        private IntDrain(SubscriptionObserver<Integer> subscription,
+                IntConsumer onNext, Spliterator.OfInt spliterator) {
+            super(scheduler, subscription, subscription.getDemand(),
+                    batchSize, TimeUnit.MILLISECONDS.toNanos(timeSliceMillis));
+            this.subscription = subscription;
+            this.onNext = onNext;
+            this.spliterator = spliterator;
+        }
+
+        @Override
+        int pushNext() {
+            try {
+                if (!spliterator.tryAdvance(this)) {
+                    notifyCompleted(subscription);
+                    return TERMINATED;
+                }
+            } catch (Throwable e) {
+                notifyError(subscription, e);
+                return TERMINATED;
+            }
+            return failed ? TERMINATED : PUSHED;
+        }
+
+        @Override
+        boolean completeIfEmpty() {
+            if (spliterator.getExactSizeIfKnown() == 0) {
+                notifyCompleted(subscription);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void accept(int value) {
+            if (!subscription.isSubscribed()) {
+                return;
+            }
+            try {
+                onNext.accept(value);
+            } catch (Throwable e) {
+                notifyError(subscription, e);
+                failed = true;
+            }
+        }
+    }
+
+    @Override
+    public IntObservable filter(IntPredicate predicate) {
+        Objects.requireNonNull(predicate);
+
+        return withSource(() -> source.get().filter(predicate));
+    }
+
+    @Override
+    public IntObservable map(IntUnaryOperator mapper) {
+        Objects.requireNonNull(mapper);
+
+        return withSource(() -> source.get().map(mapper));
+    }
+
+    @Override
+    public <R> Observable<R> mapToObj(IntFunction<? extends R> mapper) {
+        Objects.requireNonNull(mapper);
+
+        Supplier<Stream<R>> newSource = () -> source.get().mapToObj(mapper);
+        return new ObservableImpl<R>(newSource, null).subscribeOn(scheduler)
+                .drainBatch(batchSize, timeSliceMillis);
+    }
+
+    @Override
+    public LongObservable asLongObservable() {
+        return new LongObservableImpl(() -> source.get().asLongStream(),
+                scheduler, batchSize, timeSliceMillis);
+    }
+
+    @Override
+    public DoubleObservable asDoubleObservable() {
+        return new DoubleObservableImpl(() -> source.get().asDoubleStream(),
+                scheduler, batchSize, timeSliceMillis);
+    }
+
+    @Override
+    public Observable<Integer> boxed() {
+        return mapToObj(Integer::valueOf);
+    }
+
+    @Override
+    public IntObservable limit(long maxSize) {
+        return withSource(() -> source.get().limit(maxSize));
+    }
+
+    @Override
+    public IntObservable skip(long n) {
+        return withSource(() -> source.get().skip(n));
+    }
+
+    /**
+     * This method sums values when the IntObservable is subscribed
+     */
+    @Override
+    public IntObservable sum() {
+        return withSource(() -> IntStream.of(source.get().sum()));
+    }
+
+    /**
+     * This method averages values when the IntObservable is subscribed
+     */
+    @Override
+    public DoubleObservable average() {
+        return new DoubleObservableImpl(() -> {
+            OptionalDouble average = source.get().average();
+            return average.isPresent() ? DoubleStream.of(average
+                    .getAsDouble()) : DoubleStream.empty();
+        }, scheduler, batchSize, timeSliceMillis);
+    }
+
+    /**
+     * This method collects statistics when the IntObservable is subscribed
+     */
+    @Override
+    public Observable<IntSummaryStatistics> summaryStatistics() {
+        Supplier<Stream<IntSummaryStatistics>> newSource = () -> Stream
+                .of(source.get().summaryStatistics());
+        return new ObservableImpl<IntSummaryStatistics>(newSource, null)
+                .subscribeOn(scheduler).drainBatch(batchSize, timeSliceMillis);
+    }
+
+    @Override
+    public IntObservable subscribeOn(Scheduler scheduler) {
+        Objects.requireNonNull(scheduler);
+
+        return new IntObservableImpl(source, scheduler, batchSize,
+                timeSliceMillis);
+    }
+
+    @Override
+    public IntObservable drainBatch(int maxBatchSize, long timeSliceMillis) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Illegal batch size "
+                    + maxBatchSize);
+        }
+        if (timeSliceMillis < 0) {
+            throw new IllegalArgumentException("Illegal time slice "
+                    + timeSliceMillis);
+        }
+        return new IntObservableImpl(source, scheduler, maxBatchSize,
+                timeSliceMillis);
+    }
+
+    @Override
+    public Subscription subscribe(IntConsumer onNext,
+            Consumer<Throwable> onError) {
+        return subscribe(onNext, onError, null);
+    }
+
+    @Override
+    public Subscription subscribe(IntConsumer onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion) {
+        return subscribe(onNext, onError, onCompletion, Demand.UNBOUNDED);
+    }
+
+    /**
+     * This method subscribes user for receiving values from stream while
+     * pushing no more data than requested by the subscriber
+     */
+    @Override
+    public Subscription subscribe(IntConsumer onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        SubscriptionObserver<Integer> subscription = new SubscriptionImpl<Integer>(
+                onNext::accept, onError, onCompletion, null, initialRequest);
+        new IntDrain(subscription, onNext, source.get().spliterator())
+                .start();
+        return subscription;
+    }
+
+    @Override
+    public int[] toArray() {
+        return source.get().toArray();
+    }
+
+    private IntObservable withSource(Supplier<IntStream> newSource) {
+        return new IntObservableImpl(newSource, scheduler, batchSize,
+                timeSliceMillis);
+    }
+
+    private static void notifyError(SubscriptionObserver<?> subscription,
+            Throwable error) {
+        try {
+            subscription.onError(error);
+        } catch (Throwable e) {
+            logger.error("Failed to notify subscriber for error " + error, e);
+        }
+    }
+
+    private static void notifyCompleted(SubscriptionObserver<?> subscription) {
+        try {
+            subscription.onCompleted();
+        } catch (Throwable e) {
+            logger.error("Failed to notify subscriber for onCompletion", e);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.plexobject.rx.impl;
+
+import java.util.LongSummaryStatistics;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.DoubleObservable;
+import com.plexobject.rx.LongObservable;
+import com.plexobject.rx.LongObservable;
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.Demand;
+
+/**
+ * This is default implementation of LongObservable that keeps data as
+ * LongStream. Similar to ObservableImpl, each operator returns a new instance
+ * and a fresh stream is created for each subscription.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public class LongObservableImpl implements LongObservable {
+    private static final Logger logger = LoggerFactory
+            .getLogger(LongObservableImpl.class);
+
+    private final Supplier<LongStream> source;
+    private final Scheduler scheduler;
+    private final int batchSize;
+    private final long timeSliceMillis;
+
+    public LongObservableImpl(final Supplier<LongStream> source) {
+        this(source, ObservableImpl.defaultScheduler,
+                DrainTask.DEFAULT_BATCH_SIZE,
+                DrainTask.DEFAULT_TIME_SLICE_MILLIS);
+    }
+
+    LongObservableImpl(final Supplier<LongStream> source, Scheduler scheduler,
+            int batchSize, long timeSliceMillis) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.batchSize = batchSize;
+        this.timeSliceMillis = timeSliceMillis;
+    }
+
+    /**
+     * This class pulls values from the spliterator of internal stream and
+     * pushes them to the subscriber in batches without boxing
+     */
+    private class LongDrain extends DrainTask implements LongConsumer {
+        private final SubscriptionObserver<Long> subscription;
+        private final LongConsumer onNext;
+        private final Spliterator.OfLong spliterator;
+        private boolean failed;
+
+        private LongDrain(SubscriptionObserver<Long> subscription,
+                LongConsumer onNext, Spliterator.OfLong spliterator) {
+            super(scheduler, subscription, subscription.getDemand(),
+                    batchSize, TimeUnit.MILLISECONDS.toNanos(timeSliceMillis));
+            this.subscription = subscription;
+            this.onNext = onNext;
+            this.spliterator = spliterator;
+        }
+
+        @Override
+        int pushNext() {
+            try {
+                if (!spliterator.tryAdvance(this)) {
+                    notifyCompleted(subscription);
+                    return TERMINATED;
+                }
+            } catch (Throwable e) {
+                notifyError(subscription, e);
+                return TERMINATED;
+            }
+            return failed ? TERMINATED : PUSHED;
+        }
+
+        @Override
+        boolean completeIfEmpty() {
+            if (spliterator.getExactSizeIfKnown() == 0) {
+                notifyCompleted(subscription);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void accept(long value) {
+            if (!subscription.isSubscribed()) {
+                return;
+            }
+            try {
+                onNext.accept(value);
+            } catch (Throwable e) {
+                notifyError(subscription, e);
+                failed = true;
+            }
+        }
+    }
+
+    @Override
+    public LongObservable filter(LongPredicate predicate) {
+        Objects.requireNonNull(predicate);
+
+        return withSource(() -> source.get().filter(predicate));
+    }
+
+    @Override
+    public LongObservable map(LongUnaryOperator mapper) {
+        Objects.requireNonNull(mapper);
+
+        return withSource(() -> source.get().map(mapper));
+    }
+
+    @Override
+    public <R> Observable<R> mapToObj(LongFunction<? extends R> mapper) {
+        Objects.requireNonNull(mapper);
+
+        Supplier<Stream<R>> newSource = () -> source.get().mapToObj(mapper);
+        return new ObservableImpl<R>(newSource, null).subscribeOn(scheduler)
+                .drainBatch(batchSize, timeSliceMillis);
+    }
+
+    @Override
+    public DoubleObservable asDoubleObservable() {
+        return new DoubleObservableImpl(() -> source.get().asDoubleStream(),
+                scheduler, batchSize, timeSliceMillis);
+    }
+
+    @Override
+    public Observable<Long> boxed() {
+        return mapToObj(Long::valueOf);
+    }
+
+    @Override
+    public LongObservable limit(long maxSize) {
+        return withSource(() -> source.get().limit(maxSize));
+    }
+
+    @Override
+    public LongObservable skip(long n) {
+        return withSource(() -> source.get().skip(n));
+    }
+
+    /**
+     * This method sums values when the LongObservable is subscribed
+     */
+    @Override
+    public LongObservable sum() {
+        return withSource(() -> LongStream.of(source.get().sum()));
+    }
+
+    /**
+     * This method averages values when the LongObservable is subscribed
+     */
+    @Override
+    public DoubleObservable average() {
+        return new DoubleObservableImpl(() -> {
+            OptionalDouble average = source.get().average();
+            return average.isPresent() ? DoubleStream.of(average
+                    .getAsDouble()) : DoubleStream.empty();
+        }, scheduler, batchSize, timeSliceMillis);
+    }
+
+    /**
+     * This method collects statistics when the LongObservable is subscribed
+     */
+    @Override
+    public Observable<LongSummaryStatistics> summaryStatistics() {
+        Supplier<Stream<LongSummaryStatistics>> newSource = () -> Stream
+                .of(source.get().summaryStatistics());
+        return new ObservableImpl<LongSummaryStatistics>(newSource, null)
+                .subscribeOn(scheduler).drainBatch(batchSize, timeSliceMillis);
+    }
+
+    @Override
+    public LongObservable subscribeOn(Scheduler scheduler) {
+        Objects.requireNonNull(scheduler);
+
+        return new LongObservableImpl(source, scheduler, batchSize,
+                timeSliceMillis);
+    }
+
+    @Override
+    public LongObservable drainBatch(int maxBatchSize, long timeSliceMillis) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Illegal batch size "
+                    + maxBatchSize);
+        }
+        if (timeSliceMillis < 0) {
+            throw new IllegalArgumentException("Illegal time slice "
+                    + timeSliceMillis);
+        }
+        return new LongObservableImpl(source, scheduler, maxBatchSize,
+                timeSliceMillis);
+    }
+
+    @Override
+    public Subscription subscribe(LongConsumer onNext,
+            Consumer<Throwable> onError) {
+        return subscribe(onNext, onError, null);
+    }
+
+    @Override
+    public Subscription subscribe(LongConsumer onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion) {
+        return subscribe(onNext, onError, onCompletion, Demand.UNBOUNDED);
+    }
+
+    /**
+     * This method subscribes user for receiving values from stream while
+     * pushing no more data than requested by the subscriber
+     */
+    @Override
+    public Subscription subscribe(LongConsumer onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        SubscriptionObserver<Long> subscription = new SubscriptionImpl<Long>(
+                onNext::accept, onError, onCompletion, null, initialRequest);
+        new LongDrain(subscription, onNext, source.get().spliterator())
+                .start();
+        return subscription;
+    }
+
+    @Override
+    public long[] toArray() {
+        return source.get().toArray();
+    }
+
+    private LongObservable withSource(Supplier<LongStream> newSource) {
+        return new LongObservableImpl(newSource, scheduler, batchSize,
+                timeSliceMillis);
+    }
+
+    private static void notifyError(SubscriptionObserver<?> subscription,
+            Throwable error) {
+        try {
+            subscription.onError(error);
+        } catch (Throwable e) {
+            logger.error("Failed to notify subscriber for error " + error, e);
+        }
+    }
+
+    private static void notifyCompleted(SubscriptionObserver<?> subscription) {
+        try {
+            subscription.onCompleted();
+        } catch (Throwable e) {
+            logger.error("Failed to notify subscriber for onCompletion", e);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.plexobject.rx.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.Demand;
+import com.plexobject.rx.util.Tuple;
+
+/**
+ * This is base class for Observables that push data to the subscriber as it
+ * becomes available instead of pulling it from a stream. Subclasses only
+ * implement subscription with demand, and operators are applied to the data as
+ * it's pushed using a pipeline of stages.
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public abstract class ObservableBase<T> implements Observable<T> {
+    /**
+     * This method subscribes user to receive data
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError) {
+        return subscribe(onNext, onError, null);
+    }
+
+    /**
+     * This method subscribes user to receive data Note: onNext and onError are
+     * required but onCompletion is optional
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion) {
+        return subscribe(onNext, onError, onCompletion, Demand.UNBOUNDED);
+    }
+
+    /**
+     * This method subscribes to this Observable using a background task of
+     * given scheduler
+     */
+    @Override
+    public Observable<T> subscribeOn(Scheduler scheduler) {
+        return new ObservableSubscribeOn<T>(this, scheduler);
+    }
+
+    /**
+     * This method changes number of elements pushed by a single drain task of
+     * the pipeline and max time it can run before yielding back to the
+     * scheduler
+     */
+    @Override
+    public Observable<T> drainBatch(int maxBatchSize, long timeSliceMillis) {
+        return new ObservablePipeline<T>(this).drainBatch(maxBatchSize,
+                timeSliceMillis);
+    }
+
+    /**
+     * This method removes duplicates as they are pushed
+     */
+    @Override
+    public Observable<T> distinct() {
+        return new ObservablePipeline<T>(this).distinct();
+    }
+
+    /**
+     * This method filters objects as they are pushed
+     */
+    @Override
+    public Observable<T> filter(Predicate<? super T> predicate) {
+        return new ObservablePipeline<T>(this).filter(predicate);
+    }
+
+    /**
+     * This method transforms objects as they are pushed
+     */
+    @Override
+    public <R> Observable<R> map(Function<? super T, ? extends R> mapper) {
+        return new ObservablePipeline<T>(this).map(mapper);
+    }
+
+    /**
+     * This method transforms objects as they are pushed
+     */
+    @Override
+    public <R> Observable<R> flatMap(
+            Function<? super T, ? extends Stream<? extends R>> mapper) {
+        return new ObservablePipeline<T>(this).flatMap(mapper);
+    }
+
+    /**
+     * This method limits objects that can be sent and unsubscribes after the
+     * limit is reached
+     */
+    @Override
+    public Observable<T> limit(long maxSize) {
+        return new ObservablePipeline<T>(this).limit(maxSize);
+    }
+
+    /**
+     * This method skips first N objects
+     */
+    @Override
+    public Observable<T> skip(long n) {
+        return new ObservablePipeline<T>(this).skip(n);
+    }
+
+    /**
+     * This method sorts objects, which are pushed after this Observable
+     * completes
+     */
+    @Override
+    public Observable<T> sorted() {
+        return new ObservablePipeline<T>(this).sorted();
+    }
+
+    /**
+     * This method sorts objects, which are pushed after this Observable
+     * completes
+     */
+    @Override
+    public Observable<T> sorted(Comparator<? super T> comparator) {
+        return new ObservablePipeline<T>(this).sorted(comparator);
+    }
+
+    /**
+     * This method subscribes to this and other Observable at the same time
+     * and merges their data
+     */
+    @Override
+    public Observable<T> merge(Observable<? extends T> other) {
+        Objects.requireNonNull(other);
+        return Observable.merge(Arrays.asList(this, other));
+    }
+
+    /**
+     * This method combines elements at the same position of this and another
+     * Observable as they are pushed into tuples
+     */
+    @Override
+    public <U> Observable<Tuple> zip(Observable<? extends U> other) {
+        return zip(this, other, (a, b) -> new Tuple(a, b));
+    }
+
+    /**
+     * This method combines elements at the same position of this and another
+     * Observable as they are pushed
+     */
+    @Override
+    public <U, R> Observable<R> zip(Observable<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends R> zipper) {
+        return zip(this, other, zipper);
+    }
+
+    /**
+     * This method creates push based zip of two Observables
+     */
+    @SuppressWarnings("unchecked")
+    static <T, U, R> Observable<R> zip(Observable<T> first,
+            Observable<? extends U> second,
+            BiFunction<? super T, ? super U, ? extends R> zipper) {
+        Objects.requireNonNull(second);
+        Objects.requireNonNull(zipper);
+        return new ObservableZip<R>(Arrays.asList(first, second),
+                values -> zipper.apply((T) values[0], (U) values[1]),
+                DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * This returns pushed objects as a list, it blocks until this Observable
+     * completes
+     * 
+     * @return list of objects
+     */
+    @Override
+    public List<T> toList() {
+        return new ArrayList<>(collect(new ArrayList<>()));
+    }
+
+    /**
+     * This returns pushed objects as a set, it blocks until this Observable
+     * completes
+     * 
+     * @return set of objects
+     */
+    @Override
+    public Set<T> toSet() {
+        return new HashSet<>(collect(new ArrayList<>()));
+    }
+
+    /**
+     * This method subscribes to this Observable and waits until all objects
+     * are added to given collection
+     */
+    private <C extends Collection<T>> C collect(C collection) {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Subscription subscription = subscribe(obj -> {
+            synchronized (collection) {
+                collection.add(obj);
+            }
+        }, e -> {
+            error.set(e);
+            latch.countDown();
+        }, latch::countDown);
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            subscription.dispose();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while collecting", e);
+        }
+        Throwable e = error.get();
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e != null) {
+            throw new IllegalStateException(e);
+        }
+        synchronized (collection) {
+            return collection;
+        }
+    }
+
+    /**
+     * Converts internal stream into parallel stream but it's not supported in
+     * this implementation because there is no stream to split, use
+     * parallel(rails) or parallelMap instead.
+     */
+    @Override
+    public Observable<T> parallel() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Converts internal stream into parallel stream using given pool but
+     * it's not supported in this implementation, use parallel(rails) with
+     * runOn or parallelMap with the pool instead.
+     */
+    @Override
+    public Observable<T> parallel(ForkJoinPool pool) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * This method counts number of pushed elements and pushes that value to
+     * the subscriber after this Observable completes
+     * 
+     * @return
+     */
+    public Observable<Long> count() {
+        return new ObservablePipeline<T>(this).count();
+    }
+}
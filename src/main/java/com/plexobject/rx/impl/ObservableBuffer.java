@@ -0,0 +1,298 @@
+package com.plexobject.rx.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.BoundedQueue;
+import com.plexobject.rx.util.HashedWheelTimer.Timeout;
+
+/**
+ * This implementation of Observable collects data of another Observable into
+ * lists and pushes a list when it reaches max count or, when timespan is
+ * given, at the end of each timespan so that subscriber can process data in
+ * batches. Lists are pre-sized to the max count, and data of upstream
+ * Observable is added to a bounded lock-free queue so that lists are only
+ * filled by the drain loop. Timespans are tracked by the shared hashed wheel
+ * timer that only records number of timespans that have elapsed, so the timer
+ * never touches the list. Lists that would be empty at the end of a timespan
+ * are not pushed.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of source data
+ */
+public class ObservableBuffer<T> extends ObservableBase<List<T>> {
+    private static final Logger logger = LoggerFactory
+            .getLogger(ObservableBuffer.class);
+    // lists of time-based buffers without max count are not pre-sized beyond
+    // this capacity
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private final Observable<T> source;
+    private final int maxCount;
+    private final long timespanNanos;
+    private final int bufferSize;
+
+    /**
+     * @param source
+     *            - source Observable
+     * @param maxCount
+     *            - max number of elements in a list
+     * @param timespanNanos
+     *            - time after which a list is pushed regardless of its size,
+     *            0 for lists that are only pushed when they are full
+     * @param bufferSize
+     *            - number of elements requested from source at a time
+     */
+    public ObservableBuffer(Observable<T> source, int maxCount,
+            long timespanNanos, int bufferSize) {
+        Objects.requireNonNull(source);
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("Illegal count " + maxCount);
+        }
+        if (timespanNanos < 0) {
+            throw new IllegalArgumentException("Illegal timespan "
+                    + timespanNanos);
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Illegal buffer size "
+                    + bufferSize);
+        }
+        this.source = source;
+        this.maxCount = maxCount;
+        this.timespanNanos = timespanNanos;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * This class fills lists with data of upstream Observable and pushes them
+     * to the subscriber
+     */
+    private class BufferDrain extends DrainTask implements Observer<Object> {
+        private final SubscriptionObserver<List<T>> subscription;
+        private final DeferredSubscription upstream;
+        private final BoundedQueue<Object> queue;
+        private final int limit;
+        private final long start;
+        private int consumed;
+        private List<T> current;
+        // number of timespans that have elapsed, only written by the timer
+        private volatile long ticks;
+        private long handledTicks;
+        private volatile Timeout timeout;
+        private volatile boolean canceled;
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        private BufferDrain(SubscriptionObserver<List<T>> subscription,
+                DeferredSubscription upstream) {
+            super(ObservableImpl.defaultScheduler, subscription, subscription
+                    .getDemand(), DEFAULT_BATCH_SIZE, TimeUnit.MILLISECONDS
+                    .toNanos(DEFAULT_TIME_SLICE_MILLIS));
+            this.subscription = subscription;
+            this.upstream = upstream;
+            this.queue = CombineDrain.newQueue(source, bufferSize);
+            this.limit = Math.max(1, bufferSize - (bufferSize >> 2));
+            this.start = System.nanoTime();
+            this.current = newList();
+        }
+
+        @Override
+        public void onNext(Object obj) {
+            if (done) {
+                return;
+            }
+            if (!queue.offer(CombineDrain.wrap(obj))) {
+                upstream.dispose();
+                onError(new IllegalStateException(
+                        "Upstream pushed more data than buffer size "
+                                + bufferSize));
+                return;
+            }
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (done) {
+                return;
+            }
+            this.error = error;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onCompleted() {
+            done = true;
+            schedule();
+        }
+
+        /**
+         * This method is called by the timer at the end of each timespan and
+         * registers timeout for the next timespan
+         */
+        private void tick() {
+            if (canceled) {
+                return;
+            }
+            long elapsed = (System.nanoTime() - start) / timespanNanos;
+            if (elapsed > ticks) {
+                ticks = elapsed;
+                schedule();
+            }
+            long delay = start + (elapsed + 1) * timespanNanos
+                    - System.nanoTime();
+            timeout = ObservableInterval.timer.newTimeout(this::tick, delay,
+                    TimeUnit.NANOSECONDS);
+            if (canceled) {
+                timeout.cancel();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int pushNext() {
+            for (;;) {
+                long elapsed = ticks;
+                if (elapsed != handledTicks) {
+                    handledTicks = elapsed;
+                    if (!current.isEmpty()) {
+                        return emit();
+                    }
+                }
+                boolean terminated = done;
+                Object obj = queue.poll();
+                if (obj == null) {
+                    if (!terminated) {
+                        return EMPTY;
+                    }
+                    if (error != null) {
+                        stop();
+                        notifyError(error);
+                        return TERMINATED;
+                    }
+                    if (!current.isEmpty()) {
+                        return emit();
+                    }
+                    stop();
+                    notifyCompleted();
+                    return TERMINATED;
+                }
+                if (++consumed == limit) {
+                    consumed = 0;
+                    upstream.request(limit);
+                }
+                current.add((T) CombineDrain.unwrap(obj));
+                if (current.size() == maxCount) {
+                    return emit();
+                }
+            }
+        }
+
+        /**
+         * This method completes subscription without waiting for requests
+         * when upstream Observable has completed and all lists have been
+         * pushed
+         */
+        @Override
+        boolean completeIfEmpty() {
+            if (done && queue.isEmpty()) {
+                if (error != null) {
+                    stop();
+                    notifyError(error);
+                    return true;
+                }
+                if (current.isEmpty()) {
+                    stop();
+                    notifyCompleted();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void onCancel() {
+            stop();
+            super.onCancel();
+        }
+
+        private int emit() {
+            List<T> list = current;
+            current = newList();
+            try {
+                subscription.onNext(list);
+            } catch (Throwable e) {
+                upstream.dispose();
+                stop();
+                notifyError(e);
+                return TERMINATED;
+            }
+            return PUSHED;
+        }
+
+        private void stop() {
+            canceled = true;
+            Timeout t = timeout;
+            if (t != null) {
+                t.cancel();
+            }
+        }
+
+        private void notifyCompleted() {
+            try {
+                subscription.onCompleted();
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for onCompletion", e);
+            }
+        }
+
+        private void notifyError(Throwable error) {
+            try {
+                subscription.onError(error);
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for error " + error,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * This method subscribes to upstream Observable and pushes lists of its
+     * data to the subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<List<T>> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        DeferredSubscription upstream = new DeferredSubscription();
+        SubscriptionObserver<List<T>> subscription = new SubscriptionImpl<>(
+                onNext, onError, onCompletion, upstream, initialRequest);
+        BufferDrain drain = new BufferDrain(subscription, upstream);
+        drain.start();
+        if (timespanNanos > 0) {
+            drain.tick();
+        }
+        upstream.setUpstream(source.subscribe(drain::onNext, drain::onError,
+                drain::onCompleted, bufferSize));
+        return subscription;
+    }
+
+    private List<T> newList() {
+        return new ArrayList<>(Math.min(maxCount, MAX_INITIAL_CAPACITY));
+    }
+}
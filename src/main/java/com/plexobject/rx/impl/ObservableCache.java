@@ -0,0 +1,186 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.Demand;
+
+/**
+ * This implementation of Observable subscribes to its source when first
+ * subscriber subscribes and records all of its data so that later subscribers
+ * receive the same data without reading the source again, including while
+ * the source is still pushing data. Data is kept in a linked list of fixed-size
+ * array segments, where last slot of each segment points to the next segment,
+ * so recording an element only writes to an array instead of allocating a
+ * node for it. Each subscriber keeps its own position in the segments and
+ * receives data only as it requests it, so slow subscribers don't hold back
+ * the source or other subscribers.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class ObservableCache<T> extends ObservableBase<T> {
+    public static final int DEFAULT_SEGMENT_SIZE = 16;
+
+    private final Observable<T> source;
+    private final CacheSubject<T> cache;
+    private final AtomicBoolean connected = new AtomicBoolean();
+
+    public ObservableCache(Observable<T> source, int segmentSize) {
+        Objects.requireNonNull(source);
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Illegal segment size "
+                    + segmentSize);
+        }
+        this.source = source;
+        this.cache = new CacheSubject<T>(segmentSize);
+    }
+
+    /**
+     * This class records data of the source into segments and replays it to
+     * subscribers
+     */
+    private static final class CacheSubject<T> extends SubjectBase<T> {
+        private final int segmentSize;
+        private final Object[] head;
+        private Object[] tail;
+        private int tailOffset;
+        // number of recorded elements, written after the element so that
+        // subscribers that read the size also see the element
+        private volatile long size;
+
+        private CacheSubject(int segmentSize) {
+            this.segmentSize = segmentSize;
+            this.head = this.tail = new Object[segmentSize + 1];
+        }
+
+        /**
+         * This class keeps position of a subscriber in the segments
+         */
+        private static class CacheSubscriber<T> extends Subscriber<T> {
+            private final AtomicInteger wip = new AtomicInteger();
+            private Object[] segment;
+            private int offset;
+            private long index;
+            private boolean terminated;
+
+            private CacheSubscriber(CacheSubject<T> parent,
+                    Consumer<T> onNext, Consumer<Throwable> onError,
+                    OnCompletion onCompletion, long initialRequest) {
+                super(parent, onNext, onError, onCompletion, initialRequest);
+                this.segment = parent.head;
+            }
+        }
+
+        @Override
+        public void onNext(T obj) {
+            if (done) {
+                return;
+            }
+            if (tailOffset == segmentSize) {
+                Object[] segment = new Object[segmentSize + 1];
+                tail[segmentSize] = segment;
+                tail = segment;
+                tailOffset = 0;
+            }
+            tail[tailOffset++] = CombineDrain.wrap(obj);
+            size = size + 1;
+            for (Subscriber<T> subscriber : subscribers()) {
+                replay(subscriber);
+            }
+        }
+
+        @Override
+        Subscriber<T> newSubscriber(Consumer<T> onNext,
+                Consumer<Throwable> onError, OnCompletion onCompletion,
+                long initialRequest) {
+            CacheSubscriber<T> subscriber = new CacheSubscriber<T>(this,
+                    onNext, onError, onCompletion, initialRequest);
+            subscriber.getDemand().setListener(() -> replay(subscriber));
+            return subscriber;
+        }
+
+        @Override
+        void onSubscribed(Subscriber<T> subscriber, boolean added) {
+            replay(subscriber);
+        }
+
+        @Override
+        void onTerminated(Subscriber<T> subscriber) {
+            replay(subscriber);
+        }
+
+        /**
+         * This method pushes recorded elements after the position of given
+         * subscriber while it has outstanding demand. It's called by the
+         * thread pushing data and by the threads subscribing or requesting
+         * more data, but only one of them drains at a time.
+         */
+        @SuppressWarnings("unchecked")
+        private void replay(Subscriber<T> subscriber) {
+            CacheSubscriber<T> cs = (CacheSubscriber<T>) subscriber;
+            if (cs.wip.getAndIncrement() != 0) {
+                return;
+            }
+            Demand demand = cs.getDemand();
+            int missed = 1;
+            for (;;) {
+                if (cs.terminated) {
+                    return;
+                }
+                boolean terminated = done;
+                long available = size;
+                while (cs.index < available) {
+                    if (!cs.isSubscribed()) {
+                        return;
+                    }
+                    if (!demand.tryAcquire()) {
+                        break;
+                    }
+                    if (cs.offset == segmentSize) {
+                        cs.segment = (Object[]) cs.segment[segmentSize];
+                        cs.offset = 0;
+                    }
+                    Object obj = cs.segment[cs.offset++];
+                    cs.index++;
+                    if (!cs.emit((T) CombineDrain.unwrap(obj))) {
+                        cs.terminated = true;
+                        return;
+                    }
+                }
+                if (terminated && cs.index == available) {
+                    cs.terminated = true;
+                    cs.terminate();
+                    return;
+                }
+                missed = cs.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method replays recorded data to the subscriber and subscribes to
+     * the source if this is the first subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Subscription subscription = cache.subscribe(onNext, onError,
+                onCompletion, initialRequest);
+        if (connected.compareAndSet(false, true)) {
+            source.subscribe(cache::onNext, cache::onError, cache::onCompleted);
+        }
+        return subscription;
+    }
+}
@@ -0,0 +1,175 @@
+package com.plexobject.rx.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.BoundedQueue;
+import com.plexobject.rx.util.MpscArrayQueue;
+
+/**
+ * This implementation of Observable combines latest elements of multiple
+ * Observables whenever any of them pushes data. Data of all sources is added
+ * to a single bounded lock-free queue along with the index of its source so
+ * that the drain loop sees it in the order it arrived and it's the only place
+ * where latest elements are kept. Nothing is emitted until all sources have
+ * pushed an element. It completes when all sources have completed or as soon
+ * as any source completes without pushing any element.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <R>
+ *            type of subscription data
+ */
+public class ObservableCombineLatest<R> extends ObservableBase<R> {
+    private static final Object COMPLETED = new Object();
+
+    private final List<? extends Observable<?>> sources;
+    private final Function<Object[], ? extends R> combiner;
+    private final int bufferSize;
+
+    public ObservableCombineLatest(List<? extends Observable<?>> sources,
+            Function<Object[], ? extends R> combiner, int bufferSize) {
+        Objects.requireNonNull(sources);
+        Objects.requireNonNull(combiner);
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("No sources to combine");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Illegal buffer size "
+                    + bufferSize);
+        }
+        this.sources = new ArrayList<>(sources);
+        this.combiner = combiner;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * This class keeps an element or completion of a source in the queue
+     */
+    private static class Signal {
+        private final int index;
+        private final Object value;
+
+        private Signal(int index, Object value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+
+    /**
+     * This class receives data of all sources and pushes combined elements
+     * to the subscriber
+     */
+    private class CombineLatestDrain extends CombineDrain<R> {
+        private final BoundedQueue<Signal> queue;
+        private final Object[] latest;
+        private final boolean[] hasValue;
+        private final int[] consumed;
+        private int values;
+        private int active;
+
+        private CombineLatestDrain(SubscriptionObserver<R> subscription,
+                DeferredSubscription[] upstreams) {
+            super(subscription, upstreams,
+                    ObservableCombineLatest.this.bufferSize);
+            int size = sources.size();
+            // each source may also add its completion to the queue
+            this.queue = sources.stream().anyMatch(CombineDrain::ignoresDemand)
+                    ? unboundedQueue() : new MpscArrayQueue<>((bufferSize + 1)
+                            * size);
+            this.latest = new Object[size];
+            this.hasValue = new boolean[size];
+            this.consumed = new int[size];
+            this.active = size;
+        }
+
+        @Override
+        void onNext(int index, Object obj) {
+            if (!queue.offer(new Signal(index, obj))) {
+                onError(new IllegalStateException("Source " + index
+                        + " pushed more data than buffer size " + bufferSize));
+                return;
+            }
+            schedule();
+        }
+
+        @Override
+        void onCompleted(int index) {
+            queue.offer(new Signal(index, COMPLETED));
+            schedule();
+        }
+
+        @Override
+        int pushNext() {
+            for (;;) {
+                if (checkError()) {
+                    return TERMINATED;
+                }
+                Signal signal = queue.poll();
+                if (signal == null) {
+                    return EMPTY;
+                }
+                int index = signal.index;
+                if (signal.value == COMPLETED) {
+                    if (!hasValue[index] || --active == 0) {
+                        notifyCompleted();
+                        return TERMINATED;
+                    }
+                    continue;
+                }
+                latest[index] = signal.value;
+                if (!hasValue[index]) {
+                    hasValue[index] = true;
+                    values++;
+                }
+                if (++consumed[index] == limit) {
+                    consumed[index] = 0;
+                    upstreams[index].request(limit);
+                }
+                if (values < latest.length) {
+                    continue;
+                }
+                R obj;
+                try {
+                    obj = combiner.apply(latest.clone());
+                } catch (Throwable e) {
+                    cancelSources();
+                    notifyError(e);
+                    return TERMINATED;
+                }
+                return emit(obj);
+            }
+        }
+
+        @Override
+        boolean completeIfEmpty() {
+            return checkError();
+        }
+    }
+
+    /**
+     * This method subscribes to all sources and pushes combined elements to
+     * the subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<R> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        DeferredSubscription[] upstreams = CombineDrain.newUpstreams(sources
+                .size());
+        SubscriptionObserver<R> subscription = new SubscriptionImpl<R>(
+                onNext, onError, onCompletion,
+                CombineDrain.cancelAll(upstreams), initialRequest);
+        new CombineLatestDrain(subscription, upstreams).subscribe(sources);
+        return subscription;
+    }
+}
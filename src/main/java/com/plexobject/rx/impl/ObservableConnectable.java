@@ -0,0 +1,118 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.plexobject.rx.ConnectableObservable;
+import com.plexobject.rx.Disposable;
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subject;
+import com.plexobject.rx.Subscription;
+
+/**
+ * This implementation of ConnectableObservable registers subscribers with a
+ * Subject and subscribes the Subject to the source when connect is called, so
+ * the source is read once for all subscribers. Each connection uses a new
+ * Subject, which is created by given supplier, and a new connection is created
+ * after the source completes or the connection is disposed so that the source
+ * can be connected again.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class ObservableConnectable<T> extends ObservableBase<T> implements
+        ConnectableObservable<T> {
+    private final Observable<T> source;
+    private final Supplier<? extends Subject<T>> subjectFactory;
+    private final AtomicReference<Connection> current = new AtomicReference<>();
+
+    public ObservableConnectable(Observable<T> source,
+            Supplier<? extends Subject<T>> subjectFactory) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(subjectFactory);
+        this.source = source;
+        this.subjectFactory = subjectFactory;
+    }
+
+    /**
+     * This class keeps Subject and subscription of the source for a
+     * connection
+     */
+    private class Connection implements Observer<T>, Disposable {
+        private final Subject<T> subject = subjectFactory.get();
+        private final AtomicBoolean connected = new AtomicBoolean();
+        private final DeferredSubscription upstream = new DeferredSubscription();
+
+        private void connect() {
+            if (connected.compareAndSet(false, true)) {
+                upstream.setUpstream(source.subscribe(this::onNext,
+                        this::onError, this::onCompleted));
+            }
+        }
+
+        @Override
+        public void onNext(T obj) {
+            subject.onNext(obj);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            current.compareAndSet(this, null);
+            subject.onError(error);
+        }
+
+        @Override
+        public void onCompleted() {
+            current.compareAndSet(this, null);
+            subject.onCompleted();
+        }
+
+        @Override
+        public void dispose() {
+            current.compareAndSet(this, null);
+            upstream.dispose();
+        }
+    }
+
+    /**
+     * This method registers subscriber with the Subject of current connection
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        return connection().subject.subscribe(onNext, onError, onCompletion,
+                initialRequest);
+    }
+
+    @Override
+    public Disposable connect() {
+        Connection connection = connection();
+        connection.connect();
+        return connection;
+    }
+
+    @Override
+    public Observable<T> refCount() {
+        return new ObservableRefCount<T>(this);
+    }
+
+    private Connection connection() {
+        for (;;) {
+            Connection connection = current.get();
+            if (connection != null) {
+                return connection;
+            }
+            connection = new Connection();
+            if (current.compareAndSet(null, connection)) {
+                return connection;
+            }
+        }
+    }
+}
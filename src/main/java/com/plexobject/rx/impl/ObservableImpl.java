@@ -1,14 +1,18 @@
 package com.plexobject.rx.impl;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Spliterator;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -21,11 +25,24 @@ import com.plexobject.rx.Streamable;
 import com.plexobject.rx.Subscription;
 import com.plexobject.rx.scheduler.Scheduler;
 import com.plexobject.rx.util.CancelableSpliterator;
+import com.plexobject.rx.util.Demand;
+import com.plexobject.rx.util.QueueFuseable;
 import com.plexobject.rx.util.Tuple;
 import com.plexobject.rx.util.TupleSpliterator;
+import com.plexobject.rx.util.ZipSpliterator;
 
 /**
- * This is default implementation of Observable that keeps data as stream
+ * This is default implementation of Observable that keeps data as stream. The
+ * internal stream is not created when operators are applied, instead each
+ * operator returns a new Observable that describes how to build the stream and
+ * a fresh stream is created for each subscription. As instances are immutable,
+ * the same Observable can be stored as a constant and subscribed concurrently
+ * by multiple threads as long as its source can be read more than once, e.g.
+ * arrays, collections and ranges. Observables created from a stream, iterator
+ * or spliterator can only be subscribed once. When source can be polled
+ * directly, e.g. arrays, collections and ranges, adjacent map, filter, skip and
+ * limit operators are fused into a single stage that is executed by the drain
+ * loop without creating a stream.
  * 
  * @author Shahzad Bhatti
  *
@@ -36,21 +53,181 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
     private static final Logger logger = LoggerFactory
             .getLogger(ObservableImpl.class);
 
-    private Stream<T> stream;
-    private Throwable error;
-    private static final Scheduler defaultScheduler = Scheduler
+    static final Scheduler defaultScheduler = Scheduler
             .newThreadPoolScheduler(8);
-    private Scheduler scheduler;
-    private Spliterator<T> spliterator;
 
+    private final Supplier<Stream<T>> source;
+    private final Throwable error;
+    private final Scheduler scheduler;
+    private final int batchSize;
+    private final long timeSliceMillis;
+    private final ForkJoinPool parallelPool;
+    private final FusedPipeline<T> fused;
+
+    /**
+     * This constructor creates Observable that can only be subscribed once
+     * because given stream can only be consumed once
+     * 
+     * @param stream
+     *            - source stream
+     * @param error
+     *            - error that is notified upon subscription
+     */
     public ObservableImpl(final Stream<T> stream, Throwable error) {
-        this(stream, error, defaultScheduler);
+        this(() -> stream, error, defaultScheduler,
+                DrainTask.DEFAULT_BATCH_SIZE,
+                DrainTask.DEFAULT_TIME_SLICE_MILLIS,
+                stream.isParallel() ? CancelableSpliterator.defaultPool()
+                        : null, null);
     }
 
-    ObservableImpl(final Stream<T> stream, Throwable error, Scheduler scheduler) {
-        this.stream = stream;
+    /**
+     * This constructor creates Observable that creates a new stream from given
+     * source for each subscription. If source implements QueueFuseable then it's
+     * polled directly when pushing data sequentially.
+     * 
+     * @param source
+     *            - function that creates source stream
+     * @param error
+     *            - error that is notified upon subscription
+     */
+    @SuppressWarnings("unchecked")
+    public ObservableImpl(final Supplier<Stream<T>> source, Throwable error) {
+        this(source, error, defaultScheduler, DrainTask.DEFAULT_BATCH_SIZE,
+                DrainTask.DEFAULT_TIME_SLICE_MILLIS, null, error == null
+                        && source instanceof QueueFuseable ? new FusedPipeline<T>(
+                        (QueueFuseable<T>) source) : null);
+    }
+
+    private ObservableImpl(final Supplier<Stream<T>> source, Throwable error,
+            Scheduler scheduler, int batchSize, long timeSliceMillis,
+            ForkJoinPool parallelPool, FusedPipeline<T> fused) {
+        this.source = source;
         this.error = error;
         this.scheduler = scheduler;
+        this.batchSize = batchSize;
+        this.timeSliceMillis = timeSliceMillis;
+        this.parallelPool = parallelPool;
+        this.fused = fused;
+    }
+
+    /**
+     * This method creates a new Observable with given source and settings of
+     * this Observable
+     * 
+     * @param newSource
+     *            - function that creates stream of the new Observable
+     * @return instance of Observable
+     */
+    private <R> ObservableImpl<R> withSource(Supplier<Stream<R>> newSource) {
+        return withSource(newSource, null);
+    }
+
+    /**
+     * This method creates a new Observable with given source, fused stages
+     * and settings of this Observable
+     * 
+     * @param newSource
+     *            - function that creates stream of the new Observable
+     * @param newFused
+     *            - fused stages or null if source cannot be polled directly
+     * @return instance of Observable
+     */
+    private <R> ObservableImpl<R> withSource(Supplier<Stream<R>> newSource,
+            FusedPipeline<R> newFused) {
+        return new ObservableImpl<R>(newSource, error, scheduler, batchSize,
+                timeSliceMillis, parallelPool, newFused);
+    }
+
+    /**
+     * This class pulls data from the spliterator of internal stream and pushes
+     * it to the subscriber in batches
+     */
+    private class SpliteratorDrain extends DrainTask implements Consumer<T> {
+        private final SubscriptionObserver<T> subscription;
+        private final Spliterator<T> spliterator;
+        private boolean failed;
+
+        private SpliteratorDrain(SubscriptionObserver<T> subscription,
+                Spliterator<T> spliterator) {
+            super(scheduler, subscription, subscription.getDemand(),
+                    batchSize, TimeUnit.MILLISECONDS.toNanos(timeSliceMillis));
+            this.subscription = subscription;
+            this.spliterator = spliterator;
+        }
+
+        @Override
+        int pushNext() {
+            try {
+                if (!spliterator.tryAdvance(this)) {
+                    notifyCompleted(subscription);
+                    return TERMINATED;
+                }
+            } catch (Throwable e) {
+                notifyError(subscription, e);
+                return TERMINATED;
+            }
+            return failed ? TERMINATED : PUSHED;
+        }
+
+        @Override
+        boolean completeIfEmpty() {
+            if (spliterator.getExactSizeIfKnown() == 0) {
+                notifyCompleted(subscription);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void accept(T obj) {
+            if (!notifyData(subscription, obj)) {
+                failed = true;
+            }
+        }
+    }
+
+    /**
+     * This class polls data through fused stages and pushes it to the
+     * subscriber in batches
+     */
+    private class FusedDrain extends DrainTask {
+        private final SubscriptionObserver<T> subscription;
+        private final FusedPipeline.Cursor cursor;
+
+        private FusedDrain(SubscriptionObserver<T> subscription,
+                FusedPipeline.Cursor cursor) {
+            super(scheduler, subscription, subscription.getDemand(),
+                    batchSize, TimeUnit.MILLISECONDS.toNanos(timeSliceMillis));
+            this.subscription = subscription;
+            this.cursor = cursor;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        int pushNext() {
+            Object next;
+            try {
+                next = cursor.next();
+            } catch (Throwable e) {
+                notifyError(subscription, e);
+                return TERMINATED;
+            }
+            if (next == FusedPipeline.DONE) {
+                notifyCompleted(subscription);
+                return TERMINATED;
+            }
+            return notifyData(subscription, (T) next) ? PUSHED : TERMINATED;
+        }
+
+        @Override
+        boolean completeIfEmpty() {
+            if (cursor.isDone()) {
+                notifyCompleted(subscription);
+                return true;
+            }
+            return false;
+        }
     }
 
     /**
@@ -67,27 +244,49 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
      * onNext and onError is required but onCompletion is optional This method
      * registers a callback with scheduler, which is notified asynchronously
      */
+    @Override
     public Subscription subscribe(Consumer<T> onNext,
             Consumer<Throwable> onError, OnCompletion onCompletion) {
+        return subscribe(onNext, onError, onCompletion, Demand.UNBOUNDED);
+    }
+
+    /**
+     * This method subscribes user for receiving incoming data from stream
+     * while pushing no more data than requested by the subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
         Objects.requireNonNull(onNext);
         Objects.requireNonNull(onError);
 
-        if (error == null && stream.isParallel()) {
+        if (error == null && parallelPool != null) {
             CancelableSpliterator<T> cancelableSpliterator = new CancelableSpliterator<T>(
-                    stream.spliterator());
+                    getStream().spliterator());
             SubscriptionObserver<T> subscription = new SubscriptionImpl<T>(
-                    onNext, onError, onCompletion, cancelableSpliterator);
+                    onNext, onError, onCompletion, cancelableSpliterator,
+                    initialRequest);
 
-            cancelableSpliterator.parEach(v -> parallelTick(subscription, v),
-                    () -> notifyCompleted(subscription));
+            cancelableSpliterator.parEach(parallelPool,
+                    v -> parallelTick(subscription, v),
+                    () -> notifyCompleted(subscription),
+                    subscription.getDemand());
 
             return subscription;
         } else {
             SubscriptionObserver<T> subscription = new SubscriptionImpl<T>(
-                    onNext, onError, onCompletion, null);
+                    onNext, onError, onCompletion, null, initialRequest);
 
-            spliterator = stream.spliterator();
-            scheduler.scheduleBackgroundTask(s -> tick(s), subscription);
+            if (error != null) {
+                scheduler.scheduleBackgroundTask(
+                        s -> notifyError(s, error), subscription);
+            } else if (fused != null) {
+                new FusedDrain(subscription, fused.open()).start();
+            } else {
+                new SpliteratorDrain(subscription, getStream().spliterator())
+                        .start();
+            }
             return subscription;
         }
     }
@@ -99,8 +298,26 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
     public Observable<T> subscribeOn(Scheduler scheduler) {
         Objects.requireNonNull(scheduler);
 
-        this.scheduler = scheduler;
-        return this;
+        return new ObservableImpl<T>(source, error, scheduler, batchSize,
+                timeSliceMillis, parallelPool, fused);
+    }
+
+    /**
+     * This method changes number of elements pushed by a single background
+     * task and max time it can run before yielding back to the scheduler
+     */
+    @Override
+    public Observable<T> drainBatch(int maxBatchSize, long timeSliceMillis) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Illegal batch size "
+                    + maxBatchSize);
+        }
+        if (timeSliceMillis < 0) {
+            throw new IllegalArgumentException("Illegal time slice "
+                    + timeSliceMillis);
+        }
+        return new ObservableImpl<T>(source, error, scheduler, maxBatchSize,
+                timeSliceMillis, parallelPool, fused);
     }
 
     /**
@@ -108,8 +325,7 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
      */
     @Override
     public Observable<T> distinct() {
-        this.stream = stream.distinct();
-        return this;
+        return withSource(() -> source.get().distinct());
     }
 
     /**
@@ -120,8 +336,8 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
     public Observable<T> filter(Predicate<? super T> predicate) {
         Objects.requireNonNull(predicate);
 
-        this.stream = stream.filter(predicate);
-        return this;
+        return withSource(() -> source.get().filter(predicate),
+                fused == null ? null : fused.filter(predicate));
     }
 
     /**
@@ -133,8 +349,8 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
     public <R> Observable<R> map(Function<? super T, ? extends R> mapper) {
         Objects.requireNonNull(mapper);
 
-        Stream<R> newStream = stream.map(mapper);
-        return new ObservableImpl<R>(newStream, error, scheduler);
+        return withSource(() -> source.get().map(mapper), fused == null ? null
+                : fused.<R> map(mapper));
     }
 
     /**
@@ -147,8 +363,7 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
             Function<? super T, ? extends Stream<? extends R>> mapper) {
         Objects.requireNonNull(mapper);
 
-        Stream<R> newStream = stream.flatMap(mapper);
-        return new ObservableImpl<R>(newStream, error, scheduler);
+        return withSource(() -> source.get().flatMap(mapper));
     }
 
     /**
@@ -157,8 +372,8 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
      */
     @Override
     public Observable<T> limit(long maxSize) {
-        this.stream = stream.limit(maxSize);
-        return this;
+        return withSource(() -> source.get().limit(maxSize),
+                fused == null ? null : fused.limit(maxSize));
     }
 
     /**
@@ -166,8 +381,8 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
      */
     @Override
     public Observable<T> skip(long n) {
-        this.stream = stream.skip(n);
-        return this;
+        return withSource(() -> source.get().skip(n), fused == null ? null
+                : fused.skip(n));
     }
 
     /**
@@ -175,8 +390,7 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
      */
     @Override
     public Observable<T> sorted() {
-        this.stream = stream.sorted();
-        return this;
+        return withSource(() -> source.get().sorted());
     }
 
     /**
@@ -186,26 +400,18 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
     public Observable<T> sorted(Comparator<? super T> comparator) {
         Objects.requireNonNull(comparator);
 
-        this.stream = stream.sorted(comparator);
-        return this;
+        return withSource(() -> source.get().sorted(comparator));
     }
 
     /**
-     * This method merges another Observable
+     * This method merges another Observable, both Observables are subscribed
+     * at the same time
      */
-    @SuppressWarnings("unchecked")
     @Override
     public Observable<T> merge(Observable<? extends T> other) {
         Objects.requireNonNull(other);
 
-        if (other instanceof Streamable) {
-            this.stream = Stream.concat(this.stream,
-                    ((Streamable<T>) other).getStream());
-            return this;
-        } else {
-            throw new IllegalArgumentException(
-                    "Other observable is not streamable");
-        }
+        return Observable.merge(Arrays.asList(this, other));
     }
 
     /**
@@ -223,16 +429,44 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
         Objects.requireNonNull(other);
 
         if (other instanceof Streamable) {
-            TupleSpliterator<T, U> tupleSpliterator = new TupleSpliterator<T, U>(
-                    stream.spliterator(), ((Streamable<U>) other).getStream()
-                            .spliterator());
-            return new ObservableImpl<Tuple>(tupleSpliterator.getStream(), null);
+            Streamable<U> streamable = (Streamable<U>) other;
+            return new ObservableImpl<Tuple>(
+                    () -> new TupleSpliterator<T, U>(source.get().spliterator(),
+                            streamable.getStream().spliterator()).getStream(),
+                    null);
         } else {
             throw new IllegalArgumentException(
                     "Other observable is not streamable");
         }
     }
 
+    /**
+     * This method combines elements at the same position of internal stream
+     * and stream of another Observable using given function
+     * 
+     * @param other
+     *            other Observable, its elements are buffered as they are
+     *            pushed unless it's created from a stream or collection
+     * @param zipper
+     *            function that combines two elements
+     * @return instance of Observable
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <U, R> Observable<R> zip(Observable<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends R> zipper) {
+        Objects.requireNonNull(other);
+        Objects.requireNonNull(zipper);
+
+        if (!(other instanceof Streamable)) {
+            return ObservableBase.zip(this, other, zipper);
+        }
+        Streamable<U> streamable = (Streamable<U>) other;
+        return withSource(() -> new ZipSpliterator<T, U, R>(source.get()
+                .spliterator(), streamable.getStream().spliterator(), zipper)
+                .getStream());
+    }
+
     /**
      * This method is called asynchronously by parallel stream. Each time this
      * method is called, it checks if subscription is still valid and if it's
@@ -247,44 +481,12 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
             return;
         }
         if (error != null) {
-            notifyError(subscription);
+            notifyError(subscription, error);
         } else {
             notifyData(subscription, obj);
         }
     }
 
-    /**
-     * This method is called asynchronously by scheduler. Each time this method
-     * is called, it checks if subscription is still valid and if it's valid
-     * then it proceeds to check for data. When there is more data and there are
-     * no errors, it registers itself again with Scheduler, which then calls
-     * back this method asynchronously.
-     * 
-     * @param subscription
-     */
-    private void tick(SubscriptionObserver<T> subscription) {
-        if (!subscription.isSubscribed()) {
-            return;
-        }
-        if (error != null) {
-            notifyError(subscription);
-        } else {
-            AtomicBoolean tickNext = new AtomicBoolean();
-            if (spliterator.tryAdvance(obj -> {
-                if (notifyData(subscription, obj)) {
-                    tickNext.set(true);
-                }
-            })) {
-                if (tickNext.get()) {
-                    scheduler
-                            .scheduleBackgroundTask(s -> tick(s), subscription);
-                }
-            } else {
-                notifyCompleted(subscription);
-            }
-        }
-    }
-
     /**
      * This method is called to push data to the subscriber
      * 
@@ -297,8 +499,7 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
             subscription.onNext(obj);
             return true;
         } catch (Throwable e) {
-            this.error = e;
-            notifyError(subscription);
+            notifyError(subscription, e);
             return false;
         }
     }
@@ -307,8 +508,10 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
      * This method is called to notify an error
      * 
      * @param subscription
+     * @param error
      */
-    private void notifyError(SubscriptionObserver<T> subscription) {
+    private void notifyError(SubscriptionObserver<T> subscription,
+            Throwable error) {
         try {
             subscription.onError(error);
         } catch (Throwable e) {
@@ -336,7 +539,7 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
      */
     @Override
     public List<T> toList() {
-        return stream.collect(Collectors.toList());
+        return getStream().collect(Collectors.toList());
     }
 
     /**
@@ -346,40 +549,66 @@ public class ObservableImpl<T> implements Observable<T>, Streamable<T> {
      */
     @Override
     public Set<T> toSet() {
-        return stream.collect(Collectors.toSet());
+        return getStream().collect(Collectors.toSet());
     }
 
     /**
      * Converts internal stream into parallel stream (underlying stream must
-     * support parallel processing)
+     * support parallel processing), which is pushed using shared fork-join
+     * pool
      * 
      * @return instance of Observable that supports parallel stream
      */
     @Override
     public Observable<T> parallel() {
-        stream = stream.parallel();
-        return this;
+        return parallel(CancelableSpliterator.defaultPool());
+    }
+
+    /**
+     * Converts internal stream into parallel stream that is pushed using
+     * given fork-join pool
+     * 
+     * @return instance of Observable that supports parallel stream
+     */
+    @Override
+    public Observable<T> parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+
+        return new ObservableImpl<T>(() -> source.get().parallel(), error,
+                scheduler, batchSize, timeSliceMillis, pool, null);
     }
 
     /**
      * This method counts number of elements in stream and creates another
-     * stream with that value that is consumed by the subscriber
+     * stream with that value that is consumed by the subscriber. Elements are
+     * counted when the Observable is subscribed.
      * 
      * @return
      */
     public Observable<Long> count() {
-        Stream<Long> countStream = Stream.of(stream.count());
-        return new ObservableImpl<Long>(countStream, error, scheduler);
+        return new ObservableImpl<Long>(
+                () -> Stream.of(source.get().count()), error, scheduler,
+                batchSize, timeSliceMillis, null, null);
+    }
+
+    /**
+     * This method returns true if internal stream is parallel
+     * 
+     * @return true if data is pushed from multiple threads
+     */
+    boolean isParallel() {
+        return parallelPool != null;
     }
 
     /**
-     * This method returns underlying stream
+     * This method creates underlying stream, a new stream is returned for each
+     * call unless the source is a stream, iterator or spliterator
      * 
      * @return
      */
     @Override
     public Stream<T> getStream() {
-        return stream;
+        return source.get();
     }
 
 }
@@ -0,0 +1,218 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.IntervalPolicy;
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.HashedWheelTimer;
+import com.plexobject.rx.util.HashedWheelTimer.Timeout;
+
+/**
+ * This implementation of Observable pushes index of each period at fixed rate.
+ * The time of n-th tick is computed from the time of subscription instead of
+ * time of previous tick, so the rate doesn't drift when subscriber is slow.
+ * Ticks are tracked by a shared hashed wheel timer, which only records number
+ * of ticks that are due and the data is pushed by a drain loop on the
+ * scheduler so that subscriber never blocks the timer. Ticks that are late
+ * are either pushed back to back or dropped based on IntervalPolicy.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public class ObservableInterval extends ObservableBase<Long> {
+    private static final Logger logger = LoggerFactory
+            .getLogger(ObservableInterval.class);
+    // shared by operators that are driven by time
+    static final HashedWheelTimer timer = new HashedWheelTimer(1,
+            TimeUnit.MILLISECONDS, 512);
+
+    private final long initialDelayNanos;
+    private final long periodNanos;
+    private final long count;
+    private final IntervalPolicy policy;
+    private final Scheduler scheduler;
+
+    /**
+     * @param initialDelay
+     *            - delay before first tick
+     * @param period
+     *            - time between ticks
+     * @param unit
+     *            - time unit of delay and period
+     * @param count
+     *            - number of ticks before completion, Long.MAX_VALUE for
+     *            infinite ticks
+     * @param policy
+     *            - what to do with ticks that are late
+     */
+    public ObservableInterval(long initialDelay, long period, TimeUnit unit,
+            long count, IntervalPolicy policy) {
+        this(unit.toNanos(initialDelay), unit.toNanos(period), count, policy,
+                ObservableImpl.defaultScheduler);
+        if (initialDelay < 0) {
+            throw new IllegalArgumentException("Illegal delay " + initialDelay);
+        }
+        if (period <= 0) {
+            throw new IllegalArgumentException("Illegal period " + period);
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("Illegal count " + count);
+        }
+    }
+
+    private ObservableInterval(long initialDelayNanos, long periodNanos,
+            long count, IntervalPolicy policy, Scheduler scheduler) {
+        Objects.requireNonNull(policy);
+        this.initialDelayNanos = initialDelayNanos;
+        this.periodNanos = periodNanos;
+        this.count = count;
+        this.policy = policy;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * This class keeps track of ticks that are due and pushes them to the
+     * subscriber
+     */
+    private class IntervalDrain extends DrainTask {
+        private final SubscriptionObserver<Long> subscription;
+        private final long firstTick;
+        private volatile long due;
+        private volatile Timeout timeout;
+        private volatile boolean canceled;
+        private long next;
+
+        private IntervalDrain(SubscriptionObserver<Long> subscription) {
+            super(scheduler, subscription, subscription.getDemand(),
+                    DEFAULT_BATCH_SIZE, TimeUnit.MILLISECONDS
+                            .toNanos(DEFAULT_TIME_SLICE_MILLIS));
+            this.subscription = subscription;
+            this.firstTick = System.nanoTime() + initialDelayNanos;
+        }
+
+        /**
+         * This method is called by the timer, it computes number of ticks that
+         * are due based on the current time and registers timeout for the
+         * next tick
+         */
+        private void tick() {
+            long elapsed = System.nanoTime() - firstTick;
+            long ticks = elapsed < 0 ? 0 : Math.min(count, elapsed
+                    / periodNanos + 1);
+            if (ticks > due) {
+                due = ticks;
+                schedule();
+            }
+            if (ticks < count && !canceled) {
+                long delay = firstTick + ticks * periodNanos
+                        - System.nanoTime();
+                timeout = timer.newTimeout(this::tick, delay,
+                        TimeUnit.NANOSECONDS);
+                if (canceled) {
+                    timeout.cancel();
+                }
+            }
+        }
+
+        @Override
+        int pushNext() {
+            if (next >= count) {
+                notifyCompleted();
+                return TERMINATED;
+            }
+            long current = due;
+            if (next >= current) {
+                return EMPTY;
+            }
+            if (policy == IntervalPolicy.SKIP) {
+                next = current - 1;
+            }
+            try {
+                subscription.onNext(next++);
+            } catch (Throwable e) {
+                onCancel();
+                notifyError(e);
+                return TERMINATED;
+            }
+            return PUSHED;
+        }
+
+        @Override
+        boolean completeIfEmpty() {
+            if (next >= count) {
+                notifyCompleted();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * This method stops the timer when subscription is disposed
+         */
+        @Override
+        void onCancel() {
+            canceled = true;
+            Timeout t = timeout;
+            if (t != null) {
+                t.cancel();
+            }
+            super.onCancel();
+        }
+
+        private void notifyCompleted() {
+            try {
+                subscription.onCompleted();
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for onCompletion", e);
+            }
+        }
+
+        private void notifyError(Throwable error) {
+            try {
+                subscription.onError(error);
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for error " + error,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * This method starts ticks for the subscriber, which are stopped when
+     * subscription is disposed
+     */
+    @Override
+    public Subscription subscribe(Consumer<Long> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        SubscriptionObserver<Long> subscription = new SubscriptionImpl<Long>(
+                onNext, onError, onCompletion, null, initialRequest);
+        IntervalDrain drain = new IntervalDrain(subscription);
+        drain.start();
+        drain.tick();
+        return subscription;
+    }
+
+    /**
+     * This method returns a new Observable that pushes ticks using given
+     * scheduler
+     */
+    @Override
+    public Observable<Long> subscribeOn(Scheduler scheduler) {
+        Objects.requireNonNull(scheduler);
+
+        return new ObservableInterval(initialDelayNanos, periodNanos, count,
+                policy, scheduler);
+    }
+}
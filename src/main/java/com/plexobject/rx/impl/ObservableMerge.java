@@ -0,0 +1,379 @@
+package com.plexobject.rx.impl;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.BoundedQueue;
+import com.plexobject.rx.util.Demand;
+
+/**
+ * This implementation of Observable merges data of inner Observables that are
+ * created by a function for each element of a source Observable, e.g. a source
+ * of Observables with identity function. Inner Observables are subscribed as
+ * soon as they arrive so they push data at the same time, and up to
+ * maxConcurrency of them are subscribed at a time; next element is requested
+ * from the source when one of them completes. Elements of sources that push
+ * data without waiting for requests are held in a queue while maxConcurrency
+ * inner Observables are active, so the bound also holds for such sources
+ * and concatMap keeps their order. Each inner Observable has its
+ * own bounded lock-free queue and a single drain loop takes elements from the
+ * queues in round-robin order and pushes them to the subscriber, so emissions
+ * are serialized without any locking.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of source data
+ * @param <R>
+ *            type of subscription data
+ */
+public class ObservableMerge<T, R> extends ObservableBase<R> {
+    private static final Logger logger = LoggerFactory
+            .getLogger(ObservableMerge.class);
+
+    private final Observable<T> source;
+    private final Function<? super T, ? extends Observable<? extends R>> mapper;
+    private final int maxConcurrency;
+    private final int bufferSize;
+
+    public ObservableMerge(Observable<T> source,
+            Function<? super T, ? extends Observable<? extends R>> mapper,
+            int maxConcurrency, int bufferSize) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(mapper);
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Illegal max concurrency "
+                    + maxConcurrency);
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Illegal buffer size "
+                    + bufferSize);
+        }
+        this.source = source;
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * This class receives data of an inner Observable
+     */
+    private class Inner implements Observer<Object> {
+        private final MergeDrain parent;
+        private final DeferredSubscription upstream;
+        private final BoundedQueue<Object> queue;
+        private final int limit;
+        private volatile boolean done;
+        private boolean removed;
+        private int consumed;
+
+        private Inner(MergeDrain parent, Observable<?> source) {
+            this.parent = parent;
+            this.upstream = new DeferredSubscription();
+            this.queue = CombineDrain.newQueue(source, bufferSize);
+            this.limit = Math.max(1, bufferSize - (bufferSize >> 2));
+        }
+
+        @Override
+        public void onNext(Object obj) {
+            if (!queue.offer(CombineDrain.wrap(obj))) {
+                onError(new IllegalStateException(
+                        "Inner Observable pushed more data than buffer size "
+                                + bufferSize));
+                return;
+            }
+            parent.schedule();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            parent.fail(error);
+        }
+
+        @Override
+        public void onCompleted() {
+            done = true;
+            parent.schedule();
+        }
+
+        /**
+         * This method is called by drain loop when an element is consumed and
+         * requests more data in batches
+         */
+        private void release() {
+            if (++consumed == limit) {
+                consumed = 0;
+                upstream.request(limit);
+            }
+        }
+    }
+
+    /**
+     * This class subscribes to inner Observables and pushes their data to
+     * the subscriber
+     */
+    private class MergeDrain extends DrainTask implements Observer<T> {
+        private final SubscriptionObserver<R> subscription;
+        private final DeferredSubscription upstream;
+        private final Queue<Inner> inners = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger active = new AtomicInteger();
+        // elements of the source that are waiting for an inner Observable
+        // to complete, null if concurrency is not limited
+        private final BoundedQueue<Object> pending;
+        private final AtomicInteger subscribing = new AtomicInteger();
+        private Iterator<Inner> cursor;
+        private volatile boolean upstreamDone;
+        private volatile Throwable error;
+
+        private MergeDrain(SubscriptionObserver<R> subscription) {
+            super(ObservableImpl.defaultScheduler, subscription, subscription
+                    .getDemand(), DEFAULT_BATCH_SIZE, TimeUnit.MILLISECONDS
+                    .toNanos(DEFAULT_TIME_SLICE_MILLIS));
+            this.subscription = subscription;
+            this.upstream = new DeferredSubscription();
+            this.pending = maxConcurrency == Integer.MAX_VALUE ? null
+                    : CombineDrain.newQueue(source, maxConcurrency);
+        }
+
+        @Override
+        void onCancel() {
+            cancelAll();
+            super.onCancel();
+        }
+
+        /**
+         * This method subscribes to inner Observable of an element of the
+         * source right away unless maxConcurrency inner Observables are
+         * active, in which case the element waits for one of them to complete
+         */
+        @Override
+        public void onNext(T obj) {
+            if (error != null || !subscription.isSubscribed()) {
+                return;
+            }
+            if (pending == null) {
+                active.incrementAndGet();
+                subscribeInner(obj);
+                return;
+            }
+            if (!pending.offer(CombineDrain.wrap(obj))) {
+                fail(new IllegalStateException(
+                        "Upstream pushed more data than max concurrency "
+                                + maxConcurrency));
+                return;
+            }
+            subscribePending();
+        }
+
+        /**
+         * This method subscribes to inner Observables of pending elements
+         * while fewer than maxConcurrency of them are active. It's called by
+         * the source thread and by the drain loop when an inner Observable
+         * completes, but only one of them subscribes at a time so pending
+         * elements are subscribed in order.
+         */
+        @SuppressWarnings("unchecked")
+        private void subscribePending() {
+            if (subscribing.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                while (active.get() < maxConcurrency && error == null) {
+                    Object obj = pending.poll();
+                    if (obj == null) {
+                        break;
+                    }
+                    active.incrementAndGet();
+                    subscribeInner((T) CombineDrain.unwrap(obj));
+                }
+                missed = subscribing.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * This method creates inner Observable for an element of the source
+         * and subscribes to it
+         */
+        @SuppressWarnings("unchecked")
+        private void subscribeInner(T obj) {
+            try {
+                Observable<Object> observable = (Observable<Object>) mapper
+                        .apply(obj);
+                Inner inner = new Inner(this, observable);
+                inners.add(inner);
+                inner.upstream.setUpstream(observable.subscribe(
+                        inner::onNext, inner::onError, inner::onCompleted,
+                        bufferSize));
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            fail(error);
+        }
+
+        @Override
+        public void onCompleted() {
+            upstreamDone = true;
+            schedule();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int pushNext() {
+            if (error != null) {
+                cancelAll();
+                notifyError(error);
+                return TERMINATED;
+            }
+            // visits each inner Observable at most once before giving up
+            int missed = 0;
+            int size = active.get();
+            while (missed <= size) {
+                if (cursor == null || !cursor.hasNext()) {
+                    cursor = inners.iterator();
+                    if (!cursor.hasNext()) {
+                        return EMPTY;
+                    }
+                }
+                Inner inner = cursor.next();
+                boolean done = inner.done;
+                Object obj = inner.queue.poll();
+                if (obj != null) {
+                    inner.release();
+                    try {
+                        subscription.onNext((R) CombineDrain.unwrap(obj));
+                    } catch (Throwable e) {
+                        cancelAll();
+                        notifyError(e);
+                        return TERMINATED;
+                    }
+                    return PUSHED;
+                }
+                if (done) {
+                    cursor.remove();
+                    replace(inner);
+                }
+                missed++;
+            }
+            return EMPTY;
+        }
+
+        /**
+         * This method removes inner Observables that have completed and
+         * completes subscription when the source and all inner Observables
+         * have completed
+         */
+        @Override
+        boolean completeIfEmpty() {
+            if (error != null) {
+                cancelAll();
+                notifyError(error);
+                return true;
+            }
+            boolean done = upstreamDone;
+            for (Iterator<Inner> it = inners.iterator(); it.hasNext();) {
+                Inner inner = it.next();
+                if (inner.done && inner.queue.isEmpty()) {
+                    it.remove();
+                    replace(inner);
+                }
+            }
+            if (done && inners.isEmpty()
+                    && (pending == null || pending.isEmpty())) {
+                try {
+                    subscription.onCompleted();
+                } catch (Throwable e) {
+                    logger.error("Failed to notify subscriber for onCompletion",
+                            e);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * This method is called when a completed inner Observable is removed
+         * and requests next inner Observable from the source
+         */
+        private void replace(Inner inner) {
+            // cursor may still return inner that was removed by another
+            // iterator
+            if (inner.removed) {
+                return;
+            }
+            inner.removed = true;
+            active.decrementAndGet();
+            if (pending != null) {
+                if (!upstreamDone) {
+                    upstream.request(1);
+                }
+                subscribePending();
+            }
+        }
+
+        private void fail(Throwable e) {
+            if (error == null) {
+                error = e;
+            }
+            cancelAll();
+            schedule();
+        }
+
+        private void cancelAll() {
+            upstream.dispose();
+            for (Inner inner : inners) {
+                inner.upstream.dispose();
+            }
+        }
+
+        private void notifyError(Throwable error) {
+            try {
+                subscription.onError(error);
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for error " + error,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * This method subscribes to source Observable and merges data of its
+     * inner Observables for the subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<R> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        SubscriptionObserver<R> subscription = new SubscriptionImpl<R>(
+                onNext, onError, onCompletion, null, initialRequest);
+        MergeDrain drain = new MergeDrain(subscription);
+        drain.start();
+        long request = maxConcurrency == Integer.MAX_VALUE ? Demand.UNBOUNDED
+                : maxConcurrency;
+        drain.upstream.setUpstream(source.subscribe(drain::onNext,
+                drain::onError, drain::onCompleted, request));
+        return subscription;
+    }
+}
@@ -3,6 +3,8 @@ package com.plexobject.rx.impl;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -36,11 +38,24 @@ public class ObservableNever<T> implements Observable<T> {
         return new SubscriptionImpl<T>(onNext, onError, onCompletion, null);
     }
 
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        return new SubscriptionImpl<T>(onNext, onError, onCompletion, null,
+                initialRequest);
+    }
+
     @Override
     public Observable<T> subscribeOn(Scheduler scheduler) {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public Observable<T> drainBatch(int maxBatchSize, long timeSliceMillis) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Observable<T> distinct() {
         throw new UnsupportedOperationException();
@@ -56,6 +71,16 @@ public class ObservableNever<T> implements Observable<T> {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * This method combines elements of two Observables but it's not supported
+     * in this implementation.
+     */
+    @Override
+    public <U, R> Observable<R> zip(Observable<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends R> zipper) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Observable<T> filter(Predicate<? super T> predicate) {
         throw new UnsupportedOperationException();
@@ -123,6 +148,15 @@ public class ObservableNever<T> implements Observable<T> {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Converts internal stream into parallel stream using given pool but
+     * it's not supported in this implementation.
+     */
+    @Override
+    public Observable<T> parallel(ForkJoinPool pool) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * This method counts number of elements in stream and creates another
      * stream with that value that is consumed by the subscriber
@@ -0,0 +1,201 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.BoundedQueue;
+import com.plexobject.rx.util.MpscArrayQueue;
+import com.plexobject.rx.util.SpscArrayQueue;
+
+/**
+ * This implementation of Observable moves notifications of another Observable
+ * to a different scheduler. Data pushed by upstream Observable is added to a
+ * bounded lock-free queue, which is drained in batches by the target
+ * scheduler. Upstream Observable is only asked for as many elements as the
+ * queue can hold and more elements are requested as the queue is drained.
+ * Observables that push data without waiting for requests, e.g. Observables
+ * created with create(), use an unbounded queue instead.
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class ObservableObserveOn<T> extends ObservableBase<T> {
+    private static final Logger logger = LoggerFactory
+            .getLogger(ObservableObserveOn.class);
+
+    private final Observable<T> source;
+    private final Scheduler scheduler;
+    private final int bufferSize;
+
+    public ObservableObserveOn(Observable<T> source, Scheduler scheduler,
+            int bufferSize) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(scheduler);
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Illegal buffer size "
+                    + bufferSize);
+        }
+        this.source = source;
+        this.scheduler = scheduler;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * This class receives data from upstream Observable and pushes it to the
+     * subscriber on the target scheduler
+     */
+    private class ObserveOnDrain extends DrainTask implements Observer<T> {
+        private final SubscriptionObserver<T> subscription;
+        private final DeferredSubscription upstream;
+        private final BoundedQueue<Object> queue;
+        private final int limit;
+        private int consumed;
+        private volatile boolean done;
+        private Throwable error;
+
+        private ObserveOnDrain(SubscriptionObserver<T> subscription,
+                DeferredSubscription upstream, BoundedQueue<Object> queue) {
+            super(scheduler, subscription, subscription.getDemand(),
+                    bufferSize, TimeUnit.MILLISECONDS
+                            .toNanos(DEFAULT_TIME_SLICE_MILLIS));
+            this.subscription = subscription;
+            this.upstream = upstream;
+            this.queue = queue;
+            this.limit = bufferSize - (bufferSize >> 2);
+        }
+
+        @Override
+        public void onNext(T obj) {
+            if (done) {
+                return;
+            }
+            if (!queue.offer(CombineDrain.wrap(obj))) {
+                upstream.dispose();
+                onError(new IllegalStateException(
+                        "Upstream pushed more data than buffer size "
+                                + bufferSize));
+                return;
+            }
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (done) {
+                return;
+            }
+            this.error = error;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onCompleted() {
+            done = true;
+            schedule();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int pushNext() {
+            boolean terminated = done;
+            Object obj = queue.poll();
+            if (obj == null) {
+                if (terminated) {
+                    notifyTerminated();
+                    return TERMINATED;
+                }
+                return EMPTY;
+            }
+            try {
+                subscription.onNext((T) CombineDrain.unwrap(obj));
+            } catch (Throwable e) {
+                upstream.dispose();
+                notifyError(e);
+                return TERMINATED;
+            }
+            if (++consumed == limit) {
+                consumed = 0;
+                upstream.request(limit);
+            }
+            return PUSHED;
+        }
+
+        @Override
+        boolean completeIfEmpty() {
+            if (done && queue.isEmpty()) {
+                notifyTerminated();
+                return true;
+            }
+            return false;
+        }
+
+        private void notifyTerminated() {
+            if (error != null) {
+                notifyError(error);
+            } else {
+                try {
+                    subscription.onCompleted();
+                } catch (Throwable e) {
+                    logger.error("Failed to notify subscriber for onCompletion",
+                            e);
+                }
+            }
+        }
+
+        private void notifyError(Throwable error) {
+            try {
+                subscription.onError(error);
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for error " + error,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * This method subscribes to upstream Observable and pushes its data to the
+     * subscriber using target scheduler
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        DeferredSubscription upstream = new DeferredSubscription();
+        SubscriptionObserver<T> subscription = new SubscriptionImpl<T>(
+                onNext, onError, onCompletion, upstream, initialRequest);
+        BoundedQueue<Object> queue = CombineDrain.newQueue(source,
+                bufferSize);
+        ObserveOnDrain drain = new ObserveOnDrain(subscription, upstream,
+                queue);
+        drain.start();
+        upstream.setUpstream(source.subscribe(drain::onNext, drain::onError,
+                drain::onCompleted, bufferSize));
+        return subscription;
+    }
+
+    /**
+     * This method creates a queue for the data of given Observable. Parallel
+     * Observable pushes data from multiple threads so it needs a queue that
+     * supports multiple producers.
+     */
+    static <T> BoundedQueue<T> newQueue(Observable<?> source, int capacity) {
+        boolean parallel = source instanceof ObservableImpl
+                && ((ObservableImpl<?>) source).isParallel();
+        return parallel ? new MpscArrayQueue<T>(capacity)
+                : new SpscArrayQueue<T>(capacity);
+    }
+}
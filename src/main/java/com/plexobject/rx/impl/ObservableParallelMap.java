@@ -0,0 +1,277 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.BoundedQueue;
+import com.plexobject.rx.util.SpscArrayQueue;
+
+/**
+ * This implementation of Observable applies a function to the data of another
+ * Observable in parallel using a fork-join pool but notifies subscriber in the
+ * same order as upstream Observable pushed the data. Each element is given a
+ * sequence number and its result is stored in a reorder buffer at that
+ * position, which is drained serially by the scheduler as soon as the result
+ * of next sequence number is available. Upstream Observable is only asked for
+ * as many elements as the buffer can hold so a slow function or subscriber
+ * doesn't buffer unbounded data. Elements of Observables that push data
+ * without waiting for requests are held in a queue until a position of the
+ * buffer is freed, so results are never overwritten.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of upstream data
+ * @param <R>
+ *            type of subscription data
+ */
+public class ObservableParallelMap<T, R> extends ObservableBase<R> {
+    private static final Logger logger = LoggerFactory
+            .getLogger(ObservableParallelMap.class);
+    private static final Object NULL = new Object();
+
+    private final Observable<T> source;
+    private final Function<? super T, ? extends R> mapper;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    public ObservableParallelMap(Observable<T> source,
+            Function<? super T, ? extends R> mapper, ForkJoinPool pool,
+            int maxInFlight) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(mapper);
+        Objects.requireNonNull(pool);
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Illegal max in-flight "
+                    + maxInFlight);
+        }
+        this.source = source;
+        this.mapper = mapper;
+        this.pool = pool;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * This class stores error of the function in the reorder buffer so that
+     * it's notified after results of preceding elements
+     */
+    private static class Failure {
+        private final Throwable error;
+
+        private Failure(Throwable error) {
+            this.error = error;
+        }
+    }
+
+    /**
+     * This class receives data from upstream Observable, applies the function
+     * using fork-join pool and pushes results to the subscriber in order
+     */
+    private class ParallelMapDrain extends DrainTask implements Observer<T> {
+        private final SubscriptionObserver<R> subscription;
+        private final DeferredSubscription upstream;
+        private final AtomicReferenceArray<Object> slots;
+        private final int mask;
+        private final int limit;
+        // elements that are waiting for a free position in the buffer
+        private final BoundedQueue<Object> pending;
+        private final AtomicInteger dispatching = new AtomicInteger();
+        private final AtomicLong received = new AtomicLong();
+        // number of results that were pushed, which frees their positions
+        private final AtomicLong pushed = new AtomicLong();
+        private long next;
+        private int consumed;
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        private ParallelMapDrain(SubscriptionObserver<R> subscription,
+                DeferredSubscription upstream) {
+            super(ObservableImpl.defaultScheduler, subscription, subscription
+                    .getDemand(), DEFAULT_BATCH_SIZE, TimeUnit.MILLISECONDS
+                    .toNanos(DEFAULT_TIME_SLICE_MILLIS));
+            this.subscription = subscription;
+            this.upstream = upstream;
+            int capacity = SpscArrayQueue.roundToPowerOfTwo(maxInFlight);
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+            this.limit = maxInFlight - (maxInFlight >> 2);
+            this.pending = CombineDrain.newQueue(source, capacity);
+        }
+
+        @Override
+        public void onNext(T obj) {
+            if (done) {
+                return;
+            }
+            if (!pending.offer(CombineDrain.wrap(obj))) {
+                upstream.dispose();
+                onError(new IllegalStateException(
+                        "Upstream pushed more data than max in-flight "
+                                + maxInFlight));
+                return;
+            }
+            dispatch();
+        }
+
+        /**
+         * This method hands off pending elements to the fork-join pool while
+         * there are free positions in the reorder buffer. It's called by the
+         * upstream thread and by the drain loop after pushing results, but
+         * only one of them dispatches at a time.
+         */
+        @SuppressWarnings("unchecked")
+        private void dispatch() {
+            if (dispatching.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                while (received.get() - pushed.get() <= mask) {
+                    Object obj = pending.poll();
+                    if (obj == null) {
+                        break;
+                    }
+                    int index = (int) (received.getAndIncrement() & mask);
+                    T value = (T) CombineDrain.unwrap(obj);
+                    pool.execute(() -> apply(index, value));
+                }
+                missed = dispatching.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void apply(int index, T obj) {
+            if (!subscription.isSubscribed()) {
+                return;
+            }
+            Object result;
+            try {
+                R value = mapper.apply(obj);
+                result = value == null ? NULL : value;
+            } catch (Throwable e) {
+                result = new Failure(e);
+            }
+            slots.set(index, result);
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (done) {
+                return;
+            }
+            this.error = error;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onCompleted() {
+            done = true;
+            schedule();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int pushNext() {
+            int index = (int) (next & mask);
+            Object result = slots.get(index);
+            if (result == null) {
+                return completeIfEmpty() ? TERMINATED : EMPTY;
+            }
+            slots.lazySet(index, null);
+            next++;
+            pushed.lazySet(next);
+            if (!pending.isEmpty()) {
+                dispatch();
+            }
+            if (result instanceof Failure) {
+                upstream.dispose();
+                notifyError(((Failure) result).error);
+                return TERMINATED;
+            }
+            try {
+                subscription.onNext(result == NULL ? null : (R) result);
+            } catch (Throwable e) {
+                upstream.dispose();
+                notifyError(e);
+                return TERMINATED;
+            }
+            if (++consumed == limit) {
+                consumed = 0;
+                upstream.request(limit);
+            }
+            return PUSHED;
+        }
+
+        /**
+         * Upstream doesn't push data after it's done so subscription is
+         * completed when results of all received elements are pushed
+         */
+        @Override
+        boolean completeIfEmpty() {
+            if (done && next == received.get() && pending.isEmpty()) {
+                notifyTerminated();
+                return true;
+            }
+            return false;
+        }
+
+        private void notifyTerminated() {
+            if (error != null) {
+                notifyError(error);
+            } else {
+                try {
+                    subscription.onCompleted();
+                } catch (Throwable e) {
+                    logger.error("Failed to notify subscriber for onCompletion",
+                            e);
+                }
+            }
+        }
+
+        private void notifyError(Throwable error) {
+            try {
+                subscription.onError(error);
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for error " + error,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * This method subscribes to upstream Observable and pushes results of the
+     * function to the subscriber in the order of upstream data
+     */
+    @Override
+    public Subscription subscribe(Consumer<R> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        DeferredSubscription upstream = new DeferredSubscription();
+        SubscriptionObserver<R> subscription = new SubscriptionImpl<R>(
+                onNext, onError, onCompletion, upstream, initialRequest);
+        ParallelMapDrain drain = new ParallelMapDrain(subscription, upstream);
+        drain.start();
+        upstream.setUpstream(source.subscribe(drain::onNext, drain::onError,
+                drain::onCompleted, maxInFlight));
+        return subscription;
+    }
+}
@@ -0,0 +1,489 @@
+package com.plexobject.rx.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.BoundedQueue;
+
+/**
+ * This implementation of Observable applies operators to the data of an
+ * Observable that pushes data as it becomes available, e.g. Observable that is
+ * created from a consumer function. Operators don't change the instance,
+ * instead they compose stages that are created for each subscription so a
+ * chain of operators only adds a single queue. Data of upstream Observable is
+ * added to a bounded lock-free queue, and the drain loop passes each element
+ * through the stages and pushes their output to the subscriber, so upstream
+ * Observable is only asked for as many elements as the queue can hold and
+ * subscriber never receives more data than it requested.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class ObservablePipeline<T> extends ObservableBase<T> {
+    private static final Logger logger = LoggerFactory
+            .getLogger(ObservablePipeline.class);
+
+    private final Observable<Object> source;
+    private final Function<RailSink<Object>, RailSink<Object>> stages;
+    private final int bufferSize;
+    private final int batchSize;
+    private final long timeSliceMillis;
+
+    @SuppressWarnings("unchecked")
+    ObservablePipeline(Observable<T> source) {
+        this((Observable<Object>) source, Function.identity(),
+                DEFAULT_BUFFER_SIZE, DrainTask.DEFAULT_BATCH_SIZE,
+                DrainTask.DEFAULT_TIME_SLICE_MILLIS);
+    }
+
+    private ObservablePipeline(Observable<Object> source,
+            Function<RailSink<Object>, RailSink<Object>> stages,
+            int bufferSize, int batchSize, long timeSliceMillis) {
+        this.source = source;
+        this.stages = stages;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.timeSliceMillis = timeSliceMillis;
+    }
+
+    /**
+     * This method changes number of elements pushed by a single drain task
+     * and max time it can run before yielding back to the scheduler
+     */
+    @Override
+    public Observable<T> drainBatch(int maxBatchSize, long timeSliceMillis) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Illegal batch size "
+                    + maxBatchSize);
+        }
+        if (timeSliceMillis < 0) {
+            throw new IllegalArgumentException("Illegal time slice "
+                    + timeSliceMillis);
+        }
+        return new ObservablePipeline<T>(source, stages, bufferSize,
+                maxBatchSize, timeSliceMillis);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> Observable<R> map(Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper);
+
+        return withStage(down -> new RailSink<Object>() {
+            @Override
+            public void accept(Object obj) {
+                down.accept(mapper.apply((T) obj));
+            }
+
+            @Override
+            public void end() {
+                down.end();
+            }
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> Observable<R> flatMap(
+            Function<? super T, ? extends Stream<? extends R>> mapper) {
+        Objects.requireNonNull(mapper);
+
+        return withStage(down -> new RailSink<Object>() {
+            @Override
+            public void accept(Object obj) {
+                try (Stream<? extends R> stream = mapper.apply((T) obj)) {
+                    if (stream != null) {
+                        stream.forEachOrdered(down::accept);
+                    }
+                }
+            }
+
+            @Override
+            public void end() {
+                down.end();
+            }
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Observable<T> filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+
+        return withStage(down -> new RailSink<Object>() {
+            @Override
+            public void accept(Object obj) {
+                if (predicate.test((T) obj)) {
+                    down.accept(obj);
+                }
+            }
+
+            @Override
+            public void end() {
+                down.end();
+            }
+        });
+    }
+
+    /**
+     * This method ends the pipeline after given number of elements so that
+     * upstream Observable is unsubscribed without waiting for its completion
+     */
+    @Override
+    public Observable<T> limit(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException(Long.toString(maxSize));
+        }
+        return withStage(down -> new RailSink<Object>() {
+            private long remaining = maxSize;
+            private boolean ended;
+
+            @Override
+            public void accept(Object obj) {
+                if (remaining > 0) {
+                    down.accept(obj);
+                    remaining--;
+                }
+                if (remaining == 0) {
+                    end();
+                }
+            }
+
+            @Override
+            public void end() {
+                if (!ended) {
+                    ended = true;
+                    down.end();
+                }
+            }
+        });
+    }
+
+    @Override
+    public Observable<T> skip(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException(Long.toString(n));
+        }
+        return withStage(down -> new RailSink<Object>() {
+            private long remaining = n;
+
+            @Override
+            public void accept(Object obj) {
+                if (remaining > 0) {
+                    remaining--;
+                } else {
+                    down.accept(obj);
+                }
+            }
+
+            @Override
+            public void end() {
+                down.end();
+            }
+        });
+    }
+
+    @Override
+    public Observable<T> distinct() {
+        return withStage(down -> new RailSink<Object>() {
+            private final Set<Object> seen = new HashSet<>();
+
+            @Override
+            public void accept(Object obj) {
+                if (seen.add(obj)) {
+                    down.accept(obj);
+                }
+            }
+
+            @Override
+            public void end() {
+                seen.clear();
+                down.end();
+            }
+        });
+    }
+
+    /**
+     * This method pushes elements in natural order after upstream Observable
+     * completes
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Observable<T> sorted() {
+        return sorted((Comparator<? super T>) Comparator.naturalOrder());
+    }
+
+    /**
+     * This method pushes elements in order of given comparator after upstream
+     * Observable completes
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Observable<T> sorted(Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator);
+
+        return withStage(down -> new RailSink<Object>() {
+            private final List<T> elements = new ArrayList<>();
+
+            @Override
+            public void accept(Object obj) {
+                elements.add((T) obj);
+            }
+
+            @Override
+            public void end() {
+                Collections.sort(elements, comparator);
+                elements.forEach(down::accept);
+                elements.clear();
+                down.end();
+            }
+        });
+    }
+
+    /**
+     * This method pushes number of elements after upstream Observable
+     * completes
+     */
+    @Override
+    public Observable<Long> count() {
+        return withStage(down -> new RailSink<Object>() {
+            private long count;
+
+            @Override
+            public void accept(Object obj) {
+                count++;
+            }
+
+            @Override
+            public void end() {
+                down.accept(count);
+                down.end();
+            }
+        });
+    }
+
+    /**
+     * This class receives data of upstream Observable and pushes output of the
+     * stages to the subscriber
+     */
+    private class PipelineDrain extends DrainTask implements Observer<Object>,
+            RailSink<Object> {
+        private final SubscriptionObserver<T> subscription;
+        private final DeferredSubscription upstream;
+        private final BoundedQueue<Object> queue;
+        private final RailSink<Object> head;
+        // output of the stages for current element
+        private final ArrayDeque<Object> pending = new ArrayDeque<>();
+        private final int limit;
+        private int consumed;
+        private boolean ended;
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        private PipelineDrain(SubscriptionObserver<T> subscription,
+                DeferredSubscription upstream) {
+            super(ObservableImpl.defaultScheduler, subscription, subscription
+                    .getDemand(), batchSize, TimeUnit.MILLISECONDS
+                    .toNanos(timeSliceMillis));
+            this.subscription = subscription;
+            this.upstream = upstream;
+            this.queue = CombineDrain.newQueue(source, bufferSize);
+            this.head = stages.apply(this);
+            this.limit = Math.max(1, bufferSize - (bufferSize >> 2));
+        }
+
+        @Override
+        public void onNext(Object obj) {
+            if (done) {
+                return;
+            }
+            if (!queue.offer(CombineDrain.wrap(obj))) {
+                upstream.dispose();
+                onError(new IllegalStateException(
+                        "Upstream pushed more data than buffer size "
+                                + bufferSize));
+                return;
+            }
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (done) {
+                return;
+            }
+            this.error = error;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onCompleted() {
+            done = true;
+            schedule();
+        }
+
+        /**
+         * This method receives output of last stage
+         */
+        @Override
+        public void accept(Object obj) {
+            if (!ended) {
+                pending.add(CombineDrain.wrap(obj));
+            }
+        }
+
+        /**
+         * This method is called when last stage has ended, e.g. when upstream
+         * Observable has completed or limit was reached
+         */
+        @Override
+        public void end() {
+            ended = true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int pushNext() {
+            for (;;) {
+                Object out = pending.poll();
+                if (out != null) {
+                    try {
+                        subscription.onNext((T) CombineDrain.unwrap(out));
+                    } catch (Throwable e) {
+                        upstream.dispose();
+                        notifyError(e);
+                        return TERMINATED;
+                    }
+                    return PUSHED;
+                }
+                if (ended) {
+                    upstream.dispose();
+                    notifyCompleted();
+                    return TERMINATED;
+                }
+                boolean terminated = done;
+                Object obj = queue.poll();
+                try {
+                    if (obj == null) {
+                        if (!terminated) {
+                            return EMPTY;
+                        }
+                        if (error != null) {
+                            notifyError(error);
+                            return TERMINATED;
+                        }
+                        head.end();
+                        ended = true;
+                        continue;
+                    }
+                    if (++consumed == limit) {
+                        consumed = 0;
+                        upstream.request(limit);
+                    }
+                    head.accept(CombineDrain.unwrap(obj));
+                } catch (Throwable e) {
+                    upstream.dispose();
+                    notifyError(e);
+                    return TERMINATED;
+                }
+            }
+        }
+
+        /**
+         * This method completes subscription without waiting for requests
+         * when upstream Observable has completed and stages have no output
+         * left
+         */
+        @Override
+        boolean completeIfEmpty() {
+            if (pending.isEmpty() && !ended && done && queue.isEmpty()) {
+                if (error != null) {
+                    notifyError(error);
+                    return true;
+                }
+                try {
+                    head.end();
+                } catch (Throwable e) {
+                    upstream.dispose();
+                    notifyError(e);
+                    return true;
+                }
+                ended = true;
+            }
+            if (ended && pending.isEmpty()) {
+                upstream.dispose();
+                notifyCompleted();
+                return true;
+            }
+            return false;
+        }
+
+        private void notifyCompleted() {
+            try {
+                subscription.onCompleted();
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for onCompletion", e);
+            }
+        }
+
+        private void notifyError(Throwable error) {
+            try {
+                subscription.onError(error);
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for error " + error,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * This method subscribes to upstream Observable and pushes output of the
+     * stages to the subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        DeferredSubscription upstream = new DeferredSubscription();
+        SubscriptionObserver<T> subscription = new SubscriptionImpl<T>(
+                onNext, onError, onCompletion, upstream, initialRequest);
+        PipelineDrain drain = new PipelineDrain(subscription, upstream);
+        drain.start();
+        upstream.setUpstream(source.subscribe(drain::onNext, drain::onError,
+                drain::onCompleted, bufferSize));
+        return subscription;
+    }
+
+    /**
+     * This method creates a new pipeline that passes output of current stages
+     * to given stage
+     */
+    private <R> ObservablePipeline<R> withStage(
+            Function<RailSink<Object>, RailSink<Object>> stage) {
+        return new ObservablePipeline<R>(source, stage.andThen(stages),
+                bufferSize, batchSize, timeSliceMillis);
+    }
+}
@@ -0,0 +1,347 @@
+package com.plexobject.rx.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.Demand;
+
+/**
+ * This implementation of Observable merges rails of a ParallelObservable.
+ * Data of source Observable is added to the queue of its rail and each rail
+ * is drained by its own worker of the scheduler, which passes the data
+ * through stages of the rail. Output of the rails is added to a shared queue
+ * that is drained serially for the subscriber. Source Observable is only asked
+ * for prefetch elements ahead and more elements are requested as they are
+ * consumed by the rails or pushed to the subscriber. The queues are not
+ * bounded so that Observables that push data without waiting for requests
+ * can also be divided into rails, prefetch only bounds the requests.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class ObservableRails<T> extends ObservableBase<T> {
+    private static final Logger logger = LoggerFactory
+            .getLogger(ObservableRails.class);
+    private static final Object NULL = new Object();
+
+    private final Observable<Object> source;
+    private final int rails;
+    private final Function<Object, ?> keySelector;
+    private final Scheduler scheduler;
+    private final int prefetch;
+    private final Function<RailSink<Object>, RailSink<Object>> stages;
+    private final BinaryOperator<Object> combiner;
+
+    ObservableRails(Observable<Object> source, int rails,
+            Function<Object, ?> keySelector, Scheduler scheduler,
+            int prefetch, Function<RailSink<Object>, RailSink<Object>> stages,
+            BinaryOperator<Object> combiner) {
+        this.source = source;
+        this.rails = rails;
+        this.keySelector = keySelector;
+        this.scheduler = scheduler;
+        this.prefetch = prefetch;
+        this.stages = stages;
+        this.combiner = combiner;
+    }
+
+    /**
+     * This class receives data from source Observable, dispatches it to the
+     * rails and pushes output of the rails to the subscriber
+     */
+    private class RailsDrain extends DrainTask implements Observer<Object> {
+        private final SubscriptionObserver<T> subscription;
+        private final DeferredSubscription upstream;
+        private final List<Rail> railTasks;
+        private final Queue<Object> output;
+        private final AtomicInteger activeRails;
+        private final AtomicLong released = new AtomicLong();
+        private final int limit;
+        private int nextRail;
+        private volatile boolean upstreamDone;
+        private volatile boolean railsDone;
+        private volatile Throwable error;
+        // value of all rails when rails are reduced
+        private Object combined;
+        private boolean hasCombined;
+
+        private RailsDrain(SubscriptionObserver<T> subscription,
+                DeferredSubscription upstream) {
+            super(ObservableImpl.defaultScheduler, subscription, subscription
+                    .getDemand(), DEFAULT_BATCH_SIZE, TimeUnit.MILLISECONDS
+                    .toNanos(DEFAULT_TIME_SLICE_MILLIS));
+            this.subscription = subscription;
+            this.upstream = upstream;
+            this.railTasks = new ArrayList<>(rails);
+            for (int i = 0; i < rails; i++) {
+                railTasks.add(new Rail(this));
+            }
+            this.output = new ConcurrentLinkedQueue<>();
+            this.activeRails = new AtomicInteger(rails);
+            this.limit = Math.max(1, prefetch - (prefetch >> 2));
+        }
+
+        @Override
+        void start() {
+            super.start();
+            for (Rail rail : railTasks) {
+                rail.start();
+            }
+        }
+
+        @Override
+        void onCancel() {
+            for (Rail rail : railTasks) {
+                rail.onCancel();
+            }
+            super.onCancel();
+        }
+
+        @Override
+        public void onNext(Object obj) {
+            if (upstreamDone) {
+                return;
+            }
+            Rail rail;
+            try {
+                rail = railTasks.get(selectRail(obj));
+            } catch (Throwable e) {
+                upstream.dispose();
+                onError(e);
+                return;
+            }
+            rail.queue.offer(obj == null ? NULL : obj);
+            rail.schedule();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            fail(error);
+        }
+
+        @Override
+        public void onCompleted() {
+            upstreamDone = true;
+            for (Rail rail : railTasks) {
+                rail.schedule();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int pushNext() {
+            if (error != null) {
+                notifyError(error);
+                return TERMINATED;
+            }
+            boolean done = railsDone;
+            Object obj = output.poll();
+            if (obj == null) {
+                if (done && hasCombined) {
+                    hasCombined = false;
+                    obj = combined;
+                } else {
+                    return completeIfEmpty() ? TERMINATED : EMPTY;
+                }
+            } else {
+                release();
+            }
+            try {
+                subscription.onNext(obj == NULL ? null : (T) obj);
+            } catch (Throwable e) {
+                upstream.dispose();
+                notifyError(e);
+                return TERMINATED;
+            }
+            return PUSHED;
+        }
+
+        @Override
+        boolean completeIfEmpty() {
+            if (error != null) {
+                notifyError(error);
+                return true;
+            }
+            if (railsDone && !hasCombined && output.isEmpty()) {
+                try {
+                    subscription.onCompleted();
+                } catch (Throwable e) {
+                    logger.error("Failed to notify subscriber for onCompletion",
+                            e);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * This method returns index of rail for given element
+         */
+        private int selectRail(Object obj) {
+            if (keySelector != null) {
+                return Math.floorMod(Objects.hashCode(keySelector.apply(obj)),
+                        rails);
+            }
+            int index = nextRail;
+            nextRail = index + 1 == rails ? 0 : index + 1;
+            return index;
+        }
+
+        /**
+         * This method is called by a rail for its output
+         */
+        private void emit(Object obj) {
+            if (combiner != null) {
+                synchronized (this) {
+                    combined = hasCombined ? combiner.apply(combined, obj)
+                            : obj;
+                    hasCombined = true;
+                }
+                return;
+            }
+            output.offer(obj == null ? NULL : obj);
+            schedule();
+        }
+
+        /**
+         * This method is called when an element of source Observable is
+         * consumed and requests more data in batches
+         */
+        private void release() {
+            if (released.incrementAndGet() % limit == 0) {
+                upstream.request(limit);
+            }
+        }
+
+        private void railCompleted() {
+            if (activeRails.decrementAndGet() == 0) {
+                railsDone = true;
+                schedule();
+            }
+        }
+
+        private void fail(Throwable e) {
+            if (error == null) {
+                error = e;
+            }
+            upstream.dispose();
+            schedule();
+        }
+
+        private void notifyError(Throwable error) {
+            try {
+                subscription.onError(error);
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for error " + error,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * This class drains queue of a single rail and passes its data through
+     * the stages of the rail
+     */
+    private class Rail extends DrainTask implements RailSink<Object> {
+        private final RailsDrain parent;
+        private final Queue<Object> queue;
+        private final RailSink<Object> head;
+        private boolean emitted;
+        private boolean ended;
+
+        private Rail(RailsDrain parent) {
+            super(scheduler, parent.subscription, new Demand(Demand.UNBOUNDED),
+                    DEFAULT_BATCH_SIZE, TimeUnit.MILLISECONDS
+                            .toNanos(DEFAULT_TIME_SLICE_MILLIS));
+            this.parent = parent;
+            this.queue = new ConcurrentLinkedQueue<>();
+            this.head = stages.apply(this);
+        }
+
+        @Override
+        int pushNext() {
+            if (ended || parent.error != null) {
+                return TERMINATED;
+            }
+            boolean done = parent.upstreamDone;
+            Object obj = queue.poll();
+            if (obj == null) {
+                if (done) {
+                    ended = true;
+                    try {
+                        head.end();
+                    } catch (Throwable e) {
+                        parent.fail(e);
+                        return TERMINATED;
+                    }
+                    parent.railCompleted();
+                    return TERMINATED;
+                }
+                return EMPTY;
+            }
+            emitted = false;
+            try {
+                head.accept(obj == NULL ? null : obj);
+            } catch (Throwable e) {
+                parent.fail(e);
+                return TERMINATED;
+            }
+            if (!emitted) {
+                parent.release();
+            }
+            return PUSHED;
+        }
+
+        /**
+         * This method receives output of last stage of the rail
+         */
+        @Override
+        public void accept(Object obj) {
+            emitted = true;
+            parent.emit(obj);
+        }
+
+        @Override
+        public void end() {
+        }
+    }
+
+    /**
+     * This method subscribes to source Observable and pushes output of the
+     * rails to the subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        DeferredSubscription upstream = new DeferredSubscription();
+        SubscriptionObserver<T> subscription = new SubscriptionImpl<T>(
+                onNext, onError, onCompletion, upstream, initialRequest);
+        RailsDrain drain = new RailsDrain(subscription, upstream);
+        drain.start();
+        upstream.setUpstream(source.subscribe(drain::onNext, drain::onError,
+                drain::onCompleted, prefetch));
+        return subscription;
+    }
+}
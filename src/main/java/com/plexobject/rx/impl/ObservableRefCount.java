@@ -0,0 +1,117 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import com.plexobject.rx.ConnectableObservable;
+import com.plexobject.rx.Disposable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+
+/**
+ * This implementation of Observable connects a ConnectableObservable when
+ * first subscriber subscribes and disposes the connection when last subscriber
+ * unsubscribes or is notified for completion. The count of subscribers is only
+ * updated when subscribers come and go, so it's guarded by a lock and pushing
+ * data doesn't touch it. The source is connected outside the lock because a
+ * synchronous source pushes all of its data while connecting.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class ObservableRefCount<T> extends ObservableBase<T> {
+    private final ConnectableObservable<T> source;
+    private int count;
+    // incremented by each first subscriber so that a connection that was
+    // released while connecting is not kept
+    private long connects;
+    private Disposable connection;
+
+    public ObservableRefCount(ConnectableObservable<T> source) {
+        Objects.requireNonNull(source);
+        this.source = source;
+    }
+
+    /**
+     * This method subscribes to the ConnectableObservable and connects it if
+     * this is the first subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                release();
+            }
+        };
+        long connect = 0;
+        synchronized (this) {
+            if (count++ == 0) {
+                connect = ++connects;
+            }
+        }
+        Subscription subscription = source.subscribe(onNext, error -> {
+            release.run();
+            onError.accept(error);
+        }, () -> {
+            release.run();
+            if (onCompletion != null) {
+                onCompletion.onCompleted();
+            }
+        }, initialRequest);
+        if (connect > 0) {
+            connect(connect);
+        }
+        return new Subscription() {
+            @Override
+            public void dispose() {
+                subscription.dispose();
+                release.run();
+            }
+
+            @Override
+            public boolean isSubscribed() {
+                return subscription.isSubscribed();
+            }
+
+            @Override
+            public void request(long n) {
+                subscription.request(n);
+            }
+        };
+    }
+
+    /**
+     * This method connects the source for the first subscriber and keeps the
+     * connection unless all subscribers were released while connecting, e.g.
+     * when the source completed, in which case the connection is disposed
+     */
+    private void connect(long connect) {
+        Disposable connected = source.connect();
+        synchronized (this) {
+            if (connect == connects && count > 0) {
+                connection = connected;
+                return;
+            }
+        }
+        connected.dispose();
+    }
+
+    /**
+     * This method disposes the connection when last subscriber is released
+     */
+    private synchronized void release() {
+        if (--count == 0 && connection != null) {
+            connection.dispose();
+            connection = null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.scheduler.Scheduler;
+
+/**
+ * This implementation of Observable subscribes to another Observable using a
+ * background task of given scheduler so that a consumer function that pushes
+ * data, e.g. by registering a listener, doesn't run on the thread of the
+ * subscriber. Requests and disposal that happen before the background task
+ * runs are forwarded when upstream subscription is available.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class ObservableSubscribeOn<T> extends ObservableBase<T> {
+    final Observable<T> source;
+    private final Scheduler scheduler;
+
+    public ObservableSubscribeOn(Observable<T> source, Scheduler scheduler) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(scheduler);
+        this.source = source;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * This method changes scheduler that is used to subscribe to the source
+     */
+    @Override
+    public Observable<T> subscribeOn(Scheduler scheduler) {
+        return new ObservableSubscribeOn<T>(source, scheduler);
+    }
+
+    /**
+     * This method subscribes to the source in a background task of the
+     * scheduler
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        DeferredSubscription subscription = new DeferredSubscription();
+        scheduler.scheduleBackgroundTask(s -> {
+            if (!s.isCanceled()) {
+                s.setUpstream(source.subscribe(onNext, onError, onCompletion,
+                        initialRequest));
+            }
+        }, subscription);
+        return subscription;
+    }
+}
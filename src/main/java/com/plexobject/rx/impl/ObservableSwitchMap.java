@@ -0,0 +1,266 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.BoundedQueue;
+import com.plexobject.rx.util.Demand;
+
+/**
+ * This implementation of Observable creates an inner Observable for each
+ * element of a source Observable using a function and only pushes data of the
+ * latest inner Observable. Previous inner Observable is unsubscribed as soon as
+ * next one is created. Each inner Observable has its own bounded lock-free
+ * queue and the drain loop only reads queue of the latest inner Observable so
+ * data of previous inner Observables is dropped without any locking.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of source data
+ * @param <R>
+ *            type of subscription data
+ */
+public class ObservableSwitchMap<T, R> extends ObservableBase<R> {
+    private static final Logger logger = LoggerFactory
+            .getLogger(ObservableSwitchMap.class);
+
+    private final Observable<T> source;
+    private final Function<? super T, ? extends Observable<? extends R>> mapper;
+    private final int bufferSize;
+
+    public ObservableSwitchMap(Observable<T> source,
+            Function<? super T, ? extends Observable<? extends R>> mapper,
+            int bufferSize) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(mapper);
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Illegal buffer size "
+                    + bufferSize);
+        }
+        this.source = source;
+        this.mapper = mapper;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * This class receives data of an inner Observable
+     */
+    private class Inner implements Observer<Object> {
+        private final SwitchDrain parent;
+        private final DeferredSubscription upstream;
+        private final BoundedQueue<Object> queue;
+        private final int limit;
+        private volatile boolean done;
+        private int consumed;
+
+        private Inner(SwitchDrain parent, Observable<?> source) {
+            this.parent = parent;
+            this.upstream = new DeferredSubscription();
+            this.queue = CombineDrain.newQueue(source, bufferSize);
+            this.limit = Math.max(1, bufferSize - (bufferSize >> 2));
+        }
+
+        @Override
+        public void onNext(Object obj) {
+            if (parent.current.get() != this) {
+                return;
+            }
+            if (!queue.offer(CombineDrain.wrap(obj))) {
+                onError(new IllegalStateException(
+                        "Inner Observable pushed more data than buffer size "
+                                + bufferSize));
+                return;
+            }
+            parent.schedule();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (parent.current.get() == this) {
+                parent.fail(error);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            done = true;
+            parent.schedule();
+        }
+
+        private void release() {
+            if (++consumed == limit) {
+                consumed = 0;
+                upstream.request(limit);
+            }
+        }
+    }
+
+    /**
+     * This class switches to the latest inner Observable and pushes its data
+     * to the subscriber
+     */
+    private class SwitchDrain extends DrainTask implements Observer<T> {
+        private final SubscriptionObserver<R> subscription;
+        private final DeferredSubscription upstream;
+        private final AtomicReference<Inner> current = new AtomicReference<>();
+        private volatile boolean upstreamDone;
+        private volatile Throwable error;
+
+        private SwitchDrain(SubscriptionObserver<R> subscription) {
+            super(ObservableImpl.defaultScheduler, subscription, subscription
+                    .getDemand(), DEFAULT_BATCH_SIZE, TimeUnit.MILLISECONDS
+                    .toNanos(DEFAULT_TIME_SLICE_MILLIS));
+            this.subscription = subscription;
+            this.upstream = new DeferredSubscription();
+        }
+
+        @Override
+        void onCancel() {
+            cancelAll();
+            super.onCancel();
+        }
+
+        /**
+         * This method unsubscribes previous inner Observable and subscribes to
+         * the inner Observable of given element
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onNext(T obj) {
+            if (error != null || !subscription.isSubscribed()) {
+                return;
+            }
+            try {
+                Observable<Object> observable = (Observable<Object>) mapper
+                        .apply(obj);
+                Inner inner = new Inner(this, observable);
+                Inner previous = current.getAndSet(inner);
+                if (previous != null) {
+                    previous.upstream.dispose();
+                }
+                inner.upstream.setUpstream(observable.subscribe(
+                        inner::onNext, inner::onError, inner::onCompleted,
+                        bufferSize));
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            fail(error);
+        }
+
+        @Override
+        public void onCompleted() {
+            upstreamDone = true;
+            schedule();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int pushNext() {
+            if (error != null) {
+                cancelAll();
+                notifyError(error);
+                return TERMINATED;
+            }
+            Inner inner = current.get();
+            Object obj = inner == null ? null : inner.queue.poll();
+            if (obj == null) {
+                return completeIfEmpty() ? TERMINATED : EMPTY;
+            }
+            inner.release();
+            try {
+                subscription.onNext((R) CombineDrain.unwrap(obj));
+            } catch (Throwable e) {
+                cancelAll();
+                notifyError(e);
+                return TERMINATED;
+            }
+            return PUSHED;
+        }
+
+        /**
+         * This method completes subscription when the source and its latest
+         * inner Observable have completed
+         */
+        @Override
+        boolean completeIfEmpty() {
+            if (error != null) {
+                cancelAll();
+                notifyError(error);
+                return true;
+            }
+            if (!upstreamDone) {
+                return false;
+            }
+            Inner inner = current.get();
+            if (inner == null || inner.done && inner.queue.isEmpty()) {
+                try {
+                    subscription.onCompleted();
+                } catch (Throwable e) {
+                    logger.error("Failed to notify subscriber for onCompletion",
+                            e);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private void fail(Throwable e) {
+            if (error == null) {
+                error = e;
+            }
+            cancelAll();
+            schedule();
+        }
+
+        private void cancelAll() {
+            upstream.dispose();
+            Inner inner = current.get();
+            if (inner != null) {
+                inner.upstream.dispose();
+            }
+        }
+
+        private void notifyError(Throwable error) {
+            try {
+                subscription.onError(error);
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for error " + error,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * This method subscribes to source Observable and pushes data of its
+     * latest inner Observable to the subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<R> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        SubscriptionObserver<R> subscription = new SubscriptionImpl<R>(
+                onNext, onError, onCompletion, null, initialRequest);
+        SwitchDrain drain = new SwitchDrain(subscription);
+        drain.start();
+        drain.upstream.setUpstream(source.subscribe(drain::onNext,
+                drain::onError, drain::onCompleted, Demand.UNBOUNDED));
+        return subscription;
+    }
+}
@@ -0,0 +1,400 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.HashedWheelTimer.Timeout;
+
+/**
+ * This implementation of Observable limits rate of another Observable by
+ * dropping excess elements on the thread that pushes them. Elements are never
+ * queued, the latest element is kept in a single atomic slot that replaces
+ * previous element and it's released to the subscriber based on the mode.
+ * Periods are tracked by the shared hashed wheel timer, which only moves the
+ * element out of the slot and the element is pushed by a drain loop on the
+ * scheduler so that subscriber never blocks the timer. An element is only
+ * pushed when subscriber has requested it, otherwise it stays in the slot
+ * until it's replaced by a newer element.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class ObservableThrottle<T> extends ObservableBase<T> {
+    private static final Logger logger = LoggerFactory
+            .getLogger(ObservableThrottle.class);
+
+    /**
+     * This enum defines which elements are pushed within each period
+     */
+    public enum Mode {
+        /**
+         * Pushes first element and drops other elements until the period has
+         * elapsed
+         */
+        FIRST,
+        /**
+         * Pushes latest element at the end of each period
+         */
+        LAST,
+        /**
+         * Pushes latest element when no other element is received for the
+         * period
+         */
+        DEBOUNCE
+    }
+
+    private final Observable<T> source;
+    private final Mode mode;
+    private final long periodNanos;
+
+    /**
+     * @param source
+     *            - source Observable
+     * @param mode
+     *            - which elements are pushed within each period
+     * @param period
+     *            - length of period
+     * @param unit
+     *            - time unit of period
+     */
+    public ObservableThrottle(Observable<T> source, Mode mode, long period,
+            TimeUnit unit) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(mode);
+        Objects.requireNonNull(unit);
+        if (period <= 0) {
+            throw new IllegalArgumentException("Illegal period " + period);
+        }
+        this.source = source;
+        this.mode = mode;
+        this.periodNanos = unit.toNanos(period);
+    }
+
+    /**
+     * This class pushes first element of each period on the thread of
+     * upstream Observable, so it doesn't need the timer or the scheduler
+     */
+    private class FirstObserver implements Observer<T> {
+        private final SubscriptionObserver<T> subscription;
+        private final DeferredSubscription upstream;
+        private long nextPeriod;
+        private boolean started;
+        private boolean done;
+
+        private FirstObserver(SubscriptionObserver<T> subscription,
+                DeferredSubscription upstream) {
+            this.subscription = subscription;
+            this.upstream = upstream;
+        }
+
+        @Override
+        public void onNext(T obj) {
+            if (done) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (started && now - nextPeriod < 0) {
+                return;
+            }
+            if (!subscription.getDemand().tryAcquire()) {
+                return;
+            }
+            started = true;
+            nextPeriod = now + periodNanos;
+            try {
+                subscription.onNext(obj);
+            } catch (Throwable e) {
+                upstream.dispose();
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                subscription.onError(error);
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for error " + error,
+                        e);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                subscription.onCompleted();
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for onCompletion", e);
+            }
+        }
+    }
+
+    /**
+     * This class keeps an element with the time it was received so that
+     * debounce can tell whether another element was received since
+     */
+    private static class Node {
+        private final Object value;
+        private final long time;
+
+        private Node(Object value, long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+
+    /**
+     * This class keeps the latest element in a slot and pushes it at the end
+     * of each period or after the period without any other element
+     */
+    private class ThrottleDrain extends DrainTask implements Observer<T> {
+        private final SubscriptionObserver<T> subscription;
+        private final DeferredSubscription upstream;
+        // latest element received from upstream Observable, which is kept
+        // with its time for debounce
+        private final AtomicReference<Object> latest = new AtomicReference<>();
+        // element that was released by the timer and is ready to be pushed
+        private final AtomicReference<Object> ready = new AtomicReference<>();
+        private final AtomicBoolean armed = new AtomicBoolean();
+        private final long start;
+        private volatile Timeout timeout;
+        private volatile boolean canceled;
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        private ThrottleDrain(SubscriptionObserver<T> subscription,
+                DeferredSubscription upstream) {
+            super(ObservableImpl.defaultScheduler, subscription, subscription
+                    .getDemand(), DEFAULT_BATCH_SIZE, TimeUnit.MILLISECONDS
+                    .toNanos(DEFAULT_TIME_SLICE_MILLIS));
+            this.subscription = subscription;
+            this.upstream = upstream;
+            this.start = System.nanoTime();
+        }
+
+        @Override
+        public void onNext(T obj) {
+            if (done) {
+                return;
+            }
+            if (mode == Mode.LAST) {
+                latest.lazySet(CombineDrain.wrap(obj));
+                return;
+            }
+            latest.set(new Node(CombineDrain.wrap(obj), System.nanoTime()));
+            if (armed.compareAndSet(false, true)) {
+                arm(periodNanos);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (done) {
+                return;
+            }
+            this.error = error;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onCompleted() {
+            done = true;
+            schedule();
+        }
+
+        /**
+         * This method is called by the timer at the end of each period and
+         * registers timeout for the next period
+         */
+        private void tick() {
+            if (canceled) {
+                return;
+            }
+            release(latest.getAndSet(null));
+            long elapsed = (System.nanoTime() - start) / periodNanos;
+            arm(start + (elapsed + 1) * periodNanos - System.nanoTime());
+        }
+
+        /**
+         * This method is called by the timer after the period since an
+         * element was received and releases the element unless another
+         * element was received in the meantime
+         */
+        private void expire() {
+            if (canceled) {
+                return;
+            }
+            Node node = (Node) latest.get();
+            while (node != null) {
+                long wait = node.time + periodNanos - System.nanoTime();
+                if (wait > 0) {
+                    arm(wait);
+                    return;
+                }
+                if (latest.compareAndSet(node, null)) {
+                    release(node);
+                    break;
+                }
+                node = (Node) latest.get();
+            }
+            armed.set(false);
+            // element that was received while timeout was still armed
+            if (latest.get() != null && armed.compareAndSet(false, true)) {
+                arm(periodNanos);
+            }
+        }
+
+        private void arm(long delayNanos) {
+            timeout = ObservableInterval.timer.newTimeout(
+                    mode == Mode.LAST ? this::tick : this::expire,
+                    delayNanos, TimeUnit.NANOSECONDS);
+            if (canceled) {
+                timeout.cancel();
+            }
+        }
+
+        private void release(Object obj) {
+            if (obj != null) {
+                ready.set(obj instanceof Node ? ((Node) obj).value : obj);
+                schedule();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int pushNext() {
+            Object obj = ready.getAndSet(null);
+            if (obj == null) {
+                if (!done) {
+                    return EMPTY;
+                }
+                if (error != null) {
+                    stop();
+                    notifyError(error);
+                    return TERMINATED;
+                }
+                // latest element is not dropped when upstream completes
+                obj = latest.getAndSet(null);
+                if (obj == null) {
+                    stop();
+                    notifyCompleted();
+                    return TERMINATED;
+                }
+                if (obj instanceof Node) {
+                    obj = ((Node) obj).value;
+                }
+            }
+            try {
+                subscription.onNext((T) CombineDrain.unwrap(obj));
+            } catch (Throwable e) {
+                upstream.dispose();
+                stop();
+                notifyError(e);
+                return TERMINATED;
+            }
+            return PUSHED;
+        }
+
+        /**
+         * This method completes subscription without waiting for requests
+         * when upstream Observable has completed without any pending element
+         */
+        @Override
+        boolean completeIfEmpty() {
+            if (done && ready.get() == null) {
+                if (error != null) {
+                    stop();
+                    notifyError(error);
+                    return true;
+                }
+                if (latest.get() == null) {
+                    stop();
+                    notifyCompleted();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void onCancel() {
+            stop();
+            super.onCancel();
+        }
+
+        private void stop() {
+            canceled = true;
+            Timeout t = timeout;
+            if (t != null) {
+                t.cancel();
+            }
+        }
+
+        private void notifyCompleted() {
+            try {
+                subscription.onCompleted();
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for onCompletion", e);
+            }
+        }
+
+        private void notifyError(Throwable error) {
+            try {
+                subscription.onError(error);
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for error " + error,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * This method subscribes to upstream Observable without limiting its
+     * demand and pushes elements that are not dropped to the subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        DeferredSubscription upstream = new DeferredSubscription();
+        SubscriptionObserver<T> subscription = new SubscriptionImpl<>(onNext,
+                onError, onCompletion, upstream, initialRequest);
+        Observer<T> observer;
+        if (mode == Mode.FIRST) {
+            observer = new FirstObserver(subscription, upstream);
+        } else {
+            ThrottleDrain drain = new ThrottleDrain(subscription, upstream);
+            drain.start();
+            if (mode == Mode.LAST) {
+                drain.tick();
+            }
+            observer = drain;
+        }
+        upstream.setUpstream(source.subscribe(observer::onNext,
+                observer::onError, observer::onCompleted));
+        return subscription;
+    }
+}
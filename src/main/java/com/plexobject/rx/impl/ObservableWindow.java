@@ -0,0 +1,318 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subject;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.BoundedQueue;
+import com.plexobject.rx.util.HashedWheelTimer.Timeout;
+
+/**
+ * This implementation of Observable divides data of another Observable into
+ * windows, where each window is a replay Subject that is pushed to the
+ * subscriber as soon as it's opened by its first element, so subscriber can
+ * process a window while it's still receiving data and can also subscribe to
+ * it later. A window is completed when it reaches max count or, when timespan
+ * is given, at the end of each timespan. Data of upstream Observable is added
+ * to a bounded lock-free queue and the drain loop is the only one that pushes
+ * data to the windows, so the timer only records number of timespans that
+ * have elapsed. Only opening a window consumes requests of the subscriber,
+ * and timespans without any data don't open a window.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of source data
+ */
+public class ObservableWindow<T> extends ObservableBase<Observable<T>> {
+    private static final Logger logger = LoggerFactory
+            .getLogger(ObservableWindow.class);
+
+    private final Observable<T> source;
+    private final int maxCount;
+    private final long timespanNanos;
+    private final int bufferSize;
+
+    /**
+     * @param source
+     *            - source Observable
+     * @param maxCount
+     *            - max number of elements in a window
+     * @param timespanNanos
+     *            - time after which a window is completed regardless of its
+     *            size, 0 for windows that are only completed when they are
+     *            full
+     * @param bufferSize
+     *            - number of elements requested from source at a time
+     */
+    public ObservableWindow(Observable<T> source, int maxCount,
+            long timespanNanos, int bufferSize) {
+        Objects.requireNonNull(source);
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("Illegal count " + maxCount);
+        }
+        if (timespanNanos < 0) {
+            throw new IllegalArgumentException("Illegal timespan "
+                    + timespanNanos);
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Illegal buffer size "
+                    + bufferSize);
+        }
+        this.source = source;
+        this.maxCount = maxCount;
+        this.timespanNanos = timespanNanos;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * This class pushes data of upstream Observable to the current window and
+     * opens a new window when the current one is completed
+     */
+    private class WindowDrain extends DrainTask implements Observer<Object> {
+        private final SubscriptionObserver<Observable<T>> subscription;
+        private final DeferredSubscription upstream;
+        private final BoundedQueue<Object> queue;
+        private final int limit;
+        private final long start;
+        private int consumed;
+        private Subject<T> current;
+        private int count;
+        // element that is waiting for a new window
+        private Object next;
+        // number of timespans that have elapsed, only written by the timer
+        private volatile long ticks;
+        private long handledTicks;
+        private volatile Timeout timeout;
+        private volatile boolean canceled;
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        private WindowDrain(SubscriptionObserver<Observable<T>> subscription,
+                DeferredSubscription upstream) {
+            super(ObservableImpl.defaultScheduler, subscription, subscription
+                    .getDemand(), DEFAULT_BATCH_SIZE, TimeUnit.MILLISECONDS
+                    .toNanos(DEFAULT_TIME_SLICE_MILLIS));
+            this.subscription = subscription;
+            this.upstream = upstream;
+            this.queue = CombineDrain.newQueue(source, bufferSize);
+            this.limit = Math.max(1, bufferSize - (bufferSize >> 2));
+            this.start = System.nanoTime();
+        }
+
+        @Override
+        public void onNext(Object obj) {
+            if (done) {
+                return;
+            }
+            if (!queue.offer(CombineDrain.wrap(obj))) {
+                upstream.dispose();
+                onError(new IllegalStateException(
+                        "Upstream pushed more data than buffer size "
+                                + bufferSize));
+                return;
+            }
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (done) {
+                return;
+            }
+            this.error = error;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onCompleted() {
+            done = true;
+            schedule();
+        }
+
+        /**
+         * This method is called by the timer at the end of each timespan and
+         * registers timeout for the next timespan
+         */
+        private void tick() {
+            if (canceled) {
+                return;
+            }
+            long elapsed = (System.nanoTime() - start) / timespanNanos;
+            if (elapsed > ticks) {
+                ticks = elapsed;
+                schedule();
+            }
+            long delay = start + (elapsed + 1) * timespanNanos
+                    - System.nanoTime();
+            timeout = ObservableInterval.timer.newTimeout(this::tick, delay,
+                    TimeUnit.NANOSECONDS);
+            if (canceled) {
+                timeout.cancel();
+            }
+        }
+
+        /**
+         * This method opens a new window for the element that is waiting for
+         * it, which is pushed to the window by the next drain
+         */
+        @Override
+        int pushNext() {
+            boolean terminated = done;
+            if (forward()) {
+                current = Subject.newReplaySubject();
+                count = 0;
+                try {
+                    subscription.onNext(current);
+                } catch (Throwable e) {
+                    upstream.dispose();
+                    stop();
+                    current.onError(e);
+                    notifyError(e);
+                    return TERMINATED;
+                }
+                return PUSHED;
+            }
+            if (!terminated) {
+                return EMPTY;
+            }
+            terminate();
+            return TERMINATED;
+        }
+
+        /**
+         * This method pushes data to the current window even when subscriber
+         * has not requested another window, and completes subscription when
+         * upstream Observable has completed
+         */
+        @Override
+        boolean completeIfEmpty() {
+            boolean terminated = done;
+            if (forward() || !terminated) {
+                return false;
+            }
+            terminate();
+            return true;
+        }
+
+        @Override
+        void onCancel() {
+            stop();
+            super.onCancel();
+        }
+
+        /**
+         * This method pushes queued elements to the current window until an
+         * element needs a new window
+         *
+         * @return true if an element is waiting for a new window
+         */
+        @SuppressWarnings("unchecked")
+        private boolean forward() {
+            for (;;) {
+                long elapsed = ticks;
+                if (elapsed != handledTicks) {
+                    handledTicks = elapsed;
+                    close();
+                }
+                if (next == null) {
+                    next = queue.poll();
+                    if (next == null) {
+                        return false;
+                    }
+                    if (++consumed == limit) {
+                        consumed = 0;
+                        upstream.request(limit);
+                    }
+                }
+                if (current == null) {
+                    return true;
+                }
+                current.onNext((T) CombineDrain.unwrap(next));
+                next = null;
+                if (++count == maxCount) {
+                    close();
+                }
+            }
+        }
+
+        private void close() {
+            if (current != null) {
+                current.onCompleted();
+                current = null;
+            }
+        }
+
+        private void terminate() {
+            stop();
+            if (error != null) {
+                if (current != null) {
+                    current.onError(error);
+                    current = null;
+                }
+                notifyError(error);
+            } else {
+                close();
+                notifyCompleted();
+            }
+        }
+
+        private void stop() {
+            canceled = true;
+            Timeout t = timeout;
+            if (t != null) {
+                t.cancel();
+            }
+        }
+
+        private void notifyCompleted() {
+            try {
+                subscription.onCompleted();
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for onCompletion", e);
+            }
+        }
+
+        private void notifyError(Throwable error) {
+            try {
+                subscription.onError(error);
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for error " + error,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * This method subscribes to upstream Observable and pushes windows of its
+     * data to the subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<Observable<T>> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        DeferredSubscription upstream = new DeferredSubscription();
+        SubscriptionObserver<Observable<T>> subscription;
+        subscription = new SubscriptionImpl<>(onNext, onError, onCompletion,
+                upstream, initialRequest);
+        WindowDrain drain = new WindowDrain(subscription, upstream);
+        drain.start();
+        if (timespanNanos > 0) {
+            drain.tick();
+        }
+        upstream.setUpstream(source.subscribe(drain::onNext, drain::onError,
+                drain::onCompleted, bufferSize));
+        return subscription;
+    }
+}
@@ -0,0 +1,171 @@
+package com.plexobject.rx.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.BoundedQueue;
+import com.plexobject.rx.util.Demand;
+import com.plexobject.rx.util.Pair;
+
+/**
+ * This implementation of Observable combines each element of source
+ * Observable with the latest element of another Observable. The other
+ * Observable is subscribed first without any limit on requests and only its
+ * latest element is kept, whereas each element of source Observable is paired
+ * with the latest element of the other Observable when it arrives and the
+ * pair is added to a bounded lock-free queue that is drained for the
+ * subscriber, so a slow subscriber doesn't see newer elements of the other
+ * Observable. Elements of source Observable that arrive before the other
+ * Observable has pushed any element are dropped. It completes when source
+ * Observable completes.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of source data
+ * @param <U>
+ *            type of other data
+ * @param <R>
+ *            type of subscription data
+ */
+public class ObservableWithLatestFrom<T, U, R> extends ObservableBase<R> {
+    private static final int OTHER = 0;
+    private static final int SOURCE = 1;
+
+    private final Observable<T> source;
+    private final Observable<? extends U> other;
+    private final BiFunction<? super T, ? super U, ? extends R> combiner;
+    private final int bufferSize;
+
+    public ObservableWithLatestFrom(Observable<T> source,
+            Observable<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends R> combiner,
+            int bufferSize) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(other);
+        Objects.requireNonNull(combiner);
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Illegal buffer size "
+                    + bufferSize);
+        }
+        this.source = source;
+        this.other = other;
+        this.combiner = combiner;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * This class receives data of both Observables and pushes combined
+     * elements to the subscriber
+     */
+    private class WithLatestFromDrain extends CombineDrain<R> {
+        private final BoundedQueue<Object> queue;
+        private volatile Object latest;
+        private volatile boolean done;
+        private int consumed;
+
+        private WithLatestFromDrain(SubscriptionObserver<R> subscription,
+                DeferredSubscription[] upstreams) {
+            super(subscription, upstreams,
+                    ObservableWithLatestFrom.this.bufferSize);
+            this.queue = newQueue(source, bufferSize);
+        }
+
+        @Override
+        long initialRequest(int index) {
+            return index == OTHER ? Demand.UNBOUNDED : bufferSize;
+        }
+
+        @Override
+        void onNext(int index, Object obj) {
+            if (index == OTHER) {
+                latest = wrap(obj);
+                return;
+            }
+            Object value = latest;
+            if (value == null) {
+                // dropped element is replaced by a new request
+                upstreams[SOURCE].request(1);
+                return;
+            }
+            if (!queue.offer(Pair.of(wrap(obj), value))) {
+                onError(new IllegalStateException(
+                        "Source pushed more data than buffer size "
+                                + bufferSize));
+                return;
+            }
+            schedule();
+        }
+
+        @Override
+        void onCompleted(int index) {
+            if (index == SOURCE) {
+                done = true;
+                schedule();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int pushNext() {
+            if (checkError()) {
+                return TERMINATED;
+            }
+            Pair<Object, Object> pair = (Pair<Object, Object>) queue.poll();
+            if (pair == null) {
+                return EMPTY;
+            }
+            if (++consumed == limit) {
+                consumed = 0;
+                upstreams[SOURCE].request(limit);
+            }
+            R result;
+            try {
+                result = combiner.apply((T) unwrap(pair.getFirst()),
+                        (U) unwrap(pair.getSecond()));
+            } catch (Throwable e) {
+                cancelSources();
+                notifyError(e);
+                return TERMINATED;
+            }
+            return emit(result);
+        }
+
+        @Override
+        boolean completeIfEmpty() {
+            if (checkError()) {
+                return true;
+            }
+            if (done && queue.isEmpty()) {
+                notifyCompleted();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * This method subscribes to the other Observable and then to source
+     * Observable and pushes combined elements to the subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<R> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        DeferredSubscription[] upstreams = CombineDrain.newUpstreams(2);
+        SubscriptionObserver<R> subscription = new SubscriptionImpl<R>(
+                onNext, onError, onCompletion,
+                CombineDrain.cancelAll(upstreams), initialRequest);
+        new WithLatestFromDrain(subscription, upstreams).subscribe(Arrays
+                .asList(other, source));
+        return subscription;
+    }
+}
@@ -0,0 +1,163 @@
+package com.plexobject.rx.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.BoundedQueue;
+
+/**
+ * This implementation of Observable combines elements at the same position of
+ * multiple Observables as they are pushed. Each source has its own bounded
+ * lock-free queue and a single drain loop emits combined element as soon as
+ * all queues have an element. Sources are only asked for as many elements as
+ * their queues can hold and more elements are requested as they are consumed
+ * so a fast source can't buffer unbounded data while waiting for a slow
+ * source, except Observables created with create() that don't wait for
+ * requests. It completes when any source has completed and its queue is empty.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <R>
+ *            type of subscription data
+ */
+public class ObservableZip<R> extends ObservableBase<R> {
+    private final List<? extends Observable<?>> sources;
+    private final Function<Object[], ? extends R> zipper;
+    private final int bufferSize;
+
+    public ObservableZip(List<? extends Observable<?>> sources,
+            Function<Object[], ? extends R> zipper, int bufferSize) {
+        Objects.requireNonNull(sources);
+        Objects.requireNonNull(zipper);
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("No sources to zip");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Illegal buffer size "
+                    + bufferSize);
+        }
+        this.sources = new ArrayList<>(sources);
+        this.zipper = zipper;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * This class receives data of all sources and pushes combined elements
+     * to the subscriber
+     */
+    private class ZipDrain extends CombineDrain<R> {
+        private final List<BoundedQueue<Object>> queues;
+        private final AtomicIntegerArray done;
+        private int consumed;
+
+        private ZipDrain(SubscriptionObserver<R> subscription,
+                DeferredSubscription[] upstreams) {
+            super(subscription, upstreams,
+                    ObservableZip.this.bufferSize);
+            this.queues = new ArrayList<>(sources.size());
+            for (Observable<?> source : sources) {
+                queues.add(newQueue(source, bufferSize));
+            }
+            this.done = new AtomicIntegerArray(sources.size());
+        }
+
+        @Override
+        void onNext(int index, Object obj) {
+            if (!queues.get(index).offer(wrap(obj))) {
+                onError(new IllegalStateException("Source " + index
+                        + " pushed more data than buffer size " + bufferSize));
+                return;
+            }
+            schedule();
+        }
+
+        @Override
+        void onCompleted(int index) {
+            done.set(index, 1);
+            schedule();
+        }
+
+        @Override
+        int pushNext() {
+            if (checkError()) {
+                return TERMINATED;
+            }
+            if (!isReady()) {
+                return EMPTY;
+            }
+            Object[] row = new Object[queues.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = unwrap(queues.get(i).poll());
+            }
+            if (++consumed == limit) {
+                consumed = 0;
+                for (DeferredSubscription upstream : upstreams) {
+                    upstream.request(limit);
+                }
+            }
+            R obj;
+            try {
+                obj = zipper.apply(row);
+            } catch (Throwable e) {
+                cancelSources();
+                notifyError(e);
+                return TERMINATED;
+            }
+            return emit(obj);
+        }
+
+        /**
+         * This method completes subscription when a source has completed and
+         * none of its elements are left to be combined
+         */
+        @Override
+        boolean completeIfEmpty() {
+            if (checkError()) {
+                return true;
+            }
+            for (int i = 0; i < queues.size(); i++) {
+                if (done.get(i) == 1 && queues.get(i).isEmpty()) {
+                    notifyCompleted();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isReady() {
+            for (BoundedQueue<Object> queue : queues) {
+                if (queue.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * This method subscribes to all sources and pushes combined elements to
+     * the subscriber
+     */
+    @Override
+    public Subscription subscribe(Consumer<R> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        DeferredSubscription[] upstreams = CombineDrain.newUpstreams(sources
+                .size());
+        SubscriptionObserver<R> subscription = new SubscriptionImpl<R>(
+                onNext, onError, onCompletion,
+                CombineDrain.cancelAll(upstreams), initialRequest);
+        new ZipDrain(subscription, upstreams).subscribe(sources);
+        return subscription;
+    }
+}
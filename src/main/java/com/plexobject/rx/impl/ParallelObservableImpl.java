@@ -0,0 +1,189 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.ParallelObservable;
+import com.plexobject.rx.scheduler.Scheduler;
+
+/**
+ * This class implements ParallelObservable. Operators don't change the
+ * instance, instead they compose stages of the rail that are created for each
+ * rail when the merged Observable is subscribed.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of rail data
+ */
+public class ParallelObservableImpl<T> implements ParallelObservable<T> {
+    private final Observable<Object> source;
+    private final int rails;
+    private final Function<Object, ?> keySelector;
+    private final Scheduler scheduler;
+    private final int prefetch;
+    private final Function<RailSink<Object>, RailSink<Object>> stages;
+
+    /**
+     * @param source
+     *            - source Observable
+     * @param rails
+     *            - number of rails
+     * @param keySelector
+     *            - function that returns key of an element whose hash selects
+     *            the rail or null for round-robin
+     */
+    @SuppressWarnings("unchecked")
+    public ParallelObservableImpl(Observable<T> source, int rails,
+            Function<? super T, ?> keySelector) {
+        this((Observable<Object>) source, rails,
+                (Function<Object, ?>) keySelector,
+                ObservableImpl.defaultScheduler, Observable.DEFAULT_BUFFER_SIZE,
+                Function.identity());
+    }
+
+    private ParallelObservableImpl(Observable<Object> source, int rails,
+            Function<Object, ?> keySelector, Scheduler scheduler,
+            int prefetch, Function<RailSink<Object>, RailSink<Object>> stages) {
+        Objects.requireNonNull(source);
+        if (rails <= 0) {
+            throw new IllegalArgumentException("Illegal number of rails "
+                    + rails);
+        }
+        this.source = source;
+        this.rails = rails;
+        this.keySelector = keySelector;
+        this.scheduler = scheduler;
+        this.prefetch = prefetch;
+        this.stages = stages;
+    }
+
+    @Override
+    public int getRails() {
+        return rails;
+    }
+
+    @Override
+    public ParallelObservable<T> runOn(Scheduler scheduler) {
+        return runOn(scheduler, prefetch);
+    }
+
+    @Override
+    public ParallelObservable<T> runOn(Scheduler scheduler, int prefetch) {
+        Objects.requireNonNull(scheduler);
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("Illegal prefetch " + prefetch);
+        }
+        return new ParallelObservableImpl<T>(source, rails, keySelector,
+                scheduler, prefetch, stages);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> ParallelObservable<R> map(Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper);
+
+        return withStage(down -> new RailSink<Object>() {
+            @Override
+            public void accept(Object obj) {
+                down.accept(mapper.apply((T) obj));
+            }
+
+            @Override
+            public void end() {
+                down.end();
+            }
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ParallelObservable<T> filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+
+        return withStage(down -> new RailSink<Object>() {
+            @Override
+            public void accept(Object obj) {
+                if (predicate.test((T) obj)) {
+                    down.accept(obj);
+                }
+            }
+
+            @Override
+            public void end() {
+                down.end();
+            }
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> ParallelObservable<R> reduce(Supplier<R> initial,
+            BiFunction<R, ? super T, R> reducer) {
+        Objects.requireNonNull(initial);
+        Objects.requireNonNull(reducer);
+
+        return withStage(down -> new RailSink<Object>() {
+            private R value = initial.get();
+
+            @Override
+            public void accept(Object obj) {
+                value = reducer.apply(value, (T) obj);
+            }
+
+            @Override
+            public void end() {
+                down.accept(value);
+                down.end();
+            }
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Observable<T> reduce(BinaryOperator<T> reducer) {
+        Objects.requireNonNull(reducer);
+
+        ParallelObservableImpl<T> reduced = withStage(down -> new RailSink<Object>() {
+            private T value;
+            private boolean hasValue;
+
+            @Override
+            public void accept(Object obj) {
+                value = hasValue ? reducer.apply(value, (T) obj) : (T) obj;
+                hasValue = true;
+            }
+
+            @Override
+            public void end() {
+                if (hasValue) {
+                    down.accept(value);
+                }
+                down.end();
+            }
+        });
+        return new ObservableRails<T>(source, rails, keySelector, scheduler,
+                prefetch, reduced.stages, (BinaryOperator<Object>) reducer);
+    }
+
+    @Override
+    public Observable<T> sequential() {
+        return new ObservableRails<T>(source, rails, keySelector, scheduler,
+                prefetch, stages, null);
+    }
+
+    /**
+     * This method creates a new ParallelObservable that passes output of
+     * current stages to given stage
+     */
+    private <R> ParallelObservableImpl<R> withStage(
+            Function<RailSink<Object>, RailSink<Object>> stage) {
+        return new ParallelObservableImpl<R>(source, rails, keySelector,
+                scheduler, prefetch, stage.andThen(stages));
+    }
+}
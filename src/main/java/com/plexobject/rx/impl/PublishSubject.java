@@ -0,0 +1,35 @@
+package com.plexobject.rx.impl;
+
+/**
+ * This implementation of Subject pushes data to the subscribers that are
+ * subscribed when data is received. Subscribers that subscribe after Subject
+ * has completed are only notified for completion or error.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class PublishSubject<T> extends SubjectBase<T> {
+    @Override
+    public void onNext(T obj) {
+        if (done) {
+            return;
+        }
+        for (Subscriber<T> subscriber : subscribers()) {
+            subscriber.emit(obj);
+        }
+    }
+
+    @Override
+    void onSubscribed(Subscriber<T> subscriber, boolean added) {
+        if (!added) {
+            subscriber.terminate();
+        }
+    }
+
+    @Override
+    void onTerminated(Subscriber<T> subscriber) {
+        subscriber.terminate();
+    }
+}
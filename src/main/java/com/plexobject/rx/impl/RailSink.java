@@ -0,0 +1,25 @@
+package com.plexobject.rx.impl;
+
+/**
+ * This interface defines a stage of a rail that receives data of the rail one
+ * element at a time and passes the result to next stage
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of rail data
+ */
+interface RailSink<T> {
+    /**
+     * This method is called for each element of the rail
+     *
+     * @param obj
+     *            - element of the rail
+     */
+    void accept(T obj);
+
+    /**
+     * This method is called once after last element of the rail
+     */
+    void end();
+}
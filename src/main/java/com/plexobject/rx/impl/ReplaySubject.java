@@ -0,0 +1,205 @@
+package com.plexobject.rx.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.plexobject.rx.OnCompletion;
+
+/**
+ * This implementation of Subject keeps received data and replays it to new
+ * subscribers before pushing data that is received after subscription. Data is
+ * kept in a linked list of nodes that is bounded by size and by age of
+ * elements; old nodes are dropped from the head as new nodes are added to the
+ * tail, so bounded storage works like a ring buffer but each subscriber keeps
+ * its own position in the list and never misses data if it falls behind. Data
+ * is replayed to each subscriber by a drain loop that is serialized with a
+ * counter instead of a lock, so subscribing doesn't block the thread that
+ * pushes data.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class ReplaySubject<T> extends SubjectBase<T> {
+    private final int maxSize;
+    private final long maxAgeNanos;
+    // head is the node before first retained element
+    private volatile Node head;
+    private Node tail;
+    private int size;
+
+    /**
+     * This class keeps an element with the time it was received
+     */
+    static final class Node {
+        private final Object value;
+        private final long time;
+        volatile Node next;
+
+        private Node(Object value, long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+
+    /**
+     * This class keeps position of a subscriber in the list of nodes
+     */
+    private static class ReplaySubscriber<T> extends Subscriber<T> {
+        private final AtomicInteger wip = new AtomicInteger();
+        private Node node;
+        private boolean terminated;
+
+        private ReplaySubscriber(SubjectBase<T> parent, Consumer<T> onNext,
+                Consumer<Throwable> onError, OnCompletion onCompletion,
+                long initialRequest) {
+            super(parent, onNext, onError, onCompletion, initialRequest);
+        }
+    }
+
+    /**
+     * @param maxSize
+     *            - max number of elements to keep
+     * @param maxAgeNanos
+     *            - max age of elements to keep in nanoseconds, Long.MAX_VALUE
+     *            keeps elements regardless of their age
+     */
+    public ReplaySubject(int maxSize, long maxAgeNanos) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Illegal max size " + maxSize);
+        }
+        if (maxAgeNanos <= 0) {
+            throw new IllegalArgumentException("Illegal max age "
+                    + maxAgeNanos);
+        }
+        this.maxSize = maxSize;
+        this.maxAgeNanos = maxAgeNanos;
+        this.head = this.tail = new Node(null, 0);
+    }
+
+    @Override
+    public void onNext(T obj) {
+        if (done) {
+            return;
+        }
+        Node node = new Node(CombineDrain.wrap(obj), isTimed() ? System
+                .nanoTime() : 0);
+        tail.next = node;
+        tail = node;
+        size++;
+        trim(node.time);
+        for (Subscriber<T> subscriber : subscribers()) {
+            replay(subscriber);
+        }
+    }
+
+    @Override
+    Subscriber<T> newSubscriber(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        return new ReplaySubscriber<T>(this, onNext, onError, onCompletion,
+                initialRequest);
+    }
+
+    @Override
+    void onSubscribed(Subscriber<T> subscriber, boolean added) {
+        replay(subscriber);
+    }
+
+    @Override
+    void onTerminated(Subscriber<T> subscriber) {
+        replay(subscriber);
+    }
+
+    /**
+     * This method returns node before the first element that is replayed to
+     * a new subscriber
+     */
+    Node startNode() {
+        Node node = head;
+        if (isTimed()) {
+            long now = System.nanoTime();
+            while (isExpired(node.next, now)) {
+                node = node.next;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * This method pushes elements after the position of given subscriber
+     * until it reaches the end of the list. It's called by the thread pushing
+     * data and by the thread subscribing, but only one of them drains at a
+     * time and the other one only records that more work is available.
+     */
+    @SuppressWarnings("unchecked")
+    private void replay(Subscriber<T> subscriber) {
+        ReplaySubscriber<T> rs = (ReplaySubscriber<T>) subscriber;
+        if (rs.wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            if (rs.terminated) {
+                return;
+            }
+            Node node = rs.node;
+            if (node == null) {
+                node = startNode();
+            }
+            for (;;) {
+                if (!rs.isSubscribed()) {
+                    rs.node = null;
+                    return;
+                }
+                boolean terminated = done;
+                Node next = node.next;
+                if (next == null) {
+                    if (terminated) {
+                        rs.terminated = true;
+                        rs.terminate();
+                        return;
+                    }
+                    break;
+                }
+                if (!rs.emit((T) CombineDrain.unwrap(next.value))) {
+                    rs.terminated = true;
+                    return;
+                }
+                node = next;
+            }
+            rs.node = node;
+            missed = rs.wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * This method drops elements from the head that exceed max size or max age
+     */
+    private void trim(long now) {
+        Node node = head;
+        while (size > maxSize) {
+            node = node.next;
+            size--;
+        }
+        if (isTimed()) {
+            while (isExpired(node.next, now)) {
+                node = node.next;
+                size--;
+            }
+        }
+        head = node;
+    }
+
+    private boolean isExpired(Node node, long now) {
+        return node != null && now - node.time > maxAgeNanos;
+    }
+
+    private boolean isTimed() {
+        return maxAgeNanos != Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,226 @@
+package com.plexobject.rx.impl;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.Subject;
+import com.plexobject.rx.Subscription;
+
+/**
+ * This is base class for Subjects that keeps subscribers in a copy-on-write
+ * array so that pushing data only reads the array without any locking, and
+ * subscribers are added or removed by replacing the array atomically. The
+ * array is replaced with a terminated marker when Subject completes so that
+ * later subscribers are notified for completion right away.
+ *
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+abstract class SubjectBase<T> extends ObservableBase<T> implements Subject<T> {
+    private static final Logger logger = LoggerFactory
+            .getLogger(SubjectBase.class);
+
+    private static final Subscriber<?>[] EMPTY = new Subscriber<?>[0];
+    private static final Subscriber<?>[] TERMINATED = new Subscriber<?>[0];
+
+    private final AtomicReference<Subscriber<T>[]> subscribers;
+    volatile boolean done;
+    volatile Throwable error;
+
+    @SuppressWarnings("unchecked")
+    SubjectBase() {
+        this.subscribers = new AtomicReference<>((Subscriber<T>[]) EMPTY);
+    }
+
+    /**
+     * This class keeps track of a subscriber and removes it from the Subject
+     * when user unsubscribes
+     */
+    static class Subscriber<T> extends SubscriptionImpl<T> {
+        private final SubjectBase<T> parent;
+
+        Subscriber(SubjectBase<T> parent, Consumer<T> onNext,
+                Consumer<Throwable> onError, OnCompletion onCompletion,
+                long initialRequest) {
+            super(onNext, onError, onCompletion, null, initialRequest);
+            this.parent = parent;
+        }
+
+        @Override
+        public void dispose() {
+            super.dispose();
+            parent.remove(this);
+        }
+
+        /**
+         * This method pushes data to the subscriber and removes it when it
+         * fails to consume the data
+         *
+         * @return true if data was consumed
+         */
+        boolean emit(T obj) {
+            try {
+                onNext(obj);
+                return true;
+            } catch (Throwable e) {
+                parent.remove(this);
+                try {
+                    onError(e);
+                } catch (Throwable ex) {
+                    logger.error("Failed to notify subscriber for error " + e,
+                            ex);
+                }
+                return false;
+            }
+        }
+
+        /**
+         * This method notifies subscriber for completion or error of the
+         * Subject
+         */
+        void terminate() {
+            try {
+                if (parent.error != null) {
+                    onError(parent.error);
+                } else {
+                    onCompleted();
+                }
+            } catch (Throwable e) {
+                logger.error("Failed to notify subscriber for completion", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return subscribers.get().length > 0;
+    }
+
+    /**
+     * This method subscribes user to receive data pushed to the Subject
+     */
+    @Override
+    public Subscription subscribe(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        Objects.requireNonNull(onNext);
+        Objects.requireNonNull(onError);
+
+        Subscriber<T> subscriber = newSubscriber(onNext, onError,
+                onCompletion, initialRequest);
+        onSubscribed(subscriber, add(subscriber));
+        return subscriber;
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        Objects.requireNonNull(error);
+        if (done) {
+            return;
+        }
+        this.error = error;
+        terminate();
+    }
+
+    @Override
+    public void onCompleted() {
+        if (done) {
+            return;
+        }
+        terminate();
+    }
+
+    /**
+     * This method returns current subscribers
+     */
+    Subscriber<T>[] subscribers() {
+        return subscribers.get();
+    }
+
+    /**
+     * This method creates subscriber of this Subject
+     */
+    Subscriber<T> newSubscriber(Consumer<T> onNext,
+            Consumer<Throwable> onError, OnCompletion onCompletion,
+            long initialRequest) {
+        return new Subscriber<T>(this, onNext, onError, onCompletion,
+                initialRequest);
+    }
+
+    /**
+     * This method is called after subscriber is added, or when it couldn't be
+     * added because Subject has already completed
+     */
+    abstract void onSubscribed(Subscriber<T> subscriber, boolean added);
+
+    /**
+     * This method is called for each subscriber when Subject completes
+     */
+    abstract void onTerminated(Subscriber<T> subscriber);
+
+    @SuppressWarnings("unchecked")
+    private void terminate() {
+        done = true;
+        for (Subscriber<T> subscriber : subscribers
+                .getAndSet((Subscriber<T>[]) TERMINATED)) {
+            onTerminated(subscriber);
+        }
+    }
+
+    private boolean add(Subscriber<T> subscriber) {
+        for (;;) {
+            Subscriber<T>[] current = subscribers.get();
+            if (current == TERMINATED) {
+                return false;
+            }
+            int n = current.length;
+            @SuppressWarnings("unchecked")
+            Subscriber<T>[] next = (Subscriber<T>[]) new Subscriber<?>[n + 1];
+            System.arraycopy(current, 0, next, 0, n);
+            next[n] = subscriber;
+            if (subscribers.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void remove(Subscriber<T> subscriber) {
+        for (;;) {
+            Subscriber<T>[] current = subscribers.get();
+            if (current == TERMINATED || current == EMPTY) {
+                return;
+            }
+            int n = current.length;
+            int index = -1;
+            for (int i = 0; i < n; i++) {
+                if (current[i] == subscriber) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            Subscriber<T>[] next;
+            if (n == 1) {
+                next = (Subscriber<T>[]) EMPTY;
+            } else {
+                next = (Subscriber<T>[]) new Subscriber<?>[n - 1];
+                System.arraycopy(current, 0, next, 0, index);
+                System.arraycopy(current, index + 1, next, index, n - index
+                        - 1);
+            }
+            if (subscribers.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+}
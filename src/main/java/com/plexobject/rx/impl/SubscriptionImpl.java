@@ -4,6 +4,7 @@ import java.util.function.Consumer;
 
 import com.plexobject.rx.Cancelable;
 import com.plexobject.rx.OnCompletion;
+import com.plexobject.rx.util.Demand;
 
 /**
  * This class keeps track of user subscription including callback functions.
@@ -19,25 +20,46 @@ public class SubscriptionImpl<T> implements SubscriptionObserver<T> {
     private final Consumer<Throwable> onError;
     private final OnCompletion onCompletion;
     private final Cancelable cancelable;
+    private final Demand demand;
     private volatile boolean subscribed;
 
     public SubscriptionImpl(Consumer<T> onNext, Consumer<Throwable> onError,
             OnCompletion onCompletion, Cancelable cancelable) {
+        this(onNext, onError, onCompletion, cancelable, Demand.UNBOUNDED);
+    }
+
+    public SubscriptionImpl(Consumer<T> onNext, Consumer<Throwable> onError,
+            OnCompletion onCompletion, Cancelable cancelable,
+            long initialRequest) {
         this.onNext = onNext;
         this.onError = onError;
         this.onCompletion = onCompletion;
         this.cancelable = cancelable;
+        this.demand = new Demand(initialRequest);
         this.subscribed = true;
     }
 
     @Override
     public void dispose() {
         subscribed = false;
+        demand.cancel();
         if (cancelable != null) {
             cancelable.cancel();
         }
     }
 
+    @Override
+    public void request(long n) {
+        if (subscribed) {
+            demand.request(n);
+        }
+    }
+
+    @Override
+    public Demand getDemand() {
+        return demand;
+    }
+
     @Override
     public boolean isSubscribed() {
         return subscribed;
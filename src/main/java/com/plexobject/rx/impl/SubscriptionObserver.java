@@ -1,6 +1,7 @@
 package com.plexobject.rx.impl;
 
 import com.plexobject.rx.Subscription;
+import com.plexobject.rx.util.Demand;
 
 /**
  * This is used internally to keep track of subscription and to notify
@@ -11,5 +12,10 @@ import com.plexobject.rx.Subscription;
  * @param <T> type of subscription data
  */
 public interface SubscriptionObserver<T> extends Subscription, Observer<T> {
-
+    /**
+     * This method returns outstanding demand of the subscriber
+     * 
+     * @return demand
+     */
+    Demand getDemand();
 }
@@ -1,5 +1,7 @@
 package com.plexobject.rx.scheduler;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -10,6 +12,9 @@ import com.plexobject.rx.Disposable;
 /**
  * This implementation of scheduler uses same thread to notify subscriber. This
  * should not be used for large data as it doesn't allow user to unsubscribe.
+ * Tasks that are scheduled while another task is running on the same thread
+ * are queued and run after it returns so that tasks rescheduling themselves
+ * don't grow the stack.
  * 
  * @author Shahzad Bhatti
  *
@@ -18,6 +23,7 @@ public class ImmediateScheduler implements Scheduler, Disposable {
     private static final Logger logger = LoggerFactory
             .getLogger(ImmediateScheduler.class);
 
+    private final ThreadLocal<Deque<Runnable>> pendingTasks = new ThreadLocal<>();
     private volatile boolean shutdown;
 
     @Override
@@ -32,6 +38,21 @@ public class ImmediateScheduler implements Scheduler, Disposable {
                     + consumer);
             return;
         }
-        consumer.accept(handle);
+        Deque<Runnable> pending = pendingTasks.get();
+        if (pending != null) {
+            pending.add(() -> consumer.accept(handle));
+            return;
+        }
+        pending = new ArrayDeque<>();
+        pendingTasks.set(pending);
+        try {
+            consumer.accept(handle);
+            Runnable task;
+            while ((task = pending.poll()) != null) {
+                task.run();
+            }
+        } finally {
+            pendingTasks.remove();
+        }
     }
 }
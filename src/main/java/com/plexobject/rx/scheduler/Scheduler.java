@@ -23,6 +23,29 @@ public interface Scheduler extends Disposable {
      */
     <T> void scheduleBackgroundTask(Consumer<T> consumer, T handle);
 
+    /**
+     * This method returns maximum number of elements that can be pushed to the
+     * subscriber by a single background task. By default, there is no limit
+     * and Observable decides its batch size, but schedulers that pace each
+     * element such as timer return 1.
+     * 
+     * @return max number of elements per background task
+     */
+    default int getMaxElementsPerTick() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * This method creates a worker that runs tasks one at a time in the order
+     * they were scheduled. By default, tasks are scheduled directly with this
+     * scheduler, which is sufficient for schedulers that use a single thread.
+     * 
+     * @return worker for a single subscription
+     */
+    default Worker createWorker() {
+        return this::scheduleBackgroundTask;
+    }
+
     public static Scheduler newThreadPoolScheduler(int poolSize) {
         return new ThreadPoolScheduler(poolSize);
     }
@@ -35,6 +58,17 @@ public interface Scheduler extends Disposable {
         return new NewThreadScheduler();
     }
 
+    /**
+     * This method creates scheduler that runs background tasks on virtual
+     * threads when JVM supports them, which allows subscribers to block
+     * without exhausting a thread pool
+     * 
+     * @return instance of Scheduler
+     */
+    public static Scheduler newVirtualThreadScheduler() {
+        return new VirtualThreadScheduler();
+    }
+
     public static Scheduler newTimerSchedulerWithMilliInterval(long interval) {
         return new TimerScheduler(interval);
     }
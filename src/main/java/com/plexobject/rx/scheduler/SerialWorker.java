@@ -0,0 +1,60 @@
+package com.plexobject.rx.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class queues tasks of a single subscription and runs them one at a time
+ * using given executor. Only one task of a worker is submitted to the executor
+ * at any time and it submits the next task after it finishes, so other
+ * subscriptions get their turn in between.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+class SerialWorker implements Worker, Runnable {
+    private static final Logger logger = LoggerFactory
+            .getLogger(SerialWorker.class);
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Executor executor;
+    private final BooleanSupplier shutdown;
+
+    SerialWorker(Executor executor, BooleanSupplier shutdown) {
+        this.executor = executor;
+        this.shutdown = shutdown;
+    }
+
+    @Override
+    public <T> void schedule(Consumer<T> consumer, T handle) {
+        if (shutdown.getAsBoolean()) {
+            logger.warn("Already shutdown, cannot schedule new background task "
+                    + consumer);
+            return;
+        }
+        tasks.offer(() -> consumer.accept(handle));
+        if (wip.getAndIncrement() == 0) {
+            executor.execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            tasks.poll().run();
+        } catch (Throwable e) {
+            logger.error("Failed to run background task", e);
+        }
+        if (wip.decrementAndGet() != 0 && !shutdown.getAsBoolean()) {
+            executor.execute(this);
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.plexobject.rx.scheduler;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -11,7 +12,12 @@ import com.plexobject.rx.Disposable;
 
 /**
  * This implementation of Scheduler uses thread-pool for background processing
- * that pushes incoming data to user.
+ * that pushes incoming data to user. The pool keeps a separate deque for each
+ * thread and idle threads steal tasks from busy threads so that threads don't
+ * contend on a single shared queue. Tasks scheduled from a pool thread are
+ * pushed to its own deque so that a subscription that reschedules itself
+ * tends to stay on the same thread. Workers created by this scheduler run
+ * their tasks one at a time in the order they were scheduled.
  * 
  * @author Shahzad Bhatti
  *
@@ -20,11 +26,14 @@ public class ThreadPoolScheduler implements Scheduler, Disposable {
     private static final Logger logger = LoggerFactory
             .getLogger(ThreadPoolScheduler.class);
 
-    private final ExecutorService defaulExecutor;
+    private final ForkJoinPool pool;
     private volatile boolean shutdown;
 
     public ThreadPoolScheduler(int poolSize) {
-        defaulExecutor = Executors.newFixedThreadPool(poolSize);
+        pool = new ForkJoinPool(poolSize,
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                (thread, e) -> logger.error("Failed to run background task",
+                        e), true);
     }
 
     @Override
@@ -32,7 +41,7 @@ public class ThreadPoolScheduler implements Scheduler, Disposable {
         if (shutdown)
             return;
         shutdown = true;
-        defaulExecutor.shutdown();
+        pool.shutdown();
     }
 
     @Override
@@ -42,9 +51,34 @@ public class ThreadPoolScheduler implements Scheduler, Disposable {
                     + consumer);
             return;
         }
-        defaulExecutor.submit(() -> {
+        execute(() -> {
             consumer.accept(handle);
         });
+    }
 
+    /**
+     * This method creates a worker that runs tasks of a single subscription
+     * in order
+     */
+    @Override
+    public Worker createWorker() {
+        return new SerialWorker(this::execute, () -> shutdown);
+    }
+
+    /**
+     * This method pushes task to the deque of current thread if it belongs to
+     * this pool, otherwise it submits the task to the pool
+     * 
+     * @param task
+     *            - task to run
+     */
+    private void execute(Runnable task) {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof ForkJoinWorkerThread
+                && ((ForkJoinWorkerThread) thread).getPool() == pool) {
+            ForkJoinTask.adapt(task).fork();
+        } else {
+            pool.execute(task);
+        }
     }
 }
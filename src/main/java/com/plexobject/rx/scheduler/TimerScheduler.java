@@ -1,16 +1,23 @@
 package com.plexobject.rx.scheduler;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.plexobject.rx.Disposable;
+import com.plexobject.rx.util.HashedWheelTimer;
+import com.plexobject.rx.util.HashedWheelTimer.Timeout;
 
 /**
- * This implementation of Scheduler notifies subscriber at given interval
+ * This implementation of Scheduler notifies subscriber at given interval. It
+ * uses hashed wheel timer so that scheduling and canceling a task is O(1) even
+ * when there are millions of pending tasks, and a task that throws an
+ * exception doesn't stop the timer. Pending tasks of a subscription are
+ * canceled when the subscription is disposed.
  * 
  * @author Shahzad Bhatti
  *
@@ -18,38 +25,137 @@ import com.plexobject.rx.Disposable;
 public class TimerScheduler implements Scheduler, Disposable {
     private static final Logger logger = LoggerFactory
             .getLogger(TimerScheduler.class);
+    private static final int TICKS_PER_WHEEL = 512;
+    private static final long MAX_TICK_MILLIS = 10;
+    private static final long TICKS_PER_INTERVAL = 10;
 
-    private final Timer timer = new Timer();
+    private final HashedWheelTimer timer;
     private final long interval;
     private volatile boolean shutdown;
 
     public TimerScheduler(long interval) {
         this.interval = interval;
+        // a task may run up to a tick late so tick is kept to a fraction of
+        // the interval
+        this.timer = new HashedWheelTimer(Math.max(1, Math.min(interval
+                / TICKS_PER_INTERVAL, MAX_TICK_MILLIS)), TimeUnit.MILLISECONDS,
+                TICKS_PER_WHEEL);
+    }
+
+    /**
+     * This class keeps track of a task that is waiting for the interval. It's
+     * added to pending tasks before the timeout is registered so that the
+     * timer thread never sees a task whose timeout is not published yet.
+     */
+    private static class PendingTask<T> implements Runnable {
+        private final Set<PendingTask<?>> pending;
+        private final Consumer<T> consumer;
+        private final T handle;
+        private volatile Timeout timeout;
+        private volatile boolean canceled;
+
+        private PendingTask(Set<PendingTask<?>> pending, Consumer<T> consumer,
+                T handle) {
+            this.pending = pending;
+            this.consumer = consumer;
+            this.handle = handle;
+        }
+
+        @Override
+        public void run() {
+            try {
+                pending.remove(this);
+            } finally {
+                consumer.accept(handle);
+            }
+        }
+
+        private void cancel() {
+            canceled = true;
+            Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+
+    /**
+     * This class keeps track of pending tasks of a subscription so that they
+     * can be canceled when subscription is disposed
+     */
+    private class TimerWorker implements Worker {
+        private final Set<PendingTask<?>> pending = ConcurrentHashMap
+                .newKeySet();
+
+        @Override
+        public <T> void schedule(Consumer<T> consumer, T handle) {
+            PendingTask<T> task = new PendingTask<>(pending, consumer, handle);
+            pending.add(task);
+            Timeout timeout = newTimeout(task);
+            if (timeout == null) {
+                pending.remove(task);
+                return;
+            }
+            task.timeout = timeout;
+            // worker may have been disposed before timeout was published
+            if (task.canceled) {
+                timeout.cancel();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            for (PendingTask<?> task : pending) {
+                task.cancel();
+            }
+            pending.clear();
+        }
     }
 
     @Override
     public synchronized void dispose() {
         if (shutdown) return;
         shutdown = true;
-        timer.cancel();
+        timer.dispose();
     }
 
+    /**
+     * Timer notifies subscriber one element at each interval
+     */
     @Override
-    public <T> void scheduleBackgroundTask(Consumer<T> consumer, T handle) {
-        if (shutdown) {
-            logger.warn("Already shutdown, cannot schedule new background task "
-                    + consumer);
-            return;
-        }
+    public int getMaxElementsPerTick() {
+        return 1;
+    }
 
-        timer.schedule(new TimerTask() {
+    @Override
+    public <T> void scheduleBackgroundTask(Consumer<T> consumer, T handle) {
+        newTimeout(() -> consumer.accept(handle));
+    }
 
-            @Override
-            public void run() {
-                consumer.accept(handle);
-            }
-        }, interval);
+    /**
+     * This method creates a worker whose pending tasks are canceled when it's
+     * disposed
+     */
+    @Override
+    public Worker createWorker() {
+        return new TimerWorker();
+    }
 
+    /**
+     * This method returns number of tasks that are waiting for the interval
+     * 
+     * @return number of pending tasks
+     */
+    public long getPendingTasks() {
+        return timer.getPendingTimeouts();
     }
 
+    private Timeout newTimeout(Runnable task) {
+        if (shutdown) {
+            logger.warn("Already shutdown, cannot schedule new background task "
+                    + task);
+            return null;
+        }
+        return timer.newTimeout(task, interval, TimeUnit.MILLISECONDS);
+    }
 }
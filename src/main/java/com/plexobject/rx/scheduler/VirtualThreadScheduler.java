@@ -0,0 +1,99 @@
+package com.plexobject.rx.scheduler;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Disposable;
+
+/**
+ * This implementation of Scheduler starts a virtual thread for each background
+ * task so that subscribers can block, e.g. for database or file I/O, without
+ * holding one of a small number of platform threads. Virtual threads are
+ * looked up using reflection because they are only available on newer JVMs;
+ * on older JVMs this scheduler falls back to a cached pool of daemon platform
+ * threads. Tasks of a subscription are run one at a time through its worker.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public class VirtualThreadScheduler implements Scheduler, Disposable {
+    private static final Logger logger = LoggerFactory
+            .getLogger(VirtualThreadScheduler.class);
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private volatile boolean shutdown;
+
+    public VirtualThreadScheduler() {
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+        if (virtualExecutor != null) {
+            executor = virtualExecutor;
+            virtual = true;
+        } else {
+            logger.info("Virtual threads are not supported, "
+                    + "using platform threads");
+            executor = Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r);
+                thread.setDaemon(true);
+                return thread;
+            });
+            virtual = false;
+        }
+    }
+
+    /**
+     * This method returns true if tasks are run on virtual threads
+     * 
+     * @return false if JVM doesn't support virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    @Override
+    public synchronized void dispose() {
+        if (shutdown)
+            return;
+        shutdown = true;
+        executor.shutdown();
+    }
+
+    @Override
+    public <T> void scheduleBackgroundTask(Consumer<T> consumer, T handle) {
+        if (shutdown) {
+            logger.warn("Already shutdown, cannot schedule new background task "
+                    + consumer);
+            return;
+        }
+        executor.execute(() -> {
+            consumer.accept(handle);
+        });
+    }
+
+    /**
+     * This method creates a worker that runs tasks of a single subscription
+     * in order, each on a new virtual thread
+     */
+    @Override
+    public Worker createWorker() {
+        return new SerialWorker(executor, () -> shutdown);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (Exception e) {
+            logger.warn("Failed to create virtual thread executor", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.plexobject.rx.scheduler;
+
+import java.util.function.Consumer;
+
+import com.plexobject.rx.Disposable;
+
+/**
+ * This interface defines a serial view of a scheduler. Tasks that are
+ * scheduled through the same worker are run one at a time in the order they
+ * were scheduled, which allows a subscription to push data from multiple
+ * background tasks without any additional synchronization. A worker is
+ * disposed when its subscription is disposed, which allows scheduler to
+ * release tasks that have not run yet.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+@FunctionalInterface
+public interface Worker extends Disposable {
+    /**
+     * This method registers user-defined function that is invoked after all
+     * tasks that were previously scheduled through this worker have finished
+     * 
+     * @param consumer
+     *            - callback function to notify tick
+     * @param handle
+     *            to pass in with consumer
+     */
+    <T> void schedule(Consumer<T> consumer, T handle);
+
+    /**
+     * This method releases pending tasks of this worker, by default it does
+     * nothing and pending tasks run and find that subscription was disposed
+     */
+    @Override
+    default void dispose() {
+    }
+}
@@ -0,0 +1,42 @@
+package com.plexobject.rx.util;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * This class creates streams and fused queues from an array
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class ArraySource<T> implements QueueFuseable<T> {
+    private final T[] values;
+
+    public ArraySource(T[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public Stream<T> get() {
+        return Arrays.stream(values);
+    }
+
+    @Override
+    public FusedQueue<T> fusedQueue() {
+        return new FusedQueue<T>() {
+            private int index;
+
+            @Override
+            public boolean isEmpty() {
+                return index >= values.length;
+            }
+
+            @Override
+            public T poll() {
+                return values[index++];
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.plexobject.rx.util;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.plexobject.rx.Streamable;
+
+/**
+ * This class combines elements at the same position of any number of
+ * spliterators. Elements are collected in a flat array that is passed to
+ * given function and it stops when any spliterator is exhausted.
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <R>
+ *            type of combined elements
+ */
+public class ArrayZipSpliterator<R> implements Spliterator<R>, Streamable<R> {
+    private final Spliterator<?>[] delegates;
+    private final Function<Object[], ? extends R> zipper;
+
+    public ArrayZipSpliterator(Spliterator<?>[] delegates,
+            Function<Object[], ? extends R> zipper) {
+        Objects.requireNonNull(delegates);
+        Objects.requireNonNull(zipper);
+        if (delegates.length == 0) {
+            throw new IllegalArgumentException("No spliterators to zip");
+        }
+        this.delegates = delegates;
+        this.zipper = zipper;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        Object[] row = new Object[delegates.length];
+        for (int i = 0; i < delegates.length; i++) {
+            int index = i;
+            if (!delegates[i].tryAdvance(obj -> row[index] = obj)) {
+                return false;
+            }
+        }
+        action.accept(zipper.apply(row));
+        return true;
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = Long.MAX_VALUE;
+        for (Spliterator<?> delegate : delegates) {
+            size = Math.min(size, delegate.estimateSize());
+        }
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        int characteristics = Spliterator.ORDERED | Spliterator.IMMUTABLE
+                | Spliterator.SIZED;
+        for (Spliterator<?> delegate : delegates) {
+            characteristics &= delegate.characteristics();
+        }
+        return characteristics;
+    }
+
+    public Stream<R> getStream() {
+        return StreamSupport.stream(this, false);
+    }
+}
@@ -0,0 +1,51 @@
+package com.plexobject.rx.util;
+
+/**
+ * This interface defines a bounded queue that is used to hand off data
+ * between threads without locking
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of elements
+ */
+public interface BoundedQueue<T> {
+    /**
+     * This method adds element to the queue
+     * 
+     * @param obj
+     *            - element, must not be null
+     * @return true if element was added, false if queue is full
+     */
+    boolean offer(T obj);
+
+    /**
+     * This method removes element from the head of queue
+     * 
+     * @return element or null if queue is empty
+     */
+    T poll();
+
+    /**
+     * This method returns true if queue is empty
+     * 
+     * @return true if empty, false otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * This method returns max number of elements that queue can hold
+     * 
+     * @return capacity
+     */
+    int capacity();
+
+    /**
+     * This method removes all elements from the queue. It must be called by
+     * the consumer thread.
+     */
+    default void clear() {
+        while (poll() != null) {
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.plexobject.rx.util;
 
+import java.util.Queue;
 import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountedCompleter;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -11,40 +14,148 @@ import java.util.stream.StreamSupport;
 import com.plexobject.rx.Cancelable;
 import com.plexobject.rx.OnCompletion;
 import com.plexobject.rx.Streamable;
-import com.plexobject.rx.scheduler.Scheduler;
 
+/**
+ * This class wraps a spliterator so that it can be canceled and pushes its
+ * elements in parallel using a fork-join pool. By default, a shared pool of
+ * daemon threads is used instead of the common pool so that blocking
+ * subscribers don't starve parallel streams of the application. Its
+ * parallelism can be changed with the rx.parallelism system property.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
 public class CancelableSpliterator<T> implements Spliterator<T>, Cancelable,
         Streamable<T> {
+    public static final String PARALLELISM_PROPERTY = "rx.parallelism";
+    // a task keeps splitting while it has no more than these many surplus
+    // tasks in its queue that are not stolen by other workers
+    private static final int MAX_SURPLUS_TASKS = 3;
+    // a leaf is never split below size / (parallelism * LEAVES_PER_THREAD)
+    private static final int LEAVES_PER_THREAD = 4;
+
     private final AtomicBoolean canceled = new AtomicBoolean();
     private Spliterator<T> delegate;
 
+    /**
+     * This class keeps leaf tasks that ran out of demand and forks them again
+     * when subscriber requests more data
+     */
+    private static class ParkedTasks<T> {
+        private final Queue<ParEach<T>> parked = new ConcurrentLinkedQueue<>();
+        private final ForkJoinPool pool;
+        private final Demand demand;
+        private final Cancelable cancelable;
+
+        private ParkedTasks(ForkJoinPool pool, Demand demand,
+                Cancelable cancelable) {
+            this.pool = pool;
+            this.demand = demand;
+            this.cancelable = cancelable;
+        }
+
+        private void park(ParEach<T> task) {
+            parked.add(task);
+            // demand may have been added before task was parked
+            if (demand.get() > 0 || cancelable.isCanceled()) {
+                resume();
+            }
+        }
+
+        private void resume() {
+            ParEach<T> task;
+            while ((task = parked.poll()) != null) {
+                pool.execute(task);
+            }
+        }
+
+        private void clear() {
+            parked.clear();
+        }
+    }
+
     private static class ParEach<T> extends CountedCompleter<Void> {
         private static final long serialVersionUID = 1L;
         final Spliterator<T> spliterator;
         final Consumer<T> onNext;
-        final long targetBatchSize;
+        final long sizeThreshold;
+        final ParkedTasks<T> parked;
+        final OnCompletion onCompletion;
 
         private ParEach(ParEach<T> parent, Spliterator<T> spliterator,
-                Consumer<T> onNext, long targetBatchSize) {
+                Consumer<T> onNext, long sizeThreshold,
+                ParkedTasks<T> parked, OnCompletion onCompletion) {
             super(parent);
             this.spliterator = spliterator;
             this.onNext = onNext;
-            this.targetBatchSize = targetBatchSize;
+            this.sizeThreshold = sizeThreshold;
+            this.parked = parked;
+            this.onCompletion = onCompletion;
         }
 
         @Override
         public void compute() {
+            Cancelable cancelable = parked.cancelable;
             Spliterator<T> sub;
-            while (spliterator.estimateSize() > targetBatchSize
+            // splitting stops when other workers are not stealing the tasks
+            // that are already forked
+            while (!cancelable.isCanceled()
+                    && spliterator.estimateSize() > sizeThreshold
+                    && getSurplusQueuedTaskCount() <= MAX_SURPLUS_TASKS
                     && (sub = spliterator.trySplit()) != null) {
                 addToPendingCount(1);
-                new ParEach<>(this, sub, onNext, targetBatchSize).fork();
+                new ParEach<>(this, sub, onNext, sizeThreshold, parked, null)
+                        .fork();
+            }
+            Demand demand = parked.demand;
+            while (!cancelable.isCanceled() && demand.tryAcquire()) {
+                if (!spliterator.tryAdvance(onNext)) {
+                    // give back unused permit
+                    demand.request(1);
+                    tryComplete();
+                    return;
+                }
+            }
+            if (cancelable.isCanceled()
+                    || spliterator.getExactSizeIfKnown() == 0) {
+                tryComplete();
+                return;
+            }
+            // out of demand, continue remaining elements in a child task
+            // that is forked when subscriber requests more data
+            addToPendingCount(1);
+            parked.park(new ParEach<>(this, spliterator, onNext,
+                    sizeThreshold, parked, null));
+            tryComplete();
+        }
+
+        /**
+         * This method is invoked when this task and all of its children are
+         * completed and notifies completion for the root task
+         */
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (onCompletion != null) {
+                onCompletion.onCompleted();
             }
-            spliterator.forEachRemaining((v) -> onNext.accept(v));
-            propagateCompletion();
         }
     }
 
+    /**
+     * This class creates daemon threads for the default pool
+     */
+    private static class DefaultPool {
+        private static final ForkJoinPool INSTANCE = new ForkJoinPool(
+                Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime()
+                        .availableProcessors()), pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                            .newThread(pool);
+                    thread.setName("rx-parallel-" + thread.getPoolIndex());
+                    thread.setDaemon(true);
+                    return thread;
+                }, null, false);
+    }
+
     public CancelableSpliterator(Spliterator<T> delegate) {
         this.delegate = delegate;
     }
@@ -82,13 +193,58 @@ public class CancelableSpliterator<T> implements Spliterator<T>, Cancelable,
         return canceled.get();
     }
 
-    public void parEach(Consumer<T> onNext, OnCompletion onCompletion) {
-        long targetBatchSize = (estimateSize() / (ForkJoinPool
-                .getCommonPoolParallelism() * 8));
-        Scheduler.newNewThreadScheduler().scheduleBackgroundTask(it -> {
-            new ParEach<T>(null, this, onNext, targetBatchSize).invoke();
-            onCompletion.onCompleted();
-        }, this);
+    /**
+     * This method returns the shared pool that is used for parallel
+     * Observables unless another pool is given
+     * 
+     * @return shared fork-join pool
+     */
+    public static ForkJoinPool defaultPool() {
+        return DefaultPool.INSTANCE;
+    }
+
+    /**
+     * This method pushes elements to the consumer in parallel using shared
+     * fork-join pool.
+     * 
+     * @param onNext
+     *            - consumer function
+     * @param onCompletion
+     *            - function that is invoked when all elements are pushed
+     * @param demand
+     *            - outstanding demand of subscriber
+     */
+    public void parEach(Consumer<T> onNext, OnCompletion onCompletion,
+            Demand demand) {
+        parEach(defaultPool(), onNext, onCompletion, demand);
+    }
+
+    /**
+     * This method pushes elements to the consumer in parallel using given
+     * fork-join pool. Each task only pushes as many elements as it can acquire
+     * from the demand and parks itself when demand is exhausted until more
+     * data is requested. Tasks stop pushing elements as soon as this
+     * spliterator is canceled.
+     * 
+     * @param pool
+     *            - fork-join pool that runs the tasks
+     * @param onNext
+     *            - consumer function
+     * @param onCompletion
+     *            - function that is invoked when all elements are pushed
+     * @param demand
+     *            - outstanding demand of subscriber
+     */
+    public void parEach(ForkJoinPool pool, Consumer<T> onNext,
+            OnCompletion onCompletion, Demand demand) {
+        long size = estimateSize();
+        long sizeThreshold = size == Long.MAX_VALUE ? 1 : Math.max(1, size
+                / (pool.getParallelism() * LEAVES_PER_THREAD));
+        ParkedTasks<T> parked = new ParkedTasks<>(pool, demand, this);
+        demand.setListener(parked::resume);
+        demand.setCancelListener(parked::clear);
+        pool.execute(new ParEach<T>(null, this, onNext, sizeThreshold,
+                parked, onCompletion));
     }
 
     public Stream<T> getStream() {
@@ -0,0 +1,42 @@
+package com.plexobject.rx.util;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * This class creates streams and fused queues from a collection
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public class CollectionSource<T> implements QueueFuseable<T> {
+    private final Collection<T> collection;
+
+    public CollectionSource(Collection<T> collection) {
+        this.collection = collection;
+    }
+
+    @Override
+    public Stream<T> get() {
+        return collection.stream();
+    }
+
+    @Override
+    public FusedQueue<T> fusedQueue() {
+        final Iterator<T> it = collection.iterator();
+        return new FusedQueue<T>() {
+            @Override
+            public boolean isEmpty() {
+                return !it.hasNext();
+            }
+
+            @Override
+            public T poll() {
+                return it.next();
+            }
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package com.plexobject.rx.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class keeps track of number of elements that subscriber has requested
+ * but not received yet. Producers acquire permits before pushing data and
+ * subscriber adds more permits by requesting data, which notifies the listener
+ * so that a stalled producer can resume. When subscriber unsubscribes, demand
+ * is canceled and producer is notified so that it can release its resources.
+ *
+ * @author Shahzad Bhatti
+ *
+ */
+public class Demand {
+    public static final long UNBOUNDED = Long.MAX_VALUE;
+
+    private final AtomicLong requested;
+    private final AtomicReference<Runnable> cancelListener = new AtomicReference<>();
+    private volatile Runnable listener;
+    private volatile boolean canceled;
+
+    public Demand(long initialRequest) {
+        if (initialRequest < 0) {
+            throw new IllegalArgumentException("Illegal request "
+                    + initialRequest);
+        }
+        this.requested = new AtomicLong(initialRequest);
+    }
+
+    /**
+     * This method adds n more permits and notifies listener
+     *
+     * @param n
+     *            - number of elements requested, must be positive
+     */
+    public void request(long n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Illegal request " + n);
+        }
+        for (;;) {
+            long current = requested.get();
+            if (current == UNBOUNDED) {
+                return;
+            }
+            long next = current + n;
+            if (next < 0) {
+                next = UNBOUNDED;
+            }
+            if (requested.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        Runnable l = listener;
+        if (l != null) {
+            l.run();
+        }
+    }
+
+    /**
+     * This method acquires a single permit if available
+     *
+     * @return true if permit was acquired, false otherwise
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            long current = requested.get();
+            if (current == UNBOUNDED) {
+                return true;
+            }
+            if (current == 0) {
+                return false;
+            }
+            if (requested.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * This method is called by a single producer after it has pushed n
+     * elements without acquiring permits individually
+     *
+     * @param n
+     *            - number of elements pushed
+     */
+    public void produced(long n) {
+        if (requested.get() != UNBOUNDED) {
+            requested.addAndGet(-n);
+        }
+    }
+
+    /**
+     * This method returns outstanding permits
+     *
+     * @return number of elements that can be pushed
+     */
+    public long get() {
+        return requested.get();
+    }
+
+    /**
+     * This method returns true if subscriber never limited its demand
+     *
+     * @return true if unbounded
+     */
+    public boolean isUnbounded() {
+        return requested.get() == UNBOUNDED;
+    }
+
+    /**
+     * This method sets listener that is invoked when more data is requested
+     *
+     * @param listener
+     *            - callback function
+     */
+    public void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * This method sets listener that is invoked once when demand is canceled.
+     * If demand is already canceled then listener is invoked right away.
+     * 
+     * @param cancelListener
+     *            - callback function
+     */
+    public void setCancelListener(Runnable cancelListener) {
+        this.cancelListener.set(cancelListener);
+        if (canceled) {
+            notifyCanceled();
+        }
+    }
+
+    /**
+     * This method is called when subscriber unsubscribes, it removes request
+     * listener and notifies cancel listener
+     */
+    public void cancel() {
+        canceled = true;
+        listener = null;
+        notifyCanceled();
+    }
+
+    private void notifyCanceled() {
+        Runnable l = cancelListener.getAndSet(null);
+        if (l != null) {
+            l.run();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.plexobject.rx.util;
+
+/**
+ * This interface allows a consumer to pull elements of a source directly
+ * instead of going through a stream or spliterator. It's only used by a single
+ * consumer thread.
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public interface FusedQueue<T> {
+    /**
+     * This method returns true if there are no more elements
+     * 
+     * @return true if source is exhausted
+     */
+    boolean isEmpty();
+
+    /**
+     * This method returns next element, it should only be called when isEmpty
+     * returns false
+     * 
+     * @return next element, which may be null if source contains null
+     */
+    T poll();
+}
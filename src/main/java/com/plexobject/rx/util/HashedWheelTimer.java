@@ -0,0 +1,292 @@
+package com.plexobject.rx.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.plexobject.rx.Cancelable;
+import com.plexobject.rx.Disposable;
+
+/**
+ * This class runs tasks after a delay using a hashed wheel of buckets. The
+ * wheel advances one bucket per tick and runs timeouts of that bucket that
+ * are due in current round. Adding or canceling a timeout only adds it to a
+ * lock-free queue that is drained by the timer thread at the next tick, so
+ * both are O(1) regardless of number of pending timeouts. The precision of
+ * the timer is limited to the tick duration and a timeout never runs before
+ * its delay has passed. An exception thrown by a task is logged and doesn't
+ * stop the timer.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public class HashedWheelTimer implements Disposable {
+    private static final Logger logger = LoggerFactory
+            .getLogger(HashedWheelTimer.class);
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long tickNanos;
+    private final long startTime;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final Thread workerThread;
+    private volatile boolean shutdown;
+    private long tick;
+
+    /**
+     * This class keeps state of a task that was added to the timer
+     */
+    public final class Timeout implements Cancelable {
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+        // following fields are only accessed by the timer thread
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout prev;
+        private Bucket bucket;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * This method cancels the timeout so that its task is not run. The
+         * timeout is removed from the wheel at next tick.
+         */
+        @Override
+        public void cancel() {
+            if (state.compareAndSet(INIT, CANCELLED)) {
+                pendingCount.decrementAndGet();
+                cancelledTimeouts.add(this);
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * This method returns true if the task has been run
+         * 
+         * @return true if expired
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED)) {
+                return;
+            }
+            pendingCount.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable e) {
+                logger.error("Failed to run timer task " + task, e);
+            }
+        }
+    }
+
+    /**
+     * This class keeps doubly linked list of timeouts that hash to the same
+     * slot of the wheel
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private Timeout remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            return next;
+        }
+
+        private void expire() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                if (timeout.isCanceled()) {
+                    timeout = remove(timeout);
+                } else if (timeout.remainingRounds <= 0) {
+                    Timeout next = remove(timeout);
+                    timeout.expire();
+                    timeout = next;
+                } else {
+                    timeout.remainingRounds--;
+                    timeout = timeout.next;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param tickDuration
+     *            - duration of a tick, which is precision of the timer
+     * @param unit
+     *            - time unit of tick duration
+     * @param ticksPerWheel
+     *            - number of buckets, rounded up to power of two
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Illegal tick duration "
+                    + tickDuration);
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("Illegal ticks per wheel "
+                    + ticksPerWheel);
+        }
+        int size = SpscArrayQueue.roundToPowerOfTwo(ticksPerWheel);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.startTime = System.nanoTime();
+        this.workerThread = new Thread(this::run, "hashed-wheel-timer-"
+                + threadNumber.incrementAndGet());
+        this.workerThread.setDaemon(true);
+        this.workerThread.start();
+    }
+
+    /**
+     * This method schedules given task to run once after given delay
+     * 
+     * @param task
+     *            - task to run
+     * @param delay
+     *            - delay before running the task
+     * @param unit
+     *            - time unit of delay
+     * @return handle that can be used to cancel the task
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (shutdown) {
+            throw new IllegalStateException("Timer is already shutdown");
+        }
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(0, delay))
+                - startTime;
+        Timeout timeout = new Timeout(task, deadline);
+        pendingCount.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * This method returns number of timeouts that were neither run nor
+     * canceled
+     * 
+     * @return number of pending timeouts
+     */
+    public long getPendingTimeouts() {
+        return pendingCount.get();
+    }
+
+    /**
+     * This method stops the timer thread, pending tasks are not run
+     */
+    @Override
+    public void dispose() {
+        shutdown = true;
+        workerThread.interrupt();
+    }
+
+    private void run() {
+        while (!shutdown) {
+            if (!waitForNextTick()) {
+                break;
+            }
+            removeCancelled();
+            transferPending();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    /**
+     * This method sleeps until the end of current tick
+     * 
+     * @return false if timer was shutdown
+     */
+    private boolean waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        for (;;) {
+            long now = System.nanoTime() - startTime;
+            long sleepNanos = deadline - now;
+            if (sleepNanos <= 0) {
+                return true;
+            }
+            LockSupport.parkNanos(this, sleepNanos);
+            if (shutdown) {
+                return false;
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (timeout.isCanceled()) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+}
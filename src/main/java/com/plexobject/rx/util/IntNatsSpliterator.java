@@ -0,0 +1,73 @@
+package com.plexobject.rx.util;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This is a helper class for creating natural numbers up to Integer.MAX_VALUE
+ * without boxing. It's split arithmetically in halves.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public class IntNatsSpliterator implements Spliterator.OfInt {
+    private long number;
+    private final long fence;
+
+    public IntNatsSpliterator(int from) {
+        this(from, Integer.MAX_VALUE + 1L);
+    }
+
+    private IntNatsSpliterator(long from, long fence) {
+        this.number = from;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+        if (number < fence) {
+            action.accept((int) number++);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+        long mid = number + ((fence - number) >>> 1);
+        if (mid <= number) {
+            return null;
+        }
+        Spliterator.OfInt prefix = new IntNatsSpliterator(number, mid);
+        number = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - number;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.IMMUTABLE | Spliterator.ORDERED
+                | Spliterator.SIZED | Spliterator.SUBSIZED
+                | Spliterator.NONNULL | Spliterator.DISTINCT
+                | Spliterator.SORTED;
+    }
+
+    /**
+     * Natural numbers are sorted in natural order
+     */
+    @Override
+    public Comparator<? super Integer> getComparator() {
+        return null;
+    }
+
+    public IntStream getStream() {
+        return StreamSupport.intStream(this, false);
+    }
+}
@@ -0,0 +1,77 @@
+package com.plexobject.rx.util;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This is a helper class for creating natural numbers below Long.MAX_VALUE
+ * without boxing. It's split arithmetically in halves and it's only sized when
+ * number of remaining elements fits in a long.
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public class LongNatsSpliterator implements Spliterator.OfLong {
+    private long number;
+    private final long fence;
+
+    public LongNatsSpliterator(long from) {
+        this(from, Long.MAX_VALUE);
+    }
+
+    private LongNatsSpliterator(long from, long fence) {
+        this.number = from;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        if (number < fence) {
+            action.accept(number++);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+        // unsigned shift halves the distance even when it overflows a long
+        long mid = number + ((fence - number) >>> 1);
+        if (mid <= number) {
+            return null;
+        }
+        Spliterator.OfLong prefix = new LongNatsSpliterator(number, mid);
+        number = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = fence - number;
+        return size < 0 ? Long.MAX_VALUE : size;
+    }
+
+    @Override
+    public int characteristics() {
+        int sized = fence - number < 0 ? 0 : Spliterator.SIZED
+                | Spliterator.SUBSIZED;
+        return Spliterator.IMMUTABLE | Spliterator.ORDERED
+                | Spliterator.NONNULL | Spliterator.DISTINCT
+                | Spliterator.SORTED | sized;
+    }
+
+    /**
+     * Natural numbers are sorted in natural order
+     */
+    @Override
+    public Comparator<? super Long> getComparator() {
+        return null;
+    }
+
+    public LongStream getStream() {
+        return StreamSupport.longStream(this, false);
+    }
+}
@@ -0,0 +1,73 @@
+package com.plexobject.rx.util;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This is a lock-free ring buffer for multiple producers and a single consumer
+ * thread. Producers claim a slot by incrementing producer index using
+ * compare-and-set and then publish the element in the claimed slot.
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of elements
+ */
+public class MpscArrayQueue<T> implements BoundedQueue<T> {
+    private final AtomicReferenceArray<T> buffer;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    public MpscArrayQueue(int capacity) {
+        int size = SpscArrayQueue.roundToPowerOfTwo(capacity);
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public boolean offer(T obj) {
+        Objects.requireNonNull(obj);
+        final int capacity = mask + 1;
+        for (;;) {
+            final long index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(index, index + 1)) {
+                buffer.lazySet((int) index & mask, obj);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public T poll() {
+        final long index = consumerIndex.get();
+        final int offset = (int) index & mask;
+        T obj = buffer.get(offset);
+        if (obj == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+            // slot is claimed by a producer that hasn't published it yet
+            while ((obj = buffer.get(offset)) == null) {
+                Thread.yield();
+            }
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return obj;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return producerIndex.get() == consumerIndex.get();
+    }
+
+    @Override
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -1,5 +1,6 @@
 package com.plexobject.rx.util;
 
+import java.util.Comparator;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -8,37 +9,65 @@ import java.util.stream.StreamSupport;
 import com.plexobject.rx.Streamable;
 
 /**
- * This is a helper class for creating infinite natural numbers
+ * This is a helper class for creating natural numbers up to Integer.MAX_VALUE.
+ * It's split arithmetically in halves so that parallel streams of natural
+ * numbers are processed by all cores.
  * 
  * @author Shahzad Bhatti
  *
  */
 public class NatsSpliterator implements Spliterator<Integer>, Streamable<Integer> {
-    private int number;
+    private long number;
+    private final long fence;
 
     public NatsSpliterator(int from) {
+        this(from, Integer.MAX_VALUE + 1L);
+    }
+
+    private NatsSpliterator(long from, long fence) {
         this.number = from;
+        this.fence = fence;
     }
 
     @Override
     public boolean tryAdvance(Consumer<? super Integer> action) {
-        action.accept(number++);
-        return true;
+        if (number < fence) {
+            action.accept((int) number++);
+            return true;
+        }
+        return false;
     }
 
     @Override
     public Spliterator<Integer> trySplit() {
-        return null;
+        long mid = number + ((fence - number) >>> 1);
+        if (mid <= number) {
+            return null;
+        }
+        Spliterator<Integer> prefix = new NatsSpliterator(number, mid);
+        number = mid;
+        return prefix;
     }
 
     @Override
     public long estimateSize() {
-        return Integer.MAX_VALUE;
+        return fence - number;
     }
 
     @Override
     public int characteristics() {
-        return Spliterator.IMMUTABLE;
+        return Spliterator.IMMUTABLE | Spliterator.ORDERED
+                | Spliterator.SIZED | Spliterator.SUBSIZED
+                | Spliterator.NONNULL | Spliterator.DISTINCT
+                | Spliterator.SORTED;
+    }
+
+    /**
+     * Natural numbers are sorted in natural order
+     */
+    @Override
+    public Comparator<? super Integer> getComparator() {
+        return null;
     }
 
     public Stream<Integer> getStream() {
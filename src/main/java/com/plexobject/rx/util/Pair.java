@@ -0,0 +1,67 @@
+package com.plexobject.rx.util;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * This class stores two objects of given types
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <A>
+ *            type of first object
+ * @param <B>
+ *            type of second object
+ */
+public final class Pair<A, B> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final A first;
+    private final B second;
+
+    public Pair(A first, B second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * This method creates a pair, it can be used as a function for zip
+     * 
+     * @param first
+     *            - first object
+     * @param second
+     *            - second object
+     * @return instance of Pair
+     */
+    public static <A, B> Pair<A, B> of(A first, B second) {
+        return new Pair<A, B>(first, second);
+    }
+
+    public A getFirst() {
+        return first;
+    }
+
+    public B getSecond() {
+        return second;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(first) + Objects.hashCode(second);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof Pair))
+            return false;
+        Pair<?, ?> other = (Pair<?, ?>) obj;
+        return Objects.equals(first, other.first)
+                && Objects.equals(second, other.second);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + first + ", " + second + ")";
+    }
+}
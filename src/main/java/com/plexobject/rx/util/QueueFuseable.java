@@ -0,0 +1,23 @@
+package com.plexobject.rx.util;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * This interface is implemented by sources that can create a new stream for
+ * each subscription and can also be polled directly without a stream, so that
+ * subscribers can skip overhead of stream when pushing data sequentially.
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of subscription data
+ */
+public interface QueueFuseable<T> extends Supplier<Stream<T>> {
+    /**
+     * This method creates a new queue that polls elements of this source
+     * 
+     * @return instance of FusedQueue
+     */
+    FusedQueue<T> fusedQueue();
+}
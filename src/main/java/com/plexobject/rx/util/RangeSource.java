@@ -0,0 +1,48 @@
+package com.plexobject.rx.util;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * This class creates streams and fused queues for a range of numbers
+ * 
+ * @author Shahzad Bhatti
+ *
+ */
+public class RangeSource implements QueueFuseable<Integer> {
+    private final int from;
+    private final int to;
+
+    /**
+     * @param from
+     *            - starting range of number
+     * @param to
+     *            - ending range of number exclusively
+     */
+    public RangeSource(int from, int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public Stream<Integer> get() {
+        return IntStream.range(from, to).boxed();
+    }
+
+    @Override
+    public FusedQueue<Integer> fusedQueue() {
+        return new FusedQueue<Integer>() {
+            private int number = from;
+
+            @Override
+            public boolean isEmpty() {
+                return number >= to;
+            }
+
+            @Override
+            public Integer poll() {
+                return number++;
+            }
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.plexobject.rx.util;
 
 import java.util.Iterator;
 import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -9,7 +10,10 @@ import java.util.stream.StreamSupport;
 import com.plexobject.rx.Streamable;
 
 /**
- * This is helper class that allows creating spliterator from an iterator
+ * This is helper class that allows creating spliterator from an iterator.
+ * Iterator cannot be split so elements are copied into arrays of increasing
+ * size when the spliterator is split, which can be processed in parallel
+ * while remaining elements are read from the iterator.
  * 
  * @author Shahzad Bhatti
  *
@@ -17,7 +21,11 @@ import com.plexobject.rx.Streamable;
  *            type of subscription data
  */
 public class SpliteratorAdapter<T> implements Spliterator<T>, Streamable<T> {
+    static final int BATCH_UNIT = 1 << 10;
+    static final int MAX_BATCH = 1 << 25;
+
     private final Iterator<T> it;
+    private int batch;
 
     public SpliteratorAdapter(Iterator<T> it) {
         this.it = it;
@@ -27,23 +35,48 @@ public class SpliteratorAdapter<T> implements Spliterator<T>, Streamable<T> {
     public boolean tryAdvance(Consumer<? super T> action) {
         if (it.hasNext()) {
             action.accept(it.next());
+            return true;
         }
-        return it.hasNext();
+        return false;
     }
 
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        it.forEachRemaining(action);
+    }
+
+    /**
+     * This method copies next batch of elements into an array, each batch is
+     * larger than the previous one by BATCH_UNIT so that the cost of copying
+     * is amortized for large iterators
+     */
     @Override
     public Spliterator<T> trySplit() {
-        return null;
+        if (!it.hasNext()) {
+            return null;
+        }
+        int size = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+        Object[] array = new Object[size];
+        int count = 0;
+        do {
+            array[count++] = it.next();
+        } while (count < size && it.hasNext());
+        batch = count;
+        return Spliterators.spliterator(array, 0, count,
+                Spliterator.ORDERED);
     }
 
+    /**
+     * Size of iterator is not known
+     */
     @Override
     public long estimateSize() {
-        return Integer.MAX_VALUE;
+        return Long.MAX_VALUE;
     }
 
     @Override
     public int characteristics() {
-        return Spliterator.IMMUTABLE;
+        return Spliterator.IMMUTABLE | Spliterator.ORDERED;
     }
 
     public Stream<T> getStream() {
@@ -0,0 +1,79 @@
+package com.plexobject.rx.util;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This is a lock-free ring buffer for a single producer and a single consumer
+ * thread. Producer and consumer only check their own slot in the array, so
+ * they don't contend on shared indexes.
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <T>
+ *            type of elements
+ */
+public class SpscArrayQueue<T> implements BoundedQueue<T> {
+    private final AtomicReferenceArray<T> buffer;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    public SpscArrayQueue(int capacity) {
+        int size = roundToPowerOfTwo(capacity);
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public boolean offer(T obj) {
+        Objects.requireNonNull(obj);
+        final long index = producerIndex.get();
+        final int offset = (int) index & mask;
+        if (buffer.get(offset) != null) {
+            return false;
+        }
+        buffer.lazySet(offset, obj);
+        producerIndex.lazySet(index + 1);
+        return true;
+    }
+
+    @Override
+    public T poll() {
+        final long index = consumerIndex.get();
+        final int offset = (int) index & mask;
+        final T obj = buffer.get(offset);
+        if (obj == null) {
+            return null;
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return obj;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return producerIndex.get() == consumerIndex.get();
+    }
+
+    @Override
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * This method rounds given capacity up to the next power of two so that
+     * array index can be computed with a mask
+     * 
+     * @param capacity
+     *            - positive capacity
+     * @return capacity rounded up to power of two
+     */
+    public static int roundToPowerOfTwo(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Illegal capacity " + capacity);
+        }
+        return 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1));
+    }
+}
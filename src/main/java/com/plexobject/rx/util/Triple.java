@@ -0,0 +1,79 @@
+package com.plexobject.rx.util;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * This class stores three objects of given types
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <A>
+ *            type of first object
+ * @param <B>
+ *            type of second object
+ * @param <C>
+ *            type of third object
+ */
+public final class Triple<A, B, C> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final A first;
+    private final B second;
+    private final C third;
+
+    public Triple(A first, B second, C third) {
+        this.first = first;
+        this.second = second;
+        this.third = third;
+    }
+
+    /**
+     * This method creates a triple
+     * 
+     * @param first
+     *            - first object
+     * @param second
+     *            - second object
+     * @param third
+     *            - third object
+     * @return instance of Triple
+     */
+    public static <A, B, C> Triple<A, B, C> of(A first, B second, C third) {
+        return new Triple<A, B, C>(first, second, third);
+    }
+
+    public A getFirst() {
+        return first;
+    }
+
+    public B getSecond() {
+        return second;
+    }
+
+    public C getThird() {
+        return third;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Objects.hashCode(first) + Objects.hashCode(second))
+                + Objects.hashCode(third);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof Triple))
+            return false;
+        Triple<?, ?, ?> other = (Triple<?, ?, ?>) obj;
+        return Objects.equals(first, other.first)
+                && Objects.equals(second, other.second)
+                && Objects.equals(third, other.third);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + first + ", " + second + ", " + third + ")";
+    }
+}
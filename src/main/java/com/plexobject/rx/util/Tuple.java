@@ -1,16 +1,17 @@
 package com.plexobject.rx.util;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Objects;
 import java.util.function.IntFunction;
 
 /**
- * The tuple class stores objects of different types
+ * The tuple class stores objects of different types. Objects are kept in a
+ * flat array, collections, arrays and tuples that are passed to the
+ * constructor are flattened into the array. Use Pair or Triple when the types
+ * and number of objects are known.
  * 
  * @author Shahzad Bhatti
  *
@@ -18,33 +19,64 @@ import java.util.function.IntFunction;
 public class Tuple implements Serializable, Iterable<Object>,
         IntFunction<Object> {
     private static final long serialVersionUID = 1L;
-    private final List<Object> objects = new ArrayList<>();
+    private final Object[] objects;
 
-    @SuppressWarnings("unchecked")
     public Tuple(Object... objs) {
         Objects.requireNonNull(objs);
+        int size = 0;
+        boolean flat = true;
+        for (Object o : objs) {
+            int n = sizeOf(o);
+            if (n < 0) {
+                size++;
+            } else {
+                size += n;
+                flat = false;
+            }
+        }
+        if (flat) {
+            this.objects = objs.clone();
+            return;
+        }
+        this.objects = new Object[size];
+        int i = 0;
         for (Object o : objs) {
             if (o instanceof Collection) {
-                Collection<Object> collection = (Collection<Object>) o;
-                this.objects.addAll(collection);
-            } else if (o.getClass().isArray()) {
+                for (Object e : (Collection<?>) o) {
+                    objects[i++] = e;
+                }
+            } else if (o instanceof Object[]) {
                 Object[] arr = (Object[]) o;
-                this.objects.addAll(Arrays.asList(arr));
+                System.arraycopy(arr, 0, objects, i, arr.length);
+                i += arr.length;
             } else if (o instanceof Tuple) {
-                Tuple tuple = (Tuple) o;
-                this.objects.addAll(tuple.objects);
+                Object[] arr = ((Tuple) o).objects;
+                System.arraycopy(arr, 0, objects, i, arr.length);
+                i += arr.length;
             } else {
-                this.objects.add(o);
+                objects[i++] = o;
             }
         }
     }
 
+    /**
+     * This method returns number of objects that are added for given argument
+     * of constructor or -1 if it's added as a single object
+     */
+    private static int sizeOf(Object o) {
+        if (o instanceof Collection) {
+            return ((Collection<?>) o).size();
+        } else if (o instanceof Object[]) {
+            return ((Object[]) o).length;
+        } else if (o instanceof Tuple) {
+            return ((Tuple) o).objects.length;
+        }
+        return -1;
+    }
+
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((objects == null) ? 0 : objects.hashCode());
-        return result;
+        return 31 + Arrays.hashCode(objects);
     }
 
     @Override
@@ -56,12 +88,7 @@ public class Tuple implements Serializable, Iterable<Object>,
         if (getClass() != obj.getClass())
             return false;
         Tuple other = (Tuple) obj;
-        if (objects == null) {
-            if (other.objects != null)
-                return false;
-        } else if (!objects.equals(other.objects))
-            return false;
-        return true;
+        return Arrays.equals(objects, other.objects);
     }
 
     public <T> T getFirst() {
@@ -73,21 +100,30 @@ public class Tuple implements Serializable, Iterable<Object>,
     }
 
     public <T> T getThird() {
-        return get(1);
+        return get(2);
     }
 
     public <T> T getLast() {
-        return get(objects.size() - 1);
+        return get(objects.length - 1);
     }
 
     @SuppressWarnings("unchecked")
     public <T> T get(int index) {
-        return (T) objects.get(index);
+        return (T) objects[index];
+    }
+
+    /**
+     * This method returns number of objects in the tuple
+     * 
+     * @return size of tuple
+     */
+    public int size() {
+        return objects.length;
     }
 
     @Override
     public Iterator<Object> iterator() {
-        return objects.iterator();
+        return Arrays.asList(objects).iterator();
     }
 
     @Override
@@ -97,7 +133,7 @@ public class Tuple implements Serializable, Iterable<Object>,
 
     @Override
     public String toString() {
-        return objects.toString();
+        return Arrays.toString(objects);
     }
 
 }
@@ -6,62 +6,104 @@ import java.util.function.Consumer;
 
 /**
  * This class implements spliterator interface for tuple while taking two input
- * spliterators.
- * 
+ * spliterators. When both input spliterators know the exact size of their
+ * splits, it's split by splitting both inputs so that tuples of a split are
+ * created from elements at the same positions.
+ *
  * @author Shahzad Bhatti
  *
  */
 public class TupleSpliterator<A, B> extends CancelableSpliterator<Tuple> {
     public TupleSpliterator(Spliterator<A> delegate1, Spliterator<B> delegate2) {
-        super(new Spliterator<Tuple>() {
+        super(new TupleZipSpliterator<A, B>(Objects.requireNonNull(delegate1),
+                Objects.requireNonNull(delegate2)));
+    }
+
+    /**
+     * This class pairs elements of two spliterators, if one of them has more
+     * elements then remaining elements are added as single tuples
+     */
+    private static class TupleZipSpliterator<A, B> implements
+            Spliterator<Tuple> {
+        private final Spliterator<A> delegate1;
+        private final Spliterator<B> delegate2;
 
-            @Override
-            public boolean tryAdvance(Consumer<? super Tuple> action) {
-                if (delegate1.estimateSize() > delegate2.estimateSize()) {
-                    return delegate1.tryAdvance(o1 -> {
-                        if (delegate2.tryAdvance(o2 -> {
-                            Tuple tuple = new Tuple(o1, o2);
-                            action.accept(tuple);
-                        })) {
-                            // already called action
-                        } else {
-                            Tuple tuple = new Tuple(o1);
-                            action.accept(tuple);
-                        }
-                    });
-                } else {
-                    return delegate2.tryAdvance(o2 -> {
-                        if (delegate1.tryAdvance(o1 -> {
-                            Tuple tuple = new Tuple(o1, o2);
-                            action.accept(tuple);
-                        })) {
-                            // already called action
-                        } else {
-                            Tuple tuple = new Tuple(o2);
-                            action.accept(tuple);
-                        }
-                    });
-                }
+        private TupleZipSpliterator(Spliterator<A> delegate1,
+                Spliterator<B> delegate2) {
+            this.delegate1 = delegate1;
+            this.delegate2 = delegate2;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Tuple> action) {
+            if (delegate1.estimateSize() > delegate2.estimateSize()) {
+                return delegate1.tryAdvance(o1 -> {
+                    if (delegate2.tryAdvance(o2 -> {
+                        Tuple tuple = new Tuple(o1, o2);
+                        action.accept(tuple);
+                    })) {
+                        // already called action
+                    } else {
+                        Tuple tuple = new Tuple(o1);
+                        action.accept(tuple);
+                    }
+                });
+            } else {
+                return delegate2.tryAdvance(o2 -> {
+                    if (delegate1.tryAdvance(o1 -> {
+                        Tuple tuple = new Tuple(o1, o2);
+                        action.accept(tuple);
+                    })) {
+                        // already called action
+                    } else {
+                        Tuple tuple = new Tuple(o2);
+                        action.accept(tuple);
+                    }
+                });
             }
+        }
 
-            @Override
-            public Spliterator<Tuple> trySplit() {
+        /**
+         * This method splits both spliterators. If their prefixes have
+         * different sizes then the shorter prefix is extended with elements
+         * copied from the rest of its spliterator so that remaining elements
+         * of both spliterators still start at the same position.
+         */
+        @Override
+        public Spliterator<Tuple> trySplit() {
+            if (!ZipSpliterator.isSplittable(delegate1, delegate2)) {
                 return null;
             }
-
-            @Override
-            public long estimateSize() {
-                return Math.max(delegate1.estimateSize(),
-                        delegate2.estimateSize());
+            Spliterator<A> prefix1 = delegate1.trySplit();
+            Spliterator<B> prefix2 = delegate2.trySplit();
+            long size1 = prefix1 == null ? 0 : prefix1.getExactSizeIfKnown();
+            long size2 = prefix2 == null ? 0 : prefix2.getExactSizeIfKnown();
+            if (size1 == 0 && size2 == 0) {
+                return null;
             }
-
-            @Override
-            public int characteristics() {
-                return delegate1.characteristics()
-                        & delegate2.characteristics();
+            if (size1 < size2) {
+                prefix1 = ZipSpliterator.extend(prefix1, delegate1, size2
+                        - size1);
+            } else if (size2 < size1) {
+                prefix2 = ZipSpliterator.extend(prefix2, delegate2, size1
+                        - size2);
             }
-        });
-        Objects.requireNonNull(delegate1);
-        Objects.requireNonNull(delegate2);
+            return new TupleZipSpliterator<A, B>(prefix1, prefix2);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.max(delegate1.estimateSize(),
+                    delegate2.estimateSize());
+        }
+
+        @Override
+        public int characteristics() {
+            return delegate1.characteristics()
+                    & delegate2.characteristics()
+                    & (Spliterator.ORDERED | Spliterator.IMMUTABLE
+                    | ZipSpliterator.SPLITTABLE)
+                    | Spliterator.NONNULL;
+        }
     }
 }
@@ -0,0 +1,120 @@
+package com.plexobject.rx.util;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.plexobject.rx.Streamable;
+
+/**
+ * This class combines elements at the same position of two spliterators using
+ * given function without creating an intermediate tuple. It stops when either
+ * spliterator is exhausted. When both input spliterators know the exact size
+ * of their splits, it's split by splitting both inputs.
+ * 
+ * @author Shahzad Bhatti
+ *
+ * @param <A>
+ *            type of first spliterator
+ * @param <B>
+ *            type of second spliterator
+ * @param <R>
+ *            type of combined elements
+ */
+public class ZipSpliterator<A, B, R> implements Spliterator<R>, Streamable<R> {
+    static final int SPLITTABLE = Spliterator.SIZED | Spliterator.SUBSIZED;
+
+    private final Spliterator<A> delegate1;
+    private final Spliterator<B> delegate2;
+    private final BiFunction<? super A, ? super B, ? extends R> zipper;
+    // element of first spliterator while advancing the second one
+    private A current;
+
+    public ZipSpliterator(Spliterator<A> delegate1, Spliterator<B> delegate2,
+            BiFunction<? super A, ? super B, ? extends R> zipper) {
+        this.delegate1 = Objects.requireNonNull(delegate1);
+        this.delegate2 = Objects.requireNonNull(delegate2);
+        this.zipper = Objects.requireNonNull(zipper);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        if (!delegate1.tryAdvance(o1 -> current = o1)) {
+            return false;
+        }
+        A o1 = current;
+        current = null;
+        return delegate2.tryAdvance(o2 -> action.accept(zipper.apply(o1, o2)));
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        if (!isSplittable(delegate1, delegate2)) {
+            return null;
+        }
+        Spliterator<A> prefix1 = delegate1.trySplit();
+        Spliterator<B> prefix2 = delegate2.trySplit();
+        long size1 = prefix1 == null ? 0 : prefix1.getExactSizeIfKnown();
+        long size2 = prefix2 == null ? 0 : prefix2.getExactSizeIfKnown();
+        if (size1 == 0 && size2 == 0) {
+            return null;
+        }
+        if (size1 < size2) {
+            prefix1 = extend(prefix1, delegate1, size2 - size1);
+        } else if (size2 < size1) {
+            prefix2 = extend(prefix2, delegate2, size1 - size2);
+        }
+        return new ZipSpliterator<A, B, R>(prefix1, prefix2, zipper);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.min(delegate1.estimateSize(), delegate2.estimateSize());
+    }
+
+    @Override
+    public int characteristics() {
+        return delegate1.characteristics() & delegate2.characteristics()
+                & (Spliterator.ORDERED | Spliterator.IMMUTABLE | SPLITTABLE);
+    }
+
+    public Stream<R> getStream() {
+        return StreamSupport.stream(this, false);
+    }
+
+    /**
+     * This method returns true if exact size of both spliterators and their
+     * splits is known
+     */
+    static boolean isSplittable(Spliterator<?> delegate1,
+            Spliterator<?> delegate2) {
+        return (delegate1.characteristics() & SPLITTABLE) == SPLITTABLE
+                && (delegate2.characteristics() & SPLITTABLE) == SPLITTABLE;
+    }
+
+    /**
+     * This method copies up to n elements from the rest of a spliterator and
+     * appends them to its prefix so that prefixes of two spliterators have
+     * the same size after splitting
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Spliterator<T> extend(Spliterator<T> prefix,
+            Spliterator<T> rest, long n) {
+        Object[] array = new Object[(int) n];
+        int[] count = new int[1];
+        while (count[0] < n
+                && rest.tryAdvance(obj -> array[count[0]++] = obj)) {
+        }
+        Spliterator<T> copied = (Spliterator<T>) Spliterators.spliterator(
+                array, 0, count[0], Spliterator.ORDERED);
+        if (prefix == null) {
+            return copied;
+        }
+        return Stream.concat(StreamSupport.stream(prefix, false),
+                StreamSupport.stream(copied, false)).spliterator();
+    }
+}
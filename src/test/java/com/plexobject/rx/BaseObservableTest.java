@@ -88,25 +88,25 @@ public class BaseObservableTest {
                 if (onNextWork != null) {
                     onNextWork.accept(v);
                 }
-                latch.countDown();
                 onNext.incrementAndGet();
-            }, error -> {
                 latch.countDown();
+            }, error -> {
                 onError.set(error);
-            }, () -> {
                 latch.countDown();
+            }, () -> {
                 onCompleted.incrementAndGet();
+                latch.countDown();
             });
         } else {
             return observable.subscribe(v -> {
                 if (onNextWork != null) {
                     onNextWork.accept(v);
                 }
-                latch.countDown();
                 onNext.incrementAndGet();
-            }, error -> {
                 latch.countDown();
+            }, error -> {
                 onError.set(error);
+                latch.countDown();
             });
         }
     }
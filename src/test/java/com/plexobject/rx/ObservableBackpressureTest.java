@@ -0,0 +1,97 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.plexobject.rx.scheduler.Scheduler;
+
+public class ObservableBackpressureTest extends BaseObservableTest {
+    @Test
+    public void testSubscribeWithInitialRequest() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 100).subscribeOn(
+                Scheduler.newNewThreadScheduler());
+        initLatch(10);
+
+        Subscription subscription = observable.subscribe(v -> {
+            onNext.incrementAndGet();
+            latch.countDown();
+        }, error -> onError.set(error), () -> onCompleted.incrementAndGet(),
+                10);
+        latch.await(100, TimeUnit.MILLISECONDS);
+        Thread.sleep(10);
+
+        assertEquals(10, onNext.get());
+        assertEquals(0, onCompleted.get());
+
+        latch = new CountDownLatch(90);
+        subscription.request(90);
+        latch.await(100, TimeUnit.MILLISECONDS);
+        Thread.sleep(10);
+
+        assertEquals(100, onNext.get());
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeRequestingOneByOne() throws Exception {
+        Observable<Integer> observable = Observable.integers(0).limit(1000);
+        AtomicReference<Subscription> subscription = new AtomicReference<>();
+        initLatch(1);
+
+        subscription.set(observable.subscribe(v -> {
+            onNext.incrementAndGet();
+            subscription.get().request(1);
+        }, error -> onError.set(error), () -> {
+            onCompleted.incrementAndGet();
+            latch.countDown();
+        }, 0));
+        Thread.sleep(10);
+        assertEquals(0, onNext.get());
+
+        subscription.get().request(1);
+        latch.await(500, TimeUnit.MILLISECONDS);
+
+        assertEquals(1000, onNext.get());
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeParallelWithInitialRequest() throws Exception {
+        Observable<Integer> observable = Observable.range(1, 101).parallel();
+        initLatch(10);
+
+        Subscription subscription = observable.subscribe(v -> {
+            onNext.incrementAndGet();
+            latch.countDown();
+        }, error -> onError.set(error), () -> onCompleted.incrementAndGet(),
+                10);
+        latch.await(100, TimeUnit.MILLISECONDS);
+        Thread.sleep(10);
+
+        assertEquals(10, onNext.get());
+        assertEquals(0, onCompleted.get());
+
+        subscription.request(90);
+        Thread.sleep(100);
+
+        assertEquals(100, onNext.get());
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequestWithInvalidCount() throws Exception {
+        Subscription subscription = Observable.never().subscribe(v -> {
+        }, error -> {
+        });
+        subscription.request(0);
+    }
+}
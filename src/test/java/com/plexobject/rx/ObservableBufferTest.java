@@ -0,0 +1,194 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class ObservableBufferTest extends BaseObservableTest {
+    @Test
+    public void testBufferWithCount() throws Exception {
+        List<List<Integer>> lists = Observable.range(0, 10).buffer(3)
+                .toList();
+
+        assertEquals(Arrays.asList(Arrays.asList(0, 1, 2),
+                Arrays.asList(3, 4, 5), Arrays.asList(6, 7, 8),
+                Arrays.asList(9)), lists);
+    }
+
+    @Test
+    public void testBufferLargeSource() throws Exception {
+        List<List<Integer>> lists = Observable.range(0, 100000).buffer(1000)
+                .toList();
+
+        assertEquals(100, lists.size());
+        assertEquals(IntStream.range(0, 100000).boxed()
+                .collect(Collectors.toList()), lists.stream()
+                .flatMap(List::stream).collect(Collectors.toList()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBufferWithIllegalCount() throws Exception {
+        Observable.range(0, 10).buffer(0);
+    }
+
+    @Test
+    public void testBufferWithTimespan() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        List<List<Integer>> lists = Collections
+                .synchronizedList(new ArrayList<>());
+        initLatch(2 + 1); // N*onNext + onCompleted
+        setupCallback(feed.buffer(50, TimeUnit.MILLISECONDS), lists::add,
+                true);
+        feed.onNext(1);
+        feed.onNext(2);
+        Thread.sleep(120);
+        feed.onNext(3);
+        feed.onCompleted();
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3)),
+                lists);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testBufferWithTimespanAndMaxCount() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        List<List<Integer>> lists = Collections
+                .synchronizedList(new ArrayList<>());
+        initLatch(1);
+        setupCallback(feed.buffer(1, TimeUnit.SECONDS, 2), lists::add, true);
+        feed.onNext(1);
+        feed.onNext(2);
+        feed.onNext(3);
+        latch.await(500, TimeUnit.MILLISECONDS);
+
+        // first list is full before the timespan ends
+        assertEquals(Arrays.asList(Arrays.asList(1, 2)), lists);
+    }
+
+    @Test
+    public void testBufferWithDemand() throws Exception {
+        List<List<Integer>> lists = Collections
+                .synchronizedList(new ArrayList<>());
+        AtomicInteger completed = new AtomicInteger();
+        Subscription subscription = Observable.range(0, 100).buffer(10)
+                .subscribe(lists::add, error -> {
+                }, completed::incrementAndGet, 2);
+        Thread.sleep(100);
+        assertEquals(2, lists.size());
+        assertEquals(0, completed.get());
+
+        subscription.request(8);
+        Thread.sleep(100);
+        assertEquals(10, lists.size());
+        assertEquals(1, completed.get());
+    }
+
+    @Test
+    public void testBufferWithError() throws Exception {
+        Observable<List<Integer>> observable = Observable.<Integer> create(
+                observer -> {
+                    observer.onNext(1);
+                    observer.onError(new IllegalStateException());
+                }).buffer(10);
+
+        initLatch(1); // latch for error
+        setupCallback(observable, null, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        // partial list is dropped on error
+        assertEquals(0, onNext.get());
+        assertTrue(onError.get() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testWindowWithCount() throws Exception {
+        List<List<Integer>> windows = new ArrayList<>();
+        for (Observable<Integer> window : Observable.range(0, 5).window(2)
+                .toList()) {
+            windows.add(window.toList());
+        }
+
+        assertEquals(Arrays.asList(Arrays.asList(0, 1), Arrays.asList(2, 3),
+                Arrays.asList(4)), windows);
+    }
+
+    @Test
+    public void testWindowWithTimespan() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        List<Observable<Integer>> windows = Collections
+                .synchronizedList(new ArrayList<>());
+        initLatch(1 + 1); // N*onNext + onCompleted
+        setupCallback(feed.window(50, TimeUnit.MILLISECONDS), windows::add,
+                true);
+        feed.onNext(1);
+        feed.onNext(2);
+        feed.onCompleted();
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(1, windows.size());
+        assertEquals(Arrays.asList(1L), windows.get(0).map(n -> n + 1)
+                .filter(n -> n > 2).count().toList());
+    }
+
+    @Test
+    public void testWindowIsPushedWhenOpened() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        BlockingQueue<Integer> received = new LinkedBlockingQueue<>();
+        AtomicInteger completed = new AtomicInteger();
+        initLatch(2 + 1); // N*onNext + onCompleted
+        setupCallback(feed.window(3), window -> window.subscribe(
+                received::add, error -> {
+                }, completed::incrementAndGet), true);
+
+        feed.onNext(1);
+        // window receives data before it's full
+        assertEquals(Integer.valueOf(1), received.poll(1, TimeUnit.SECONDS));
+        feed.onNext(2);
+        assertEquals(Integer.valueOf(2), received.poll(1, TimeUnit.SECONDS));
+        assertEquals(0, completed.get());
+        feed.onNext(3);
+        feed.onNext(4);
+        feed.onCompleted();
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(3, 4), Arrays.asList(received.poll(1,
+                TimeUnit.SECONDS), received.poll(1, TimeUnit.SECONDS)));
+        assertEquals(2, completed.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testWindowWithError() throws Exception {
+        Observable<Observable<Integer>> observable = Observable
+                .<Integer> create(observer -> {
+                    observer.onNext(1);
+                    observer.onError(new IllegalStateException());
+                }).window(10);
+        List<Throwable> errors = Collections
+                .synchronizedList(new ArrayList<>());
+
+        initLatch(1 + 1); // N*onNext + onError
+        setupCallback(observable, window -> window.subscribe(v -> {
+        }, errors::add), true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        // open window is also notified for the error
+        assertEquals(1, onNext.get());
+        assertTrue(onError.get() instanceof IllegalStateException);
+        assertEquals(1, errors.size());
+    }
+}
@@ -0,0 +1,138 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class ObservableCacheTest extends BaseObservableTest {
+    @Test
+    public void testCacheReadsSourceOnce() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        Observable<Integer> observable = Observable.range(0, 1000).map(n -> {
+            reads.incrementAndGet();
+            return n;
+        }).cache();
+
+        List<Integer> expected = IntStream.range(0, 1000).boxed()
+                .collect(Collectors.toList());
+        assertEquals(expected, observable.toList());
+        assertEquals(expected, observable.toList());
+        assertEquals(1000, reads.get());
+    }
+
+    @Test
+    public void testCacheWithSmallSegments() throws Exception {
+        Observable<Integer> observable = Observable.from(1, null, 3, 4, 5, 6,
+                7).cache(3);
+
+        assertEquals(Arrays.asList(1, null, 3, 4, 5, 6, 7), observable
+                .toList());
+        assertEquals(Arrays.asList(1, null, 3, 4, 5, 6, 7), observable
+                .toList());
+    }
+
+    @Test
+    public void testCacheReplaysWhileSourceIsLive() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        AtomicInteger subscriptions = new AtomicInteger();
+        Observable<Integer> observable = Observable.<Integer> create(
+                observer -> {
+                    subscriptions.incrementAndGet();
+                    feed.subscribe(observer::onNext, observer::onError,
+                            observer::onCompleted);
+                }).cache();
+        List<Integer> first = new ArrayList<>();
+        List<Integer> second = new ArrayList<>();
+        observable.subscribe(first::add, error -> {
+        });
+        feed.onNext(1);
+        feed.onNext(2);
+        observable.subscribe(second::add, error -> {
+        });
+        feed.onNext(3);
+        feed.onCompleted();
+
+        assertEquals(Arrays.asList(1, 2, 3), first);
+        assertEquals(Arrays.asList(1, 2, 3), second);
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void testCacheWithDemand() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 100).cache();
+        assertEquals(100, observable.toList().size());
+
+        List<Integer> received = Collections
+                .synchronizedList(new ArrayList<>());
+        AtomicInteger completed = new AtomicInteger();
+        Subscription subscription = observable.subscribe(received::add,
+                error -> {
+                }, completed::incrementAndGet, 5);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), received);
+        assertEquals(0, completed.get());
+
+        subscription.request(95);
+        assertEquals(100, received.size());
+        assertEquals(1, completed.get());
+    }
+
+    @Test
+    public void testCacheWithError() throws Exception {
+        Observable<Integer> observable = Observable.<Integer> create(
+                observer -> {
+                    observer.onNext(1);
+                    observer.onError(new IllegalStateException());
+                }).cache();
+        observable.subscribe(n -> {
+        }, error -> {
+        });
+
+        initLatch(1 + 1); // N*onNext + onError
+        setupCallback(observable, null, true);
+        assertEquals(1, onNext.get());
+        assertTrue(onError.get() instanceof IllegalStateException);
+        assertEquals(0, onCompleted.get());
+    }
+
+    @Test
+    public void testReplayWithSize() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        ConnectableObservable<Integer> observable = feed.replay(2);
+        observable.connect();
+        feed.onNext(1);
+        feed.onNext(2);
+        feed.onNext(3);
+        List<Integer> received = new ArrayList<>();
+        observable.subscribe(received::add, error -> {
+        });
+        feed.onNext(4);
+
+        assertEquals(Arrays.asList(2, 3, 4), received);
+    }
+
+    @Test
+    public void testReplayWithTime() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        ConnectableObservable<Integer> observable = feed.replay(50,
+                TimeUnit.MILLISECONDS);
+        observable.connect();
+        feed.onNext(1);
+        Thread.sleep(100);
+        feed.onNext(2);
+        List<Integer> received = new ArrayList<>();
+        observable.subscribe(received::add, error -> {
+        });
+
+        assertEquals(Arrays.asList(2), received);
+    }
+}
@@ -0,0 +1,245 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.plexobject.rx.impl.Observer;
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.Pair;
+
+public class ObservableCombineTest extends BaseObservableTest {
+    @Test
+    public void testSubscribeZipCreateOnDifferentThreads() throws Exception {
+        Observable<Integer> observable1 = Observable.create(observer -> {
+            new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    observer.onNext(i);
+                }
+                observer.onCompleted();
+            }).start();
+        });
+        Observable<Integer> observable2 = Observable.range(0, 2000).observeOn(
+                Scheduler.newThreadPoolScheduler(2));
+
+        Observable<Integer> observableZipped = Observable.zip(
+                Arrays.asList(observable1, observable2),
+                row -> (Integer) row[0] + (Integer) row[1]);
+
+        initLatch(1000 + 1);
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observableZipped, processedList::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(IntStream.range(0, 1000).map(n -> n * 2).boxed()
+                .collect(Collectors.toList()), processedList);
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeZipWithInitialRequest() throws Exception {
+        Observable<Pair<Integer, Integer>> observable = Observable.range(0,
+                1000).subscribeOn(Scheduler.newNewThreadScheduler())
+                .zip(Observable.range(0, 1000).observeOn(
+                        Scheduler.newThreadPoolScheduler(2)), Pair::of);
+        List<Pair<Integer, Integer>> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        initLatch(10);
+
+        Subscription subscription = observable.subscribe(v -> {
+            processedList.add(v);
+            latch.countDown();
+        }, error -> onError.set(error), null, 10);
+        latch.await(500, TimeUnit.MILLISECONDS);
+        Thread.sleep(20);
+        assertEquals(10, processedList.size());
+
+        initLatch(990);
+        subscription.request(990);
+        latch.await(1, TimeUnit.SECONDS);
+        assertEquals(1000, processedList.size());
+        assertEquals(Pair.of(999, 999), processedList.get(999));
+        assertNull(onError.get());
+    }
+
+    @Test
+    public void testSubscribeZipWithFailure() throws Exception {
+        Observable<Integer> observable = Observable.from(1, 2, 3).zip(
+                Observable.<Integer> create(observer -> {
+                    observer.onNext(1);
+                    observer.onError(new RuntimeException("test error"));
+                }), (a, b) -> a + b);
+
+        initLatch(1); // latch for error
+        observable.subscribe(v -> onNext.incrementAndGet(), error -> {
+            onError.set(error);
+            latch.countDown();
+        }, () -> onCompleted.incrementAndGet());
+        latch.await(100, TimeUnit.MILLISECONDS);
+
+        assertNotNull(onError.get());
+        assertEquals(0, onCompleted.get());
+    }
+
+    @Test
+    public void testDisposeZipStopsSources() throws Exception {
+        Observable<Long> observable = Observable.zip(Arrays.asList(
+                Observable.interval(1, TimeUnit.MILLISECONDS),
+                Observable.interval(2, TimeUnit.MILLISECONDS)),
+                row -> (Long) row[0] + (Long) row[1]);
+        initLatch(5);
+
+        Subscription subscription = setupCallback(observable, null, true);
+        latch.await(500, TimeUnit.MILLISECONDS);
+        subscription.dispose();
+        Thread.sleep(20);
+        int count = onNext.get();
+        Thread.sleep(50);
+
+        assertEquals(count, onNext.get());
+        assertEquals(0, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeCombineLatest() throws Exception {
+        AtomicReference<Observer<String>> first = new AtomicReference<>();
+        AtomicReference<Observer<Integer>> second = new AtomicReference<>();
+        Observable<String> observable = Observable.combineLatest(
+                Observable.<String> create(first::set),
+                Observable.<Integer> create(second::set), (s, n) -> s + n);
+        BlockingQueue<String> processed = new LinkedBlockingQueue<>();
+        initLatch(4 + 1); // N*onNext + onCompleted
+        setupCallback(observable, processed::add, true);
+
+        first.get().onNext("a");
+        second.get().onNext(1);
+        assertEquals("a1", processed.poll(1, TimeUnit.SECONDS));
+        first.get().onNext("b");
+        assertEquals("b1", processed.poll(1, TimeUnit.SECONDS));
+        second.get().onNext(2);
+        assertEquals("b2", processed.poll(1, TimeUnit.SECONDS));
+        first.get().onCompleted();
+        second.get().onNext(3);
+        assertEquals("b3", processed.poll(1, TimeUnit.SECONDS));
+        second.get().onCompleted();
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeCombineLatestWithEmpty() throws Exception {
+        Observable<Object> observable = Observable.combineLatest(
+                Arrays.asList(Observable.interval(1, TimeUnit.MILLISECONDS),
+                        Observable.empty()), row -> row);
+
+        initLatch(1); // onCompleted
+        setupCallback(observable, null, true);
+        latch.await(500, TimeUnit.MILLISECONDS);
+
+        assertEquals(0, onNext.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeCombineLatestOnDifferentThreads()
+            throws Exception {
+        Observable<Integer> observable = Observable.combineLatest(Observable
+                .range(0, 1000).subscribeOn(Scheduler.newNewThreadScheduler()),
+                Observable.range(0, 1000).observeOn(
+                        Scheduler.newThreadPoolScheduler(2)), Math::max);
+        AtomicInteger last = new AtomicInteger();
+        initLatch(1); // onCompleted
+
+        observable.subscribe(v -> {
+            assertTrue(v >= last.get());
+            last.set(v);
+        }, error -> onError.set(error), () -> latch.countDown());
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+
+        assertEquals(999, last.get());
+        assertNull(onError.get());
+    }
+
+    @Test
+    public void testSubscribeWithLatestFrom() throws Exception {
+        AtomicReference<Observer<Integer>> source = new AtomicReference<>();
+        AtomicReference<Observer<String>> other = new AtomicReference<>();
+        Observable<String> observable = Observable.<Integer> create(
+                source::set).withLatestFrom(
+                Observable.<String> create(other::set), (n, s) -> n + s);
+        BlockingQueue<String> processed = new LinkedBlockingQueue<>();
+        initLatch(3 + 1); // N*onNext + onCompleted
+        setupCallback(observable, processed::add, true);
+
+        other.get().onNext("x");
+        source.get().onNext(1);
+        assertEquals("1x", processed.poll(1, TimeUnit.SECONDS));
+        other.get().onNext("y");
+        other.get().onNext("z");
+        source.get().onNext(2);
+        assertEquals("2z", processed.poll(1, TimeUnit.SECONDS));
+        other.get().onCompleted();
+        source.get().onNext(3);
+        assertEquals("3z", processed.poll(1, TimeUnit.SECONDS));
+        source.get().onCompleted();
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeWithLatestFromWithoutDemand() throws Exception {
+        AtomicReference<Observer<Integer>> source = new AtomicReference<>();
+        AtomicReference<Observer<String>> other = new AtomicReference<>();
+        Observable<String> observable = Observable.<Integer> create(
+                source::set).withLatestFrom(
+                Observable.<String> create(other::set), (n, s) -> n + s);
+        BlockingQueue<String> processed = new LinkedBlockingQueue<>();
+        initLatch(0); // ignore latch
+        Subscription subscription = observable.subscribe(processed::add,
+                error -> onError.set(error), null, 0);
+
+        other.get().onNext("x");
+        source.get().onNext(1);
+        // other Observable changes before the element is drained
+        other.get().onNext("y");
+        subscription.request(1);
+
+        assertEquals("1x", processed.poll(1, TimeUnit.SECONDS));
+        assertNull(onError.get());
+    }
+
+    @Test
+    public void testSubscribeWithLatestFromDropsEarlyElements()
+            throws Exception {
+        Observable<Integer> observable = Observable.range(0, 100)
+                .withLatestFrom(Observable.never(), (n, o) -> n);
+
+        initLatch(1); // onCompleted
+        setupCallback(observable, null, true);
+        latch.await(500, TimeUnit.MILLISECONDS);
+
+        assertEquals(0, onNext.get());
+        assertEquals(1, onCompleted.get());
+    }
+}
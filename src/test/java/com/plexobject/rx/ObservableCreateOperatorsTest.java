@@ -0,0 +1,147 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.plexobject.rx.impl.Observer;
+import com.plexobject.rx.scheduler.Scheduler;
+
+public class ObservableCreateOperatorsTest extends BaseObservableTest {
+    @Test
+    public void testSubscribeMapFilterLimit() throws Exception {
+        Observable<String> observable = asyncObservable(100)
+                .filter(n -> n % 2 == 0).map(n -> "#" + n).skip(1).limit(3);
+
+        initLatch(3 + 1); // N*onNext + onCompleted
+        List<String> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observable, processedList::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("#2", "#4", "#6"), processedList);
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeFlatMapDistinctSorted() throws Exception {
+        Observable<Integer> observable = asyncObservable(5)
+                .flatMap(n -> Stream.of(n, n % 3)).distinct()
+                .sorted((a, b) -> b - a);
+
+        assertEquals(Arrays.asList(4, 3, 2, 1, 0), observable.toList());
+    }
+
+    @Test
+    public void testCount() throws Exception {
+        assertEquals(Arrays.asList(1000L), asyncObservable(1000).count()
+                .toList());
+    }
+
+    @Test
+    public void testSubscribeOn() throws Exception {
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        Observable<Integer> observable = Observable.<Integer> create(
+                observer -> {
+                    thread.set(Thread.currentThread());
+                    observer.onNext(1);
+                    observer.onCompleted();
+                }).subscribeOn(Scheduler.newNewThreadScheduler());
+
+        initLatch(1 + 1); // N*onNext + onCompleted
+        setupCallback(observable, null, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertNotNull(thread.get());
+        assertTrue(thread.get() != Thread.currentThread());
+        assertEquals(1, onNext.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeWithDemand() throws Exception {
+        Observable<Integer> observable = asyncObservable(100).map(n -> n * 2);
+        initLatch(1);
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        Subscription subscription = observable.subscribe(processedList::add,
+                error -> onError.set(error), () -> onCompleted
+                        .incrementAndGet(), 10);
+        Thread.sleep(100);
+        assertEquals(IntStream.range(0, 10).map(n -> n * 2).boxed()
+                .collect(Collectors.toList()), new ArrayList<>(processedList));
+
+        subscription.request(Long.MAX_VALUE);
+        Thread.sleep(100);
+        assertEquals(100, processedList.size());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testLimitCompletesBeforeSource() throws Exception {
+        AtomicReference<Observer<Integer>> source = new AtomicReference<>();
+        Observable<Integer> observable = Observable.<Integer> create(
+                source::set).limit(2);
+
+        initLatch(2 + 1); // N*onNext + onCompleted
+        setupCallback(observable, null, true);
+        // source never completes
+        for (int i = 0; i < 5; i++) {
+            source.get().onNext(i);
+        }
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(2, onNext.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeMapWithFailure() throws Exception {
+        Observable<Integer> observable = asyncObservable(10).map(n -> {
+            if (n == 5) {
+                throw new RuntimeException("test error");
+            }
+            return n;
+        });
+
+        initLatch(1); // latch for error
+        observable.subscribe(v -> onNext.incrementAndGet(), error -> {
+            onError.set(error);
+            latch.countDown();
+        }, () -> onCompleted.incrementAndGet());
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertNotNull(onError.get());
+        assertEquals(5, onNext.get());
+        assertEquals(0, onCompleted.get());
+    }
+
+    /**
+     * This method creates Observable that pushes given number of elements from
+     * another thread
+     */
+    private static Observable<Integer> asyncObservable(int n) {
+        return Observable.create(observer -> {
+            new Thread(() -> {
+                for (int i = 0; i < n; i++) {
+                    observer.onNext(i);
+                }
+                observer.onCompleted();
+            }).start();
+        });
+    }
+}
@@ -1,5 +1,7 @@
 package com.plexobject.rx;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import mockit.Mocked;
@@ -44,15 +46,18 @@ public class ObservableCreateTest {
 
     @Test
     public void testSubscribeCreateAsync() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
         Observable<Integer> observable = Observable.create(observer -> {
             Scheduler.newNewThreadScheduler().scheduleBackgroundTask((o) -> {
                 observer.onNext(1);
                 observer.onNext(2);
                 observer.onNext(3);
                 observer.onCompleted();
+                latch.countDown();
             }, observer);
         });
         observable.subscribe(onNext, onError, onCompleted);
+        latch.await(100, TimeUnit.MILLISECONDS);
         new Verifications() {
             {
                 onNext.accept(1);
@@ -17,7 +17,7 @@ public class ObservableErrorsTest extends BaseObservableTest {
             Observable<String> observable = Observable.throwing(new Error());
 
             initLatch(1);
-            observable.subscribeOn(scheduler);
+            observable = observable.subscribeOn(scheduler);
             setupCallback(observable, null, false);
             latch.await(100, TimeUnit.MILLISECONDS);
 
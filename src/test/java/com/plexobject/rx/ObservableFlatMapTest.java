@@ -0,0 +1,242 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.plexobject.rx.impl.Observer;
+import com.plexobject.rx.scheduler.Scheduler;
+
+public class ObservableFlatMapTest extends BaseObservableTest {
+    @Test
+    public void testSubscribeFlatMapOnScheduler() throws Exception {
+        Scheduler scheduler = Scheduler.newThreadPoolScheduler(4);
+        Observable<Integer> observable = Observable.range(0, 1000).flatMap(
+                n -> Observable.just(n * 2).subscribeOn(scheduler), 64);
+
+        initLatch(1000 + 1); // N*onNext + onCompleted
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observable, processedList::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(IntStream.range(0, 1000).map(n -> n * 2).boxed()
+                .collect(Collectors.toSet()), new HashSet<>(processedList));
+        assertEquals(1000, processedList.size());
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeFlatMapConcurrently() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 10).flatMap(
+                n -> slowObservable(n, 50), 10);
+
+        initLatch(10 + 1); // N*onNext + onCompleted
+        long started = System.currentTimeMillis();
+        setupCallback(observable, null, true);
+        latch.await(1, TimeUnit.SECONDS);
+        long elapsed = System.currentTimeMillis() - started;
+
+        // each inner Observable takes 50 millis
+        assertTrue("took " + elapsed, elapsed < 300);
+        assertEquals(10, onNext.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeFlatMapWithMaxConcurrency() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        Observable<Integer> observable = Observable.range(0, 10).flatMap(
+                n -> Observable.<Integer> create(observer -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(),
+                            Math::max);
+                    new Thread(() -> {
+                        sleep(10);
+                        active.decrementAndGet();
+                        observer.onNext(n);
+                        observer.onCompleted();
+                    }).start();
+                }), 2);
+
+        initLatch(10 + 1); // N*onNext + onCompleted
+        setupCallback(observable, null, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(10, onNext.get());
+        assertTrue(maxActive.get() <= 2);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeConcatMapKeepsOrder() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 5).concatMap(
+                n -> Observable.<Integer> create(observer -> {
+                    new Thread(() -> {
+                        // later inner Observables finish sooner
+                        sleep(25 - n * 5);
+                        observer.onNext(n * 10);
+                        observer.onNext(n * 10 + 1);
+                        observer.onCompleted();
+                    }).start();
+                }));
+
+        initLatch(10 + 1); // N*onNext + onCompleted
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observable, processedList::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(IntStream.range(0, 5).flatMap(n -> IntStream.of(n * 10,
+                n * 10 + 1)).boxed().collect(Collectors.toList()),
+                processedList);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeConcatMapWithCreatedSource() throws Exception {
+        // created Observable pushes all data without waiting for requests
+        Observable<Integer> observable = Observable.<Integer> create(
+                observer -> {
+                    for (int i = 0; i < 2000; i++) {
+                        observer.onNext(i);
+                    }
+                    observer.onCompleted();
+                }).concatMap(n -> Observable.just(n));
+
+        initLatch(2000 + 1); // N*onNext + onCompleted
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observable, processedList::add, true);
+        latch.await(5, TimeUnit.SECONDS);
+
+        assertEquals(IntStream.range(0, 2000).boxed()
+                .collect(Collectors.toList()), processedList);
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeFlatMapWithMaxConcurrencyOverCreate()
+            throws Exception {
+        // created Observable pushes all elements at once
+        Observable<Integer> feed = Observable.create(observer -> {
+            for (int i = 0; i < 10; i++) {
+                observer.onNext(i);
+            }
+            observer.onCompleted();
+        });
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        Observable<Integer> observable = feed.flatMap(
+                n -> Observable.<Integer> create(observer -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(),
+                            Math::max);
+                    new Thread(() -> {
+                        sleep(10);
+                        active.decrementAndGet();
+                        observer.onNext(n);
+                        observer.onCompleted();
+                    }).start();
+                }), 2);
+
+        initLatch(10 + 1); // N*onNext + onCompleted
+        setupCallback(observable, null, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(10, onNext.get());
+        assertTrue(maxActive.get() <= 2);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeSwitchMap() throws Exception {
+        AtomicReference<Observer<Integer>> source = new AtomicReference<>();
+        Map<Integer, Observer<String>> inners = new ConcurrentHashMap<>();
+        Observable<String> observable = Observable.<Integer> create(
+                source::set).switchMap(
+                n -> Observable.<String> create(observer -> inners.put(n,
+                        observer)));
+        BlockingQueue<String> processed = new LinkedBlockingQueue<>();
+        initLatch(2 + 1); // N*onNext + onCompleted
+        setupCallback(observable, processed::add, true);
+
+        source.get().onNext(1);
+        inners.get(1).onNext("1a");
+        assertEquals("1a", processed.poll(1, TimeUnit.SECONDS));
+        source.get().onNext(2);
+        // previous inner Observable is ignored after switching
+        inners.get(1).onNext("1b");
+        inners.get(1).onCompleted();
+        inners.get(2).onNext("2a");
+        assertEquals("2a", processed.poll(1, TimeUnit.SECONDS));
+        source.get().onCompleted();
+        inners.get(2).onCompleted();
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertTrue(processed.isEmpty());
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeFlatMapWithFailure() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 10).flatMap(
+                n -> {
+                    if (n == 5) {
+                        throw new RuntimeException("test error");
+                    }
+                    return Observable.just(n);
+                }, 4);
+
+        initLatch(1); // latch for error
+        observable.subscribe(v -> onNext.incrementAndGet(), error -> {
+            onError.set(error);
+            latch.countDown();
+        }, () -> onCompleted.incrementAndGet());
+        latch.await(500, TimeUnit.MILLISECONDS);
+
+        assertNotNull(onError.get());
+        assertEquals(0, onCompleted.get());
+    }
+
+    /**
+     * This method creates Observable that pushes given number from another
+     * thread after given delay
+     */
+    private static Observable<Integer> slowObservable(int n, long delay) {
+        return Observable.create(observer -> {
+            new Thread(() -> {
+                sleep(delay);
+                observer.onNext(n);
+                observer.onCompleted();
+            }).start();
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ObservableIntervalTest extends BaseObservableTest {
+    @Test
+    public void testSubscribeTimer() throws Exception {
+        Observable<Long> observable = Observable.timer(20,
+                TimeUnit.MILLISECONDS);
+        List<Long> received = new ArrayList<>();
+        initLatch(1 + 1); // onNext + onCompleted
+        long started = System.currentTimeMillis();
+
+        setupCallback(observable, v -> received.add(v), true);
+        latch.await(500, TimeUnit.MILLISECONDS);
+
+        assertTrue(System.currentTimeMillis() - started >= 20);
+        assertEquals(1, onNext.get());
+        assertEquals(Long.valueOf(0), received.get(0));
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeIntervalWithSlowSubscriber() throws Exception {
+        Observable<Long> observable = Observable.interval(10,
+                TimeUnit.MILLISECONDS);
+        List<Long> received = new ArrayList<>();
+        initLatch(10);
+        long started = System.currentTimeMillis();
+
+        Subscription subscription = setupCallback(observable, v -> {
+            received.add(v);
+            sleep(8);
+        }, false);
+        latch.await(1, TimeUnit.SECONDS);
+        long elapsed = System.currentTimeMillis() - started;
+        subscription.dispose();
+
+        // with fixed delay, 10 ticks would take at least 180 millis
+        assertTrue("elapsed " + elapsed, elapsed >= 100 && elapsed < 170);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Long.valueOf(i), received.get(i));
+        }
+        assertNull(onError.get());
+    }
+
+    @Test
+    public void testSubscribeIntervalSkippingLateTicks() throws Exception {
+        Observable<Long> observable = Observable.interval(0, 5,
+                TimeUnit.MILLISECONDS, IntervalPolicy.SKIP);
+        List<Long> received = new ArrayList<>();
+        initLatch(5);
+
+        Subscription subscription = setupCallback(observable, v -> {
+            received.add(v);
+            sleep(20);
+        }, false);
+        latch.await(1, TimeUnit.SECONDS);
+        subscription.dispose();
+
+        assertEquals(Long.valueOf(0), received.get(0));
+        assertTrue(received.toString(), received.get(4) >= 10);
+    }
+
+    @Test
+    public void testSubscribeIntervalWithoutDemand() throws Exception {
+        Observable<Long> observable = Observable.interval(0, 5,
+                TimeUnit.MILLISECONDS, IntervalPolicy.SKIP);
+        List<Long> received = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        Subscription subscription = observable.subscribe(v -> {
+            received.add(v);
+            done.countDown();
+        }, error -> onError.set(error), null, 0);
+        Thread.sleep(50);
+        assertTrue(received.isEmpty());
+        subscription.request(1);
+        done.await(100, TimeUnit.MILLISECONDS);
+        subscription.dispose();
+
+        assertEquals(1, received.size());
+        assertTrue(received.toString(), received.get(0) >= 8);
+    }
+
+    @Test
+    public void testDisposeStopsTicks() throws Exception {
+        Observable<Long> observable = Observable.interval(5,
+                TimeUnit.MILLISECONDS);
+        initLatch(2);
+
+        Subscription subscription = setupCallback(observable, null, false);
+        latch.await(100, TimeUnit.MILLISECONDS);
+        subscription.dispose();
+        int count = onNext.get();
+        Thread.sleep(30);
+
+        assertEquals(count, onNext.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIntervalWithInvalidPeriod() throws Exception {
+        Observable.interval(0, TimeUnit.MILLISECONDS);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
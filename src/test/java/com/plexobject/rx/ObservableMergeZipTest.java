@@ -1,17 +1,27 @@
 package com.plexobject.rx;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.Test;
 
+import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.Pair;
+import com.plexobject.rx.util.Triple;
 import com.plexobject.rx.util.Tuple;
 
 public class ObservableMergeZipTest extends BaseObservableTest {
@@ -33,15 +43,189 @@ public class ObservableMergeZipTest extends BaseObservableTest {
         assertEquals(1, onCompleted.get());
     }
 
+    @Test
+    public void testSubscribeMergeConcurrently() throws Exception {
+        Observable<Integer> observableMerged = Observable.merge(Arrays
+                .asList(slowObservable(0, 5), slowObservable(5, 5),
+                        slowObservable(10, 5)));
+
+        initLatch(15 + 1);
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        long started = System.currentTimeMillis();
+        setupCallback(observableMerged, processedList::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+        long elapsed = System.currentTimeMillis() - started;
+
+        // each Observable takes 100 millis
+        assertTrue("took " + elapsed, elapsed < 250);
+        assertEquals(IntStream.range(0, 15).boxed()
+                .collect(Collectors.toSet()), new HashSet<>(processedList));
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeMergeWithMaxConcurrency() throws Exception {
+        Observable<Integer> observableMerged = Observable.merge(Arrays.asList(
+                slowObservable(0, 3), slowObservable(3, 3),
+                slowObservable(6, 3)), 1);
+
+        initLatch(9 + 1);
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observableMerged, processedList::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(IntStream.range(0, 9).boxed()
+                .collect(Collectors.toList()), processedList);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeMergeWithMaxConcurrencyOverCreate()
+            throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        // created Observable pushes all inner Observables at once
+        Observable<Integer> observableMerged = Observable.merge(Observable
+                .<Observable<Integer>> create(observer -> {
+                    for (int i = 0; i < 10; i++) {
+                        final int n = i;
+                        observer.onNext(Observable.<Integer> create(inner -> {
+                            maxActive.accumulateAndGet(
+                                    active.incrementAndGet(), Math::max);
+                            new Thread(() -> {
+                                try {
+                                    Thread.sleep(10);
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                                active.decrementAndGet();
+                                inner.onNext(n);
+                                inner.onCompleted();
+                            }).start();
+                        }));
+                    }
+                    observer.onCompleted();
+                }), 2, 16);
+
+        initLatch(10 + 1); // N*onNext + onCompleted
+        setupCallback(observableMerged, null, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(10, onNext.get());
+        assertTrue(maxActive.get() <= 2);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeMergeCreate() throws Exception {
+        Observable<Integer> observableMerged = Observable.<Integer> create(
+                observer -> {
+                    observer.onNext(1);
+                    observer.onNext(2);
+                    observer.onCompleted();
+                }).merge(Observable.from(3, 4));
+
+        initLatch(4 + 1);
+        Set<Integer> processed = ConcurrentHashMap.newKeySet();
+        setupCallback(observableMerged, processed::add, true);
+        latch.await(100, TimeUnit.MILLISECONDS);
+
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3, 4)), processed);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeMergeWithInitialRequest() throws Exception {
+        Observable<Integer> observable = Observable.merge(Arrays.asList(
+                Observable.range(0, 1000),
+                Observable.range(1000, 2000).subscribeOn(
+                        Scheduler.newNewThreadScheduler())));
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        initLatch(10);
+
+        Subscription subscription = observable.subscribe(v -> {
+            processedList.add(v);
+            latch.countDown();
+        }, error -> onError.set(error), null, 10);
+        latch.await(500, TimeUnit.MILLISECONDS);
+        Thread.sleep(20);
+        assertEquals(10, processedList.size());
+
+        initLatch(1990);
+        subscription.request(1990);
+        latch.await(1, TimeUnit.SECONDS);
+        assertEquals(2000, new HashSet<>(processedList).size());
+        assertNull(onError.get());
+    }
+
+    @Test
+    public void testSubscribeMergeWithFailure() throws Exception {
+        Observable<Long> observable = Observable.merge(Arrays.asList(
+                Observable.interval(1, TimeUnit.MILLISECONDS),
+                Observable.<Long> throwing(new RuntimeException(
+                        "test error"))));
+
+        initLatch(1); // latch for error
+        observable.subscribe(v -> onNext.incrementAndGet(), error -> {
+            onError.set(error);
+            latch.countDown();
+        }, () -> onCompleted.incrementAndGet());
+        latch.await(500, TimeUnit.MILLISECONDS);
+
+        assertNotNull(onError.get());
+        assertEquals(0, onCompleted.get());
+    }
+
+    @Test
+    public void testDisposeMergeStopsSources() throws Exception {
+        Observable<Long> observable = Observable.merge(Arrays.asList(
+                Observable.interval(1, TimeUnit.MILLISECONDS),
+                Observable.interval(1, TimeUnit.MILLISECONDS)));
+        initLatch(5);
+
+        Subscription subscription = setupCallback(observable, null, true);
+        latch.await(500, TimeUnit.MILLISECONDS);
+        subscription.dispose();
+        Thread.sleep(20);
+        int count = onNext.get();
+        Thread.sleep(50);
+
+        assertEquals(count, onNext.get());
+        assertEquals(0, onCompleted.get());
+    }
+
     @Test
     public void testMergeToList() {
         List<Integer> list = Observable.from(1, 2).merge(Observable.from(3, 4))
                 .toList();
 
-        assertEquals(new Integer(1), list.get(0));
-        assertEquals(new Integer(2), list.get(1));
-        assertEquals(new Integer(3), list.get(2));
-        assertEquals(new Integer(4), list.get(3));
+        // sources are pushed at the same time but each keeps its order
+        assertEquals(4, list.size());
+        assertTrue(list.indexOf(1) < list.indexOf(2));
+        assertTrue(list.indexOf(3) < list.indexOf(4));
+    }
+
+    @Test
+    public void testSubscribeMergeWithInfiniteStream() throws Exception {
+        // other Observable is not appended after an infinite stream
+        Observable<Integer> observable = Observable.integers(0).merge(
+                Observable.from(-1));
+
+        initLatch(1);
+        Subscription subscription = observable.subscribe(n -> {
+            if (n == -1) {
+                latch.countDown();
+            }
+        }, error -> onError.set(error));
+        boolean received = latch.await(1, TimeUnit.SECONDS);
+        subscription.dispose();
+
+        assertTrue(received);
+        assertNull(onError.get());
     }
 
     @Test
@@ -85,7 +269,7 @@ public class ObservableMergeZipTest extends BaseObservableTest {
 
         Observable<Tuple> observableMerged = observable1.zip(observable2);
 
-        initLatch(3 + 1);
+        initLatch(4 + 1);
         final List<Tuple> returnedTuples = new ArrayList<>();
         setupCallback(observableMerged, (t) -> returnedTuples.add(t), true);
         latch.await(100, TimeUnit.MILLISECONDS);
@@ -117,4 +301,94 @@ public class ObservableMergeZipTest extends BaseObservableTest {
         assertEquals(1, onCompleted.get());
         assertEquals(expectedTuples, returnedTuples);
     }
+
+    @Test
+    public void testSubscribeZipWithFunction() throws Exception {
+        Observable<String> observable1 = Observable.from("One", "Two", "Three");
+        Observable<Integer> observable2 = Observable.from(1, 2, 3, 4);
+
+        Observable<Pair<String, Integer>> observableZipped = observable1.zip(
+                observable2, Pair::of);
+
+        initLatch(3 + 1);
+        final List<Pair<String, Integer>> returnedPairs = new ArrayList<>();
+        setupCallback(observableZipped, (t) -> returnedPairs.add(t), true);
+        latch.await(100, TimeUnit.MILLISECONDS);
+
+        // stops when shorter Observable has no more data
+        assertEquals(Arrays.asList(Pair.of("One", 1), Pair.of("Two", 2),
+                Pair.of("Three", 3)), returnedPairs);
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testZipWithFunctionInParallel() {
+        List<Integer> sums = Observable.range(0, 10000)
+                .zip(Observable.range(0, 10000), (a, b) -> a + b).parallel()
+                .toList();
+
+        assertEquals(10000, sums.size());
+        for (int i = 0; i < sums.size(); i++) {
+            assertEquals(Integer.valueOf(i * 2), sums.get(i));
+        }
+    }
+
+    @Test
+    public void testSubscribeZipMany() throws Exception {
+        Observable<Triple<String, Integer, Boolean>> observableZipped = Observable
+                .zip(Arrays.asList(Observable.from("One", "Two"),
+                        Observable.from(1, 2, 3),
+                        Observable.from(true, false)),
+                        row -> Triple.of((String) row[0], (Integer) row[1],
+                                (Boolean) row[2]));
+
+        initLatch(2 + 1);
+        final List<Triple<String, Integer, Boolean>> returned = new ArrayList<>();
+        setupCallback(observableZipped, (t) -> returned.add(t), true);
+        latch.await(100, TimeUnit.MILLISECONDS);
+
+        assertEquals(Arrays.asList(Triple.of("One", 1, true),
+                Triple.of("Two", 2, false)), returned);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testZipWithFunctionNotStreamable() throws Exception {
+        Observable<Pair<Integer, String>> observableZipped = Observable.from(
+                1, 2, 3).zip(Observable.<String> create(observer -> {
+            observer.onNext("One");
+            observer.onNext("Two");
+            observer.onCompleted();
+        }), Pair::of);
+
+        initLatch(2 + 1);
+        final List<Pair<Integer, String>> returned = new ArrayList<>();
+        setupCallback(observableZipped, (t) -> returned.add(t), true);
+        latch.await(100, TimeUnit.MILLISECONDS);
+
+        assertEquals(Arrays.asList(Pair.of(1, "One"), Pair.of(2, "Two")),
+                returned);
+        assertEquals(1, onCompleted.get());
+    }
+
+    /**
+     * This method creates Observable that pushes numbers from another thread
+     * every 20 millis
+     */
+    private static Observable<Integer> slowObservable(int start, int count) {
+        return Observable.create(observer -> {
+            new Thread(() -> {
+                for (int i = start; i < start + count; i++) {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    observer.onNext(i);
+                }
+                observer.onCompleted();
+            }).start();
+        });
+    }
 }
@@ -0,0 +1,126 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.plexobject.rx.scheduler.Scheduler;
+
+public class ObservableObserveOnTest extends BaseObservableTest {
+    @Test
+    public void testSubscribeObserveOn() throws Exception {
+        Set<Thread> sourceThreads = ConcurrentHashMap.newKeySet();
+        Set<Thread> observerThreads = ConcurrentHashMap.newKeySet();
+        Observable<String> observable = Observable.from(names).filter(name -> {
+            sourceThreads.add(Thread.currentThread());
+            return true;
+        }).subscribeOn(Scheduler.newNewThreadScheduler())
+                .observeOn(Scheduler.newNewThreadScheduler());
+        initLatch(names.size() + 1); // N*onNext + onCompleted
+
+        setupCallback(observable,
+                v -> observerThreads.add(Thread.currentThread()), true);
+        latch.await(100, TimeUnit.MILLISECONDS);
+
+        assertEquals(names.size(), onNext.get());
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+        assertEquals(1, sourceThreads.size());
+        assertEquals(1, observerThreads.size());
+        assertNotEquals(sourceThreads, observerThreads);
+    }
+
+    @Test
+    public void testSubscribeObserveOnWithSmallBuffer() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 10000)
+                .subscribeOn(Scheduler.newNewThreadScheduler())
+                .observeOn(Scheduler.newNewThreadScheduler(), 16);
+        initLatch(10000 + 1); // N*onNext + onCompleted
+        List<Integer> received = new ArrayList<>();
+
+        setupCallback(observable, v -> received.add(v), true);
+        latch.await(500, TimeUnit.MILLISECONDS);
+
+        assertEquals(10000, onNext.get());
+        assertTrue(ObservableParallelTest.isSorted(received));
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeCreatedObservableObserveOn() throws Exception {
+        // created Observable pushes more data than buffer size at once
+        Observable<Integer> observable = Observable.<Integer> create(
+                observer -> {
+                    for (int i = 0; i < 1000; i++) {
+                        observer.onNext(i % 10 == 0 ? null : i);
+                    }
+                    observer.onCompleted();
+                }).observeOn(Scheduler.newNewThreadScheduler());
+        List<Integer> received = new ArrayList<>();
+        initLatch(1000 + 1); // N*onNext + onCompleted
+
+        setupCallback(observable, received::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(1000, received.size());
+        assertNull(received.get(0));
+        assertEquals(Integer.valueOf(999), received.get(999));
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeParallelObserveOn() throws Exception {
+        Observable<Integer> observable = Observable.range(1, 101).parallel()
+                .observeOn(Scheduler.newNewThreadScheduler(), 8);
+        initLatch(100 + 1); // N*onNext + onCompleted
+
+        setupCallback(observable, null, true);
+        latch.await(500, TimeUnit.MILLISECONDS);
+
+        assertEquals(100, onNext.get());
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeObserveOnWithError() throws Exception {
+        Observable<Integer> observable = Observable.range(1, 101).observeOn(
+                Scheduler.newNewThreadScheduler());
+        initLatch(1);
+
+        setupCallback(observable, v -> {
+            throw new RuntimeException("test error");
+        }, true);
+        latch.await(100, TimeUnit.MILLISECONDS);
+
+        assertEquals(0, onNext.get());
+        assertNotNull(onError.get());
+        assertEquals(0, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeObserveOnThrowing() throws Exception {
+        Observable<Integer> observable = Observable.<Integer> throwing(
+                new Error()).observeOn(Scheduler.newNewThreadScheduler());
+        initLatch(1);
+
+        setupCallback(observable, null, true);
+        latch.await(100, TimeUnit.MILLISECONDS);
+
+        assertEquals(0, onNext.get());
+        assertNotNull(onError.get());
+        assertEquals(0, onCompleted.get());
+    }
+}
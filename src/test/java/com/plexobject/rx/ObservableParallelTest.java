@@ -9,11 +9,15 @@ import static org.junit.Assert.assertTrue;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import com.plexobject.rx.scheduler.Scheduler;
+import com.plexobject.rx.util.CancelableSpliterator;
 
 public class ObservableParallelTest extends BaseObservableTest {
     @Test
@@ -92,15 +96,223 @@ public class ObservableParallelTest extends BaseObservableTest {
         }, true);
         Thread.sleep(10);
         subscription.dispose();
-        assertTrue(isSorted(processedList)); // parallel processing will
-        // execute list in unsorted
-        // fashion
-        assertTrue(processedList.size() > 0);
+        // tasks that are already running may still add numbers
+        Thread.sleep(10);
+        List<Integer> processed = new ArrayList<>(processedList);
+        // natural numbers are split so they are processed in any order but
+        // each number is only processed once
+        assertEquals(processed.size(), processed.stream().distinct().count());
+        assertTrue(processed.size() > 0);
         assertTrue(onNext.get() > 0);
         assertNull(onError.get());
         assertEquals(0, onCompleted.get());
     }
 
+    @Test
+    public void testSubscribeParallelWithPool() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                    .newThread(p);
+            thread.setName("custom-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        try {
+            Observable<Integer> observable = Observable.range(0, 1000)
+                    .parallel(pool);
+
+            initLatch(1000 + 1); // N*onNext + onCompleted
+            List<String> threads = Collections
+                    .synchronizedList(new ArrayList<>());
+            setupCallback(observable, v -> threads.add(Thread
+                    .currentThread().getName()), true);
+            latch.await(500, TimeUnit.MILLISECONDS);
+
+            assertEquals(1000, threads.size());
+            assertTrue(threads.stream().allMatch(n -> n.startsWith("custom-")));
+            assertEquals(1, onCompleted.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubscribeParallelWithoutLeakingThreads() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 100).parallel();
+        initLatch(100 + 1); // warm up shared pool
+        setupCallback(observable, null, true);
+        latch.await(500, TimeUnit.MILLISECONDS);
+        int before = Thread.activeCount();
+
+        for (int i = 0; i < 50; i++) {
+            initLatch(100 + 1);
+            setupCallback(observable, null, true);
+            latch.await(500, TimeUnit.MILLISECONDS);
+            assertEquals(1, onCompleted.get());
+        }
+        assertTrue("threads " + before + " -> " + Thread.activeCount(),
+                Thread.activeCount() - before < 10);
+    }
+
+    @Test
+    public void testDisposeStopsParallelTasks() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 10000000)
+                .parallel();
+        AtomicInteger count = new AtomicInteger();
+
+        initLatch(100);
+        Subscription subscription = setupCallback(observable,
+                v -> count.incrementAndGet(), false);
+        latch.await(500, TimeUnit.MILLISECONDS);
+        subscription.dispose();
+        Thread.sleep(20);
+        int stopped = count.get();
+        Thread.sleep(50);
+
+        assertEquals(stopped, count.get());
+        assertTrue(stopped < 10000000);
+        assertEquals(0, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeParallelMapInOrder() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Observable<Integer> observable = Observable.range(0, 200)
+                    .parallelMap(n -> {
+                        try {
+                            // later elements finish first
+                            Thread.sleep(n % 4 == 0 ? 2 : 0);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return n * 2;
+                    }, pool, 16);
+
+            initLatch(200 + 1); // N*onNext + onCompleted
+            List<Integer> processedList = Collections
+                    .synchronizedList(new ArrayList<>());
+            setupCallback(observable, processedList::add, true);
+            latch.await(2, TimeUnit.SECONDS);
+
+            assertEquals(200, processedList.size());
+            for (int i = 0; i < 200; i++) {
+                assertEquals(Integer.valueOf(i * 2), processedList.get(i));
+            }
+            assertNull(onError.get());
+            assertEquals(1, onCompleted.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubscribeParallelMapUsingMultipleThreads()
+            throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<String> threads = Collections
+                    .synchronizedList(new ArrayList<>());
+            Observable<Integer> observable = Observable.range(0, 100)
+                    .parallelMap(n -> {
+                        threads.add(Thread.currentThread().getName());
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return n;
+                    }, pool, 32);
+
+            initLatch(100 + 1); // N*onNext + onCompleted
+            setupCallback(observable, null, true);
+            latch.await(2, TimeUnit.SECONDS);
+
+            assertEquals(100, onNext.get());
+            assertTrue(threads.stream().distinct().count() > 1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubscribeParallelMapWithFailure() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 100)
+                .parallelMap(n -> {
+                    if (n == 50) {
+                        throw new RuntimeException("test error");
+                    }
+                    return n;
+                });
+
+        initLatch(50 + 1); // N*onNext + onError
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observable, processedList::add, true);
+        latch.await(500, TimeUnit.MILLISECONDS);
+        Thread.sleep(10);
+
+        assertEquals(50, processedList.size());
+        assertTrue(isSorted(processedList));
+        assertNotNull(onError.get());
+        assertEquals(0, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeParallelMapWithInitialRequest() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 100)
+                .parallelMap(n -> n + 1);
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        initLatch(10);
+
+        Subscription subscription = observable.subscribe(v -> {
+            processedList.add(v);
+            latch.countDown();
+        }, error -> onError.set(error), null, 10);
+        latch.await(500, TimeUnit.MILLISECONDS);
+        Thread.sleep(20);
+        assertEquals(10, processedList.size());
+
+        initLatch(90);
+        subscription.request(90);
+        latch.await(500, TimeUnit.MILLISECONDS);
+        assertEquals(100, processedList.size());
+        assertEquals(Integer.valueOf(100), processedList.get(99));
+        assertTrue(isSorted(processedList));
+    }
+
+    @Test
+    public void testSubscribeParallelMapWithCreatedObservable()
+            throws Exception {
+        // created Observable pushes all data without waiting for requests
+        Observable<Integer> observable = Observable.<Integer> create(
+                observer -> {
+                    for (int i = 0; i < 20000; i++) {
+                        observer.onNext(i);
+                    }
+                    observer.onCompleted();
+                }).parallelMap(n -> n);
+
+        initLatch(20000 + 1); // N*onNext + onCompleted
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observable, processedList::add, true);
+        latch.await(5, TimeUnit.SECONDS);
+
+        assertEquals(20000, processedList.size());
+        for (int i = 0; i < 20000; i++) {
+            assertEquals(Integer.valueOf(i), processedList.get(i));
+        }
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelMapWithInvalidMaxInFlight() throws Exception {
+        Observable.range(0, 10).parallelMap(n -> n,
+                CancelableSpliterator.defaultPool(), 0);
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> boolean isSorted(List<? extends Comparable<T>> list) {
         boolean sorted = true;
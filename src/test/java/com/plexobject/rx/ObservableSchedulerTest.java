@@ -8,6 +8,8 @@ import static org.junit.Assert.assertTrue;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.junit.Test;
 
@@ -24,7 +26,7 @@ public class ObservableSchedulerTest extends BaseObservableTest {
                 MAX_NUMBERS);
         initLatch(MAX_NUMBERS + 1); // N*onNext + onCompleted
 
-        observable.subscribeOn(Scheduler
+        observable = observable.subscribeOn(Scheduler
                 .newTimerSchedulerWithMilliInterval(MAX_NUMBERS));
         setupCallback(observable, (v) -> times.add(System.currentTimeMillis()),
                 true);
@@ -48,7 +50,7 @@ public class ObservableSchedulerTest extends BaseObservableTest {
                 MAX_NUMBERS);
         initLatch(1);
 
-        observable.subscribeOn(Scheduler.newNewThreadScheduler());
+        observable = observable.subscribeOn(Scheduler.newNewThreadScheduler());
         setupCallback(observable, (v) -> {
             throw new RuntimeException("test error");
         }, true);
@@ -66,7 +68,7 @@ public class ObservableSchedulerTest extends BaseObservableTest {
             initLatch(names.size() + 1); // N*onNext + onCompleted
 
             Observable<String> observable = Observable.from(names);
-            observable.subscribeOn(scheduler);
+            observable = observable.subscribeOn(scheduler);
 
             setupCallback(observable, null, true);
             latch.await(100, TimeUnit.MILLISECONDS);
@@ -77,4 +79,52 @@ public class ObservableSchedulerTest extends BaseObservableTest {
             assertEquals(1, onCompleted.get());
         }
     }
+
+    @Test
+    public void testSubscribeWithDrainBatch() throws Exception {
+        AtomicInteger tasks = new AtomicInteger();
+        Scheduler immediate = Scheduler.newImmediateScheduler();
+        Scheduler scheduler = new Scheduler() {
+            @Override
+            public void dispose() {
+                immediate.dispose();
+            }
+
+            @Override
+            public <T> void scheduleBackgroundTask(Consumer<T> consumer,
+                    T handle) {
+                tasks.incrementAndGet();
+                immediate.scheduleBackgroundTask(consumer, handle);
+            }
+        };
+        Observable<Integer> observable = Observable.range(0, 1000)
+                .subscribeOn(scheduler).drainBatch(100, 0);
+        initLatch(1000 + 1); // N*onNext + onCompleted
+
+        setupCallback(observable, null, true);
+        latch.await(100, TimeUnit.MILLISECONDS);
+
+        assertEquals(1000, onNext.get());
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+        assertEquals(11, tasks.get()); // 10 full batches + completion
+    }
+
+    @Test
+    public void testSubscribeLargeRangeWithImmediateScheduler()
+            throws Exception {
+        Observable<Integer> observable = Observable.range(0, 1000000)
+                .subscribeOn(Scheduler.newImmediateScheduler());
+        initLatch(1);
+
+        setupCallback(observable, null, false);
+
+        assertEquals(1000000, onNext.get());
+        assertNull(onError.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDrainBatchWithInvalidSize() throws Exception {
+        Observable.range(0, 10).drainBatch(0, 0);
+    }
 }
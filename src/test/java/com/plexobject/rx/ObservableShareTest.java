@@ -0,0 +1,181 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class ObservableShareTest extends BaseObservableTest {
+    @Test
+    public void testPublishReadsSourceOnce() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        ConnectableObservable<Integer> observable = Observable.range(0, 1000)
+                .map(n -> {
+                    reads.incrementAndGet();
+                    return n;
+                }).publish();
+        CountDownLatch done = new CountDownLatch(2);
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections
+                .synchronizedList(new ArrayList<>());
+        observable.subscribe(first::add, error -> {
+        }, done::countDown);
+        observable.subscribe(second::add, error -> {
+        }, done::countDown);
+        Thread.sleep(50);
+        assertEquals(0, reads.get());
+
+        observable.connect();
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+
+        List<Integer> expected = IntStream.range(0, 1000).boxed()
+                .collect(Collectors.toList());
+        assertEquals(expected, first);
+        assertEquals(expected, second);
+        assertEquals(1000, reads.get());
+    }
+
+    @Test
+    public void testConnectReturnsSameConnection() throws Exception {
+        ConnectableObservable<Long> observable = Observable.interval(10,
+                TimeUnit.MILLISECONDS).publish();
+        Disposable connection = observable.connect();
+        assertSame(connection, observable.connect());
+        connection.dispose();
+    }
+
+    @Test
+    public void testDisposeConnection() throws Exception {
+        AtomicInteger ticks = new AtomicInteger();
+        ConnectableObservable<Long> observable = Observable.interval(5,
+                TimeUnit.MILLISECONDS).map(n -> {
+            ticks.incrementAndGet();
+            return n;
+        }).publish();
+        initLatch(1);
+        setupCallback(observable, null, true);
+        Disposable connection = observable.connect();
+        Thread.sleep(50);
+        connection.dispose();
+        Thread.sleep(20);
+        int count = ticks.get();
+        Thread.sleep(50);
+
+        assertTrue(count > 0);
+        assertEquals(count, ticks.get());
+    }
+
+    @Test
+    public void testShareDisconnectsAfterLastSubscriber() throws Exception {
+        AtomicInteger ticks = new AtomicInteger();
+        Observable<Long> observable = Observable.interval(5,
+                TimeUnit.MILLISECONDS).map(n -> {
+            ticks.incrementAndGet();
+            return n;
+        }).share();
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+        Subscription s1 = observable.subscribe(n -> first.incrementAndGet(),
+                error -> {
+                });
+        Subscription s2 = observable.subscribe(n -> second.incrementAndGet(),
+                error -> {
+                });
+        Thread.sleep(50);
+        s1.dispose();
+        Thread.sleep(20);
+        assertTrue(ticks.get() > 0);
+        assertTrue(second.get() > 0);
+
+        s2.dispose();
+        Thread.sleep(20);
+        int count = ticks.get();
+        Thread.sleep(50);
+        assertEquals(count, ticks.get());
+    }
+
+    @Test
+    public void testShareSubscribesSourceOnce() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Subject<Integer> feed = Subject.newPublishSubject();
+        Observable<Integer> observable = Observable.<Integer> create(
+                observer -> {
+                    subscriptions.incrementAndGet();
+                    feed.subscribe(observer::onNext, observer::onError,
+                            observer::onCompleted);
+                }).share();
+
+        initLatch(2 * 3 + 2); // N*onNext + onCompleted for 2 subscribers
+        setupCallback(observable, null, true);
+        setupCallback(observable, null, true);
+        feed.onNext(1);
+        feed.onNext(2);
+        feed.onNext(3);
+        feed.onCompleted();
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(1, subscriptions.get());
+        assertEquals(6, onNext.get());
+        assertEquals(2, onCompleted.get());
+    }
+
+    @Test
+    public void testShareConnectsAgainAfterCompletion() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Observable<Integer> observable = Observable.<Integer> create(
+                observer -> {
+                    subscriptions.incrementAndGet();
+                    observer.onNext(1);
+                    observer.onCompleted();
+                }).share();
+
+        assertEquals(Collections.singletonList(1), observable.toList());
+        assertEquals(Collections.singletonList(1), observable.toList());
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void testShareSubscribesWhileConnecting() throws Exception {
+        Observable<Integer> observable = Observable.<Integer> create(
+                observer -> {
+                    for (int i = 0; i < 10; i++) {
+                        observer.onNext(i);
+                    }
+                    observer.onCompleted();
+                }).share();
+        AtomicBoolean subscribed = new AtomicBoolean();
+
+        initLatch(10 + 1); // N*onNext + onCompleted
+        setupCallback(observable, n -> {
+            if (n == 0) {
+                // source is still pushing data from connect
+                Thread thread = new Thread(() -> observable.subscribe(v -> {
+                }, error -> {
+                }).dispose());
+                thread.start();
+                try {
+                    thread.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                subscribed.set(!thread.isAlive());
+            }
+        }, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertTrue(subscribed.get());
+        assertEquals(10, onNext.get());
+        assertEquals(1, onCompleted.get());
+    }
+}
@@ -245,7 +245,7 @@ public class ObservableTest extends BaseObservableTest {
             Observable<String> observable = Observable.empty();
             //
             initLatch(1);
-            observable.subscribeOn(scheduler);
+            observable = observable.subscribeOn(scheduler);
             setupCallback(observable, null, false);
             latch.await(100, TimeUnit.MILLISECONDS);
 
@@ -255,9 +255,59 @@ public class ObservableTest extends BaseObservableTest {
         }
     }
 
-    @Test(expected = IllegalStateException.class)
+    @Test
     public void testSubscribeMultipleSubscription() throws Exception {
-        Observable<Integer> observable = Observable.from(1, 2, 3, 4, 5);
+        Observable<Integer> observable = Observable.from(1, 2, 3, 4, 5)
+                .filter(n -> n % 2 == 1).map(n -> n * 10);
+        initLatch(2 * (3 + 1)); // 2 * (N*onNext + onCompleted)
+        setupCallback(observable, null, true);
+        setupCallback(observable, null, true); // new stream is created for
+                                               // each subscription
+        latch.await(100, TimeUnit.MILLISECONDS);
+
+        assertEquals(6, onNext.get());
+        assertNull(onError.get());
+        assertEquals(2, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeConcurrently() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 100)
+                .filter(n -> n % 2 == 0).skip(10).limit(20);
+        int subscribers = 8;
+        initLatch(subscribers * (20 + 1)); // N*onNext + onCompleted
+        Thread[] threads = new Thread[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    setupCallback(observable, null, true);
+                } catch (Exception e) {
+                    onError.set(e);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        latch.await(500, TimeUnit.MILLISECONDS);
+
+        assertEquals(subscribers * 20, onNext.get());
+        assertNull(onError.get());
+        assertEquals(subscribers, onCompleted.get());
+    }
+
+    @Test
+    public void testOperatorDoesNotChangeObservable() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 10);
+        Observable<Integer> limited = observable.limit(2);
+        assertEquals(10, observable.toList().size());
+        assertEquals(2, limited.toList().size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubscribeStreamMultipleSubscription() throws Exception {
+        Observable<Integer> observable = Observable.from(Stream.of(1, 2, 3));
         setupCallback(observable, null, false);
         setupCallback(observable, null, false); // you can only consume stream
                                                 // once
@@ -269,7 +319,7 @@ public class ObservableTest extends BaseObservableTest {
             Observable<String> observable = Observable.just("One");
             //
             initLatch(1 + 1);
-            observable.subscribeOn(scheduler);
+            observable = observable.subscribeOn(scheduler);
             setupCallback(observable, null, false);
             latch.await(100, TimeUnit.MILLISECONDS);
 
@@ -0,0 +1,137 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ObservableThrottleTest extends BaseObservableTest {
+    @Test
+    public void testSample() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        List<Integer> received = Collections
+                .synchronizedList(new ArrayList<>());
+        initLatch(2 + 1); // N*onNext + onCompleted
+        setupCallback(feed.sample(50, TimeUnit.MILLISECONDS), received::add,
+                true);
+        feed.onNext(1);
+        feed.onNext(2);
+        feed.onNext(3);
+        Thread.sleep(150);
+        feed.onNext(4);
+        feed.onNext(5);
+        feed.onCompleted();
+        latch.await(1, TimeUnit.SECONDS);
+
+        // latest element is pushed when source completes
+        assertEquals(Arrays.asList(3, 5), received);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testThrottleLastWithFastSource() throws Exception {
+        assertEquals(Arrays.asList(99999), Observable.range(0, 100000)
+                .throttleLast(1, TimeUnit.SECONDS).toList());
+    }
+
+    @Test
+    public void testThrottleFirst() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        List<Integer> received = new ArrayList<>();
+        feed.throttleFirst(50, TimeUnit.MILLISECONDS).subscribe(received::add,
+                error -> {
+                });
+        feed.onNext(1);
+        feed.onNext(2);
+        feed.onNext(3);
+        assertEquals(Arrays.asList(1), received);
+
+        Thread.sleep(100);
+        feed.onNext(4);
+        feed.onNext(5);
+        feed.onCompleted();
+        assertEquals(Arrays.asList(1, 4), received);
+    }
+
+    @Test
+    public void testThrottleFirstWithDemand() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        List<Integer> received = new ArrayList<>();
+        Subscription subscription = feed.throttleFirst(1, TimeUnit.HOURS)
+                .subscribe(received::add, error -> {
+                }, null, 0);
+        feed.onNext(1);
+        subscription.request(1);
+        feed.onNext(2);
+        feed.onNext(3);
+
+        // elements are dropped while there is no demand
+        assertEquals(Arrays.asList(2), received);
+    }
+
+    @Test
+    public void testDebounce() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        List<Integer> received = Collections
+                .synchronizedList(new ArrayList<>());
+        initLatch(3 + 1); // N*onNext + onCompleted
+        setupCallback(feed.debounce(50, TimeUnit.MILLISECONDS),
+                received::add, true);
+        feed.onNext(1);
+        Thread.sleep(150);
+        feed.onNext(2);
+        feed.onNext(3);
+        Thread.sleep(150);
+        feed.onNext(4);
+        feed.onCompleted();
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(1, 3, 4), received);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testDebounceDropsBurst() throws Exception {
+        Subject<Integer> feed = Subject.newPublishSubject();
+        List<Integer> received = Collections
+                .synchronizedList(new ArrayList<>());
+        initLatch(1); // latch for first element
+        setupCallback(feed.debounce(200, TimeUnit.MILLISECONDS),
+                received::add, false);
+        for (int i = 0; i < 10; i++) {
+            feed.onNext(i);
+            Thread.sleep(5);
+        }
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertTrue(received.size() < 10);
+        assertEquals(Integer.valueOf(9), received.get(received.size() - 1));
+    }
+
+    @Test
+    public void testSampleWithError() throws Exception {
+        Observable<Integer> observable = Observable.<Integer> create(
+                observer -> {
+                    observer.onNext(1);
+                    observer.onError(new IllegalStateException());
+                }).sample(1, TimeUnit.SECONDS);
+
+        initLatch(1); // latch for error
+        setupCallback(observable, null, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(0, onNext.get());
+        assertTrue(onError.get() instanceof IllegalStateException);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDebounceWithIllegalTimeout() throws Exception {
+        Observable.range(0, 10).debounce(0, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,188 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.plexobject.rx.scheduler.Scheduler;
+
+public class ParallelObservableTest extends BaseObservableTest {
+    @Test
+    public void testSubscribeSequential() throws Exception {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        Observable<Integer> observable = Observable.range(0, 1000)
+                .parallel(4).runOn(Scheduler.newThreadPoolScheduler(4))
+                .map(n -> {
+                    threads.add(Thread.currentThread().getName());
+                    return n * 2;
+                }).sequential();
+
+        initLatch(1000 + 1); // N*onNext + onCompleted
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observable, processedList::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(IntStream.range(0, 1000).map(n -> n * 2).boxed()
+                .collect(Collectors.toSet()), processedList.stream()
+                .collect(Collectors.toSet()));
+        assertEquals(1000, processedList.size());
+        assertTrue(threads.size() > 1);
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeFilterWithKeyPreservingOrderOfKey()
+            throws Exception {
+        Observable<Integer> observable = Observable.range(0, 1000)
+                .parallel(3, n -> n % 5).filter(n -> n % 2 == 0)
+                .sequential();
+
+        initLatch(500 + 1); // N*onNext + onCompleted
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observable, processedList::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(500, processedList.size());
+        Map<Integer, List<Integer>> byKey = new HashMap<>();
+        for (Integer n : processedList) {
+            byKey.computeIfAbsent(n % 5, k -> new ArrayList<>()).add(n);
+        }
+        for (List<Integer> numbers : byKey.values()) {
+            assertTrue(ObservableParallelTest.isSorted(numbers));
+        }
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeReducePerRail() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 100)
+                .parallel(4).reduce(() -> 0, (sum, n) -> sum + n)
+                .sequential();
+
+        initLatch(4 + 1); // N*onNext + onCompleted
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observable, processedList::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(4, processedList.size());
+        assertEquals(4950, processedList.stream().mapToInt(n -> n).sum());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeReduceRails() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 100)
+                .parallel(4).map(n -> n + 1).reduce(Integer::sum);
+
+        initLatch(1 + 1); // onNext + onCompleted
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observable, processedList::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(5050), processedList);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeReduceEmptyRails() throws Exception {
+        Observable<Integer> observable = Observable.<Integer> empty()
+                .parallel(4).reduce(Integer::sum);
+
+        initLatch(1); // onCompleted
+        setupCallback(observable, null, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(0, onNext.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeCreateWithRails() throws Exception {
+        Observable<Integer> observable = Observable.<Integer> create(
+                observer -> {
+                    for (int i = 0; i < 1000; i++) {
+                        observer.onNext(i);
+                    }
+                    observer.onCompleted();
+                }).parallel(4).map(n -> n + 1).reduce(Integer::sum);
+
+        initLatch(1 + 1); // onNext + onCompleted
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        setupCallback(observable, processedList::add, true);
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(500500), processedList);
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeIteratorWithInitialRequest() throws Exception {
+        List<Integer> numbers = IntStream.range(0, 1000).boxed()
+                .collect(Collectors.toList());
+        Observable<Integer> observable = Observable.from(numbers.iterator())
+                .parallel(2).runOn(Scheduler.newThreadPoolScheduler(2), 16)
+                .sequential();
+        List<Integer> processedList = Collections
+                .synchronizedList(new ArrayList<>());
+        initLatch(10);
+
+        Subscription subscription = observable.subscribe(v -> {
+            processedList.add(v);
+            latch.countDown();
+        }, error -> onError.set(error), null, 10);
+        latch.await(500, TimeUnit.MILLISECONDS);
+        Thread.sleep(20);
+        assertEquals(10, processedList.size());
+
+        initLatch(990);
+        subscription.request(990);
+        latch.await(1, TimeUnit.SECONDS);
+        assertEquals(1000, processedList.size());
+        assertEquals(1000, processedList.stream().distinct().count());
+    }
+
+    @Test
+    public void testSubscribeRailsWithFailure() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 100)
+                .parallel(4).map(n -> {
+                    if (n == 50) {
+                        throw new RuntimeException("test error");
+                    }
+                    return n;
+                }).sequential();
+
+        initLatch(1); // latch for error
+        setupCallback(observable, null, true);
+        latch.await(1, TimeUnit.SECONDS);
+        Thread.sleep(10);
+
+        assertNotNull(onError.get());
+        assertEquals(0, onCompleted.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelWithInvalidRails() throws Exception {
+        Observable.range(0, 10).parallel(0);
+    }
+}
@@ -0,0 +1,140 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.IntSummaryStatistics;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.plexobject.rx.scheduler.Scheduler;
+
+public class PrimitiveObservableTest extends BaseObservableTest {
+    @Test
+    public void testSubscribeIntRange() throws Exception {
+        IntObservable observable = IntObservable.range(0, 1000)
+                .filter(n -> n % 2 == 0).map(n -> n * 2);
+        AtomicLong sum = new AtomicLong();
+        initLatch(500 + 1); // N*onNext + onCompleted
+
+        observable.subscribe(n -> {
+            sum.addAndGet(n);
+            onNext.incrementAndGet();
+            latch.countDown();
+        }, error -> {
+            onError.set(error);
+            latch.countDown();
+        }, () -> {
+            onCompleted.incrementAndGet();
+            latch.countDown();
+        });
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertEquals(500, onNext.get());
+        assertEquals(499000, sum.get());
+        assertNull(onError.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeIntegersWithInitialRequest() throws Exception {
+        IntObservable observable = IntObservable.integers(1).subscribeOn(
+                Scheduler.newNewThreadScheduler());
+        initLatch(10);
+
+        Subscription subscription = observable.subscribe(n -> {
+            onNext.incrementAndGet();
+            latch.countDown();
+        }, error -> onError.set(error), () -> onCompleted.incrementAndGet(),
+                10);
+        latch.await(1, TimeUnit.SECONDS);
+        Thread.sleep(10);
+        subscription.dispose();
+
+        assertEquals(10, onNext.get());
+        assertNull(onError.get());
+        assertEquals(0, onCompleted.get());
+    }
+
+    @Test
+    public void testSubscribeIntWithError() throws Exception {
+        initLatch(1);
+        IntObservable.of(1, 2, 3).subscribe(n -> {
+            throw new RuntimeException("test error");
+        }, error -> {
+            onError.set(error);
+            latch.countDown();
+        });
+        latch.await(1, TimeUnit.SECONDS);
+
+        assertNotNull(onError.get());
+    }
+
+    @Test
+    public void testIntAggregates() throws Exception {
+        assertArrayEquals(new int[] { 45 }, IntObservable.range(0, 10).sum()
+                .toArray());
+        assertArrayEquals(new double[] { 4.5 }, IntObservable.range(0, 10)
+                .average().toArray(), 0.0001);
+        assertArrayEquals(new double[0], IntObservable.of().average()
+                .toArray(), 0.0001);
+        IntSummaryStatistics stats = IntObservable.of(3, 1, 2)
+                .summaryStatistics().toList().get(0);
+        assertEquals(3, stats.getCount());
+        assertEquals(1, stats.getMin());
+        assertEquals(3, stats.getMax());
+    }
+
+    @Test
+    public void testIntConversions() throws Exception {
+        assertEquals(names.subList(0, 3), IntObservable.range(0, 3)
+                .mapToObj(names::get).toList());
+        assertArrayEquals(new long[] { 1, 2 }, IntObservable.of(1, 2)
+                .asLongObservable().toArray());
+        assertEquals(4, IntObservable.integers(0).skip(2).limit(4).boxed()
+                .toList().size());
+    }
+
+    @Test
+    public void testSubscribeLongIntegers() throws Exception {
+        LongObservable observable = LongObservable
+                .integers(Integer.MAX_VALUE).limit(3);
+        AtomicReference<Long> last = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        observable.subscribe(n -> last.set(n), error -> onError.set(error),
+                () -> done.countDown());
+        done.await(1, TimeUnit.SECONDS);
+
+        assertEquals(Long.valueOf(Integer.MAX_VALUE + 2L), last.get());
+        assertArrayEquals(new long[] { 10 }, LongObservable.range(0, 5).sum()
+                .toArray());
+    }
+
+    @Test
+    public void testSubscribeDoubles() throws Exception {
+        DoubleObservable observable = DoubleObservable.of(1.5, 2.5, 3.5)
+                .map(d -> d * 2);
+        AtomicReference<Double> sum = new AtomicReference<>(0.0);
+        CountDownLatch done = new CountDownLatch(1);
+
+        observable.subscribe(d -> sum.set(sum.get() + d),
+                error -> onError.set(error), () -> done.countDown());
+        done.await(1, TimeUnit.SECONDS);
+
+        assertEquals(15.0, sum.get(), 0.0001);
+        assertEquals(2.5, DoubleObservable.of(1.5, 2.5, 3.5)
+                .summaryStatistics().toList().get(0).getAverage(), 0.0001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDrainBatchWithInvalidSize() throws Exception {
+        IntObservable.range(0, 10).drainBatch(0, 0);
+    }
+}
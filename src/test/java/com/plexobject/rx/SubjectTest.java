@@ -0,0 +1,231 @@
+package com.plexobject.rx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class SubjectTest extends BaseObservableTest {
+    @Test
+    public void testPublishMulticasts() throws Exception {
+        Subject<Integer> subject = Subject.newPublishSubject();
+        List<Integer> first = new ArrayList<>();
+        List<Integer> second = new ArrayList<>();
+        subject.subscribe(first::add, error -> {
+        });
+        subject.onNext(1);
+        subject.subscribe(second::add, error -> {
+        });
+        subject.onNext(2);
+        subject.onCompleted();
+        subject.onNext(3);
+
+        assertEquals(Arrays.asList(1, 2), first);
+        assertEquals(Arrays.asList(2), second);
+    }
+
+    @Test
+    public void testPublishAfterCompletion() throws Exception {
+        Subject<Integer> subject = Subject.newPublishSubject();
+        subject.onNext(1);
+        subject.onCompleted();
+
+        initLatch(1);
+        setupCallback(subject, null, true);
+        assertEquals(0, onNext.get());
+        assertEquals(1, onCompleted.get());
+        assertFalse(subject.hasSubscribers());
+    }
+
+    @Test
+    public void testPublishWithError() throws Exception {
+        Subject<Integer> subject = Subject.newPublishSubject();
+        initLatch(1);
+        setupCallback(subject, null, true);
+        subject.onError(new IllegalStateException());
+        subject.onCompleted();
+
+        assertTrue(onError.get() instanceof IllegalStateException);
+        assertEquals(0, onCompleted.get());
+    }
+
+    @Test
+    public void testDisposeRemovesSubscriber() throws Exception {
+        Subject<Integer> subject = Subject.newPublishSubject();
+        List<Integer> received = new ArrayList<>();
+        Subscription subscription = subject.subscribe(received::add,
+                error -> {
+                });
+        assertTrue(subject.hasSubscribers());
+        subject.onNext(1);
+        subscription.dispose();
+        subject.onNext(2);
+
+        assertFalse(subject.hasSubscribers());
+        assertEquals(Arrays.asList(1), received);
+    }
+
+    @Test
+    public void testFailingSubscriberIsRemoved() throws Exception {
+        Subject<Integer> subject = Subject.newPublishSubject();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Integer> received = new ArrayList<>();
+        subject.subscribe(n -> {
+            throw new RuntimeException("test error");
+        }, error::set);
+        subject.subscribe(received::add, e -> {
+        });
+        subject.onNext(1);
+        subject.onNext(2);
+
+        assertTrue(error.get() instanceof RuntimeException);
+        assertEquals(Arrays.asList(1, 2), received);
+    }
+
+    @Test
+    public void testBehavior() throws Exception {
+        Subject<String> subject = Subject.newBehaviorSubject("initial");
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        subject.subscribe(first::add, error -> {
+        });
+        subject.onNext("a");
+        subject.onNext("b");
+        subject.subscribe(second::add, error -> {
+        });
+        subject.onNext("c");
+
+        assertEquals(Arrays.asList("initial", "a", "b", "c"), first);
+        assertEquals(Arrays.asList("b", "c"), second);
+    }
+
+    @Test
+    public void testBehaviorAfterCompletion() throws Exception {
+        Subject<String> subject = Subject.newBehaviorSubject();
+        subject.onNext("a");
+        subject.onCompleted();
+
+        initLatch(1);
+        setupCallback(subject, null, true);
+        assertEquals(0, onNext.get());
+        assertEquals(1, onCompleted.get());
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        Subject<Integer> subject = Subject.newReplaySubject();
+        subject.onNext(1);
+        subject.onNext(null);
+        subject.onNext(3);
+        subject.onCompleted();
+
+        assertEquals(Arrays.asList(1, null, 3), subject.toList());
+        assertEquals(Arrays.asList(1, null, 3), subject.toList());
+    }
+
+    @Test
+    public void testReplayWithSize() throws Exception {
+        Subject<Integer> subject = Subject.newReplaySubject(3);
+        List<Integer> first = new ArrayList<>();
+        subject.subscribe(first::add, error -> {
+        });
+        for (int i = 0; i < 10; i++) {
+            subject.onNext(i);
+        }
+        subject.onCompleted();
+
+        assertEquals(IntStream.range(0, 10).boxed()
+                .collect(Collectors.toList()), first);
+        assertEquals(Arrays.asList(7, 8, 9), subject.toList());
+    }
+
+    @Test
+    public void testReplayWithTime() throws Exception {
+        Subject<Integer> subject = Subject.newReplaySubject(50,
+                TimeUnit.MILLISECONDS);
+        subject.onNext(1);
+        subject.onNext(2);
+        Thread.sleep(100);
+        subject.onNext(3);
+        subject.onCompleted();
+
+        assertEquals(Arrays.asList(3), subject.toList());
+    }
+
+    @Test
+    public void testReplayWithError() throws Exception {
+        Subject<Integer> subject = Subject.newReplaySubject();
+        subject.onNext(1);
+        subject.onError(new IllegalStateException());
+
+        initLatch(1 + 1); // N*onNext + onError
+        setupCallback(subject, null, true);
+        assertEquals(1, onNext.get());
+        assertTrue(onError.get() instanceof IllegalStateException);
+        assertEquals(0, onCompleted.get());
+    }
+
+    @Test
+    public void testReplayWhileSubscribingConcurrently() throws Exception {
+        Subject<Integer> subject = Subject.newReplaySubject();
+        int max = 10000;
+        int subscribers = 4;
+        List<List<Integer>> received = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(subscribers);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < max; i++) {
+                subject.onNext(i);
+            }
+            subject.onCompleted();
+        });
+        producer.start();
+        for (int i = 0; i < subscribers; i++) {
+            List<Integer> list = Collections
+                    .synchronizedList(new ArrayList<>());
+            received.add(list);
+            new Thread(() -> subject.subscribe(list::add, error -> {
+            }, done::countDown)).start();
+        }
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+
+        List<Integer> expected = IntStream.range(0, max).boxed()
+                .collect(Collectors.toList());
+        for (List<Integer> list : received) {
+            assertEquals(expected, list);
+        }
+    }
+
+    @Test
+    public void testOperatorsWithDemand() throws Exception {
+        Subject<Integer> subject = Subject.newPublishSubject();
+        List<Integer> received = Collections
+                .synchronizedList(new ArrayList<>());
+        AtomicInteger completed = new AtomicInteger();
+        Subscription subscription = subject.map(n -> n * 2).subscribe(
+                received::add, error -> {
+                }, completed::incrementAndGet, 2);
+        for (int i = 0; i < 5; i++) {
+            subject.onNext(i);
+        }
+        subject.onCompleted();
+        Thread.sleep(100);
+        assertEquals(Arrays.asList(0, 2), new ArrayList<>(received));
+
+        subscription.request(10);
+        Thread.sleep(100);
+        assertEquals(Arrays.asList(0, 2, 4, 6, 8), received);
+        assertEquals(1, completed.get());
+    }
+}
@@ -0,0 +1,82 @@
+package com.plexobject.rx.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.plexobject.rx.util.ArraySource;
+import com.plexobject.rx.util.CollectionSource;
+import com.plexobject.rx.util.RangeSource;
+
+public class FusedPipelineTest {
+    @Test
+    public void testFusedStagesMatchStream() throws Exception {
+        FusedPipeline<String> pipeline = new FusedPipeline<Integer>(
+                new RangeSource(0, 1000)).map(n -> n * 3).map(n -> n + 1)
+                .filter(n -> n % 2 == 0).filter(n -> n % 5 != 0).skip(10)
+                .skip(5).limit(100).limit(50).map(n -> "#" + n);
+        List<String> expected = new RangeSource(0, 1000).get()
+                .map(n -> n * 3).map(n -> n + 1).filter(n -> n % 2 == 0)
+                .filter(n -> n % 5 != 0).skip(15).limit(50)
+                .map(n -> "#" + n).collect(Collectors.toList());
+
+        assertEquals(expected, drain(pipeline.open()));
+    }
+
+    @Test
+    public void testLimitBeforeFilter() throws Exception {
+        FusedPipeline<Integer> pipeline = new FusedPipeline<Integer>(
+                new RangeSource(0, 10)).limit(5).filter(n -> n % 2 == 1);
+        FusedPipeline.Cursor cursor = pipeline.open();
+
+        assertEquals(Arrays.asList(1, 3), drain(cursor));
+        assertTrue(cursor.isDone());
+    }
+
+    @Test
+    public void testLimitZero() throws Exception {
+        FusedPipeline.Cursor cursor = new FusedPipeline<Integer>(
+                new RangeSource(0, 10)).limit(0).open();
+        assertTrue(cursor.isDone());
+        assertSame(FusedPipeline.DONE, cursor.next());
+    }
+
+    @Test
+    public void testArrayWithNulls() throws Exception {
+        FusedPipeline.Cursor cursor = new FusedPipeline<String>(
+                new ArraySource<>(new String[] { "a", null, "b" })).open();
+        assertFalse(cursor.isDone());
+        assertEquals(Arrays.asList("a", null, "b"), drain(cursor));
+    }
+
+    @Test
+    public void testEachCursorHasOwnState() throws Exception {
+        FusedPipeline<Integer> pipeline = new FusedPipeline<Integer>(
+                new CollectionSource<>(Arrays.asList(1, 2, 3, 4))).skip(1)
+                .limit(2);
+        assertEquals(Arrays.asList(2, 3), drain(pipeline.open()));
+        assertEquals(Arrays.asList(2, 3), drain(pipeline.open()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLimit() throws Exception {
+        new FusedPipeline<Integer>(new RangeSource(0, 10)).limit(-1);
+    }
+
+    private static List<Object> drain(FusedPipeline.Cursor cursor) {
+        List<Object> result = new ArrayList<>();
+        for (Object next = cursor.next(); next != FusedPipeline.DONE; next = cursor
+                .next()) {
+            result.add(next);
+        }
+        return result;
+    }
+}
@@ -2,6 +2,8 @@ package com.plexobject.rx.impl;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
@@ -125,64 +127,84 @@ public class ObservableDelegateTest {
         assertEquals(0, onCompleted.get());
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test(expected = NullPointerException.class)
     public void testSubscribeOn() throws Exception {
         defaultInstance.subscribeOn(null);
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test
+    public void testDrainBatch() throws Exception {
+        assertEquals(Arrays.asList(2, 4, 6), newObservable(1, 2, 3)
+                .drainBatch(1, 0).map(n -> n * 2).toList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDrainBatchWithInvalidSize() throws Exception {
+        defaultInstance.drainBatch(0, 0);
+    }
+
+    @Test
     public void testDistinct() throws Exception {
-        defaultInstance.distinct();
+        assertEquals(Arrays.asList(1, 2, 3), newObservable(1, 2, 1, 3, 2)
+                .distinct().toList());
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test(expected = NullPointerException.class)
     public void testFilter() throws Exception {
         defaultInstance.filter(null);
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test(expected = NullPointerException.class)
     public void testMap() throws Exception {
         defaultInstance.map(null);
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test(expected = NullPointerException.class)
     public void testFlatMap() throws Exception {
         defaultInstance.flatMap(null);
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test(expected = IllegalArgumentException.class)
     public void testLimit() throws Exception {
-        defaultInstance.limit(1);
+        defaultInstance.limit(-1);
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test(expected = IllegalArgumentException.class)
     public void testSkip() throws Exception {
-        defaultInstance.skip(1);
+        defaultInstance.skip(-1);
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test
     public void testSorted() throws Exception {
-        defaultInstance.sorted();
+        assertEquals(Arrays.asList(1, 2, 3), newObservable(3, 1, 2).sorted()
+                .toList());
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test(expected = NullPointerException.class)
     public void testSortedComparator() throws Exception {
         defaultInstance.sorted(null);
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test(expected = NullPointerException.class)
     public void testMerge() throws Exception {
-        defaultInstance.merge(null);
+        defaultInstance.merge((Observable<Integer>) null);
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test
     public void testToList() throws Exception {
-        defaultInstance.toList();
+        assertEquals(Arrays.asList(1, 2, 3), newObservable(1, 2, 3).toList());
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test
     public void testToSet() throws Exception {
-        defaultInstance.toSet();
+        assertEquals(new HashSet<>(Arrays.asList(1, 2)), newObservable(1, 2,
+                1).toSet());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testToListWithError() throws Exception {
+        new ObservableDelegate<Integer>(observer -> observer
+                .onError(new IllegalStateException())).toList();
     }
 
     @Test(expected = UnsupportedOperationException.class)
@@ -190,9 +212,18 @@ public class ObservableDelegateTest {
         defaultInstance.parallel();
     }
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test
     public void testCount() throws Exception {
-        defaultInstance.count();
+        assertEquals(Arrays.asList(3L), newObservable(1, 2, 3).count()
+                .toList());
     }
 
+    private static Observable<Integer> newObservable(Integer... values) {
+        return new ObservableDelegate<Integer>(observer -> {
+            for (Integer value : values) {
+                observer.onNext(value);
+            }
+            observer.onCompleted();
+        });
+    }
 }
@@ -51,6 +51,11 @@ public class ObservableNeverTest {
         instance.subscribeOn(null);
     }
 
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDrainBatch() throws Exception {
+        instance.drainBatch(1, 0);
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void testDistinct() throws Exception {
         instance.distinct();
@@ -93,7 +98,7 @@ public class ObservableNeverTest {
 
     @Test(expected = UnsupportedOperationException.class)
     public void testMerge() throws Exception {
-        instance.merge(null);
+        instance.merge((Observable<Integer>) null);
     }
 
     @Test(expected = UnsupportedOperationException.class)
@@ -0,0 +1,99 @@
+package com.plexobject.rx.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ThreadPoolSchedulerTest {
+    private Scheduler scheduler;
+
+    @Before
+    public void setup() {
+        scheduler = Scheduler.newThreadPoolScheduler(4);
+    }
+
+    @After
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void testScheduleBackgroundTask() throws Exception {
+        CountDownLatch latch = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            scheduler.scheduleBackgroundTask(l -> l.countDown(), latch);
+        }
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWorkerRunsTasksInOrder() throws Exception {
+        Worker worker = scheduler.createWorker();
+        List<Integer> received = new ArrayList<>();
+        AtomicBoolean running = new AtomicBoolean();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(10000);
+        for (int i = 0; i < 10000; i++) {
+            worker.schedule(n -> {
+                if (!running.compareAndSet(false, true)) {
+                    overlaps.incrementAndGet();
+                }
+                received.add(n);
+                running.set(false);
+                latch.countDown();
+            }, i);
+        }
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(Integer.valueOf(i), received.get(i));
+        }
+    }
+
+    @Test
+    public void testWorkerTaskSchedulingItself() throws Exception {
+        Worker worker = scheduler.createWorker();
+        CountDownLatch latch = new CountDownLatch(1000);
+        Runnable[] task = new Runnable[1];
+        task[0] = () -> {
+            latch.countDown();
+            if (latch.getCount() > 0) {
+                worker.schedule(Runnable::run, task[0]);
+            }
+        };
+        worker.schedule(Runnable::run, task[0]);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWorkerContinuesAfterError() throws Exception {
+        Worker worker = scheduler.createWorker();
+        CountDownLatch latch = new CountDownLatch(1);
+        worker.schedule(v -> {
+            throw new RuntimeException("test error");
+        }, null);
+        worker.schedule(l -> l.countDown(), latch);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testScheduleAfterDispose() throws Exception {
+        AtomicBoolean called = new AtomicBoolean();
+        scheduler.dispose();
+        scheduler.createWorker().schedule(v -> called.set(true), null);
+        scheduler.scheduleBackgroundTask(v -> called.set(true), null);
+        Thread.sleep(10);
+        assertFalse(called.get());
+    }
+}
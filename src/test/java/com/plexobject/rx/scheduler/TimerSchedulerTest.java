@@ -0,0 +1,77 @@
+package com.plexobject.rx.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.plexobject.rx.Observable;
+import com.plexobject.rx.Subscription;
+
+public class TimerSchedulerTest {
+    private TimerScheduler scheduler;
+
+    @Before
+    public void setup() {
+        scheduler = new TimerScheduler(1000);
+    }
+
+    @After
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void testDisposeCancelsPendingTasks() throws Exception {
+        Observable<Integer> observable = Observable.range(0, 10).subscribeOn(
+                scheduler);
+        Subscription[] subscriptions = new Subscription[1000];
+        for (int i = 0; i < subscriptions.length; i++) {
+            subscriptions[i] = observable.subscribe(v -> {
+            }, Throwable::printStackTrace);
+        }
+        assertEquals(subscriptions.length, scheduler.getPendingTasks());
+        for (Subscription subscription : subscriptions) {
+            subscription.dispose();
+        }
+        assertEquals(0, scheduler.getPendingTasks());
+    }
+
+    @Test
+    public void testWorkerRunsAfterInterval() throws Exception {
+        TimerScheduler fast = new TimerScheduler(5);
+        try {
+            CountDownLatch latch = new CountDownLatch(2);
+            long started = System.currentTimeMillis();
+            Worker worker = fast.createWorker();
+            worker.schedule(l -> l.countDown(), latch);
+            worker.schedule(l -> l.countDown(), latch);
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+            assertTrue(System.currentTimeMillis() - started >= 5);
+        } finally {
+            fast.dispose();
+        }
+    }
+
+    @Test
+    public void testWorkerRunsAllTasks() throws Exception {
+        TimerScheduler fast = new TimerScheduler(1);
+        try {
+            CountDownLatch latch = new CountDownLatch(10000);
+            Worker worker = fast.createWorker();
+            // tasks may expire before schedule returns
+            for (int i = 0; i < 10000; i++) {
+                worker.schedule(l -> l.countDown(), latch);
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(0, fast.getPendingTasks());
+        } finally {
+            fast.dispose();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.plexobject.rx.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.plexobject.rx.Observable;
+
+public class VirtualThreadSchedulerTest {
+    private Scheduler scheduler;
+
+    @Before
+    public void setup() {
+        scheduler = Scheduler.newVirtualThreadScheduler();
+    }
+
+    @After
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void testSubscribeWithBlockingSubscribers() throws Exception {
+        int subscribers = 200;
+        CountDownLatch latch = new CountDownLatch(subscribers);
+        AtomicInteger onNext = new AtomicInteger();
+        Observable<Integer> observable = Observable.range(0, 5).subscribeOn(
+                scheduler);
+        long started = System.currentTimeMillis();
+        for (int i = 0; i < subscribers; i++) {
+            observable.subscribe(v -> {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                onNext.incrementAndGet();
+            }, Throwable::printStackTrace, latch::countDown);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(subscribers * 5, onNext.get());
+        // subscribers block concurrently instead of waiting for a free thread
+        assertTrue(System.currentTimeMillis() - started < 5 * 10 * subscribers
+                / 8);
+    }
+
+    @Test
+    public void testWorkerRunsTasksInOrder() throws Exception {
+        Worker worker = scheduler.createWorker();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1000);
+        for (int i = 0; i < 1000; i++) {
+            worker.schedule(n -> {
+                if (next.getAndIncrement() != n) {
+                    outOfOrder.incrementAndGet();
+                }
+                latch.countDown();
+            }, i);
+        }
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals(0, outOfOrder.get());
+    }
+}
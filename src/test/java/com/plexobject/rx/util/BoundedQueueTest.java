@@ -0,0 +1,77 @@
+package com.plexobject.rx.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class BoundedQueueTest {
+    @Test
+    public void testSpscOfferPoll() throws Exception {
+        verifyOfferPoll(new SpscArrayQueue<>(10));
+    }
+
+    @Test
+    public void testMpscOfferPoll() throws Exception {
+        verifyOfferPoll(new MpscArrayQueue<>(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() throws Exception {
+        new SpscArrayQueue<>(0);
+    }
+
+    @Test
+    public void testMpscWithMultipleProducers() throws Exception {
+        BoundedQueue<Integer> queue = new MpscArrayQueue<>(64);
+        int producers = 4;
+        int count = 10000;
+        CountDownLatch latch = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            new Thread(() -> {
+                for (int i = 0; i < count; i++) {
+                    while (!queue.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+        long sum = 0;
+        int received = 0;
+        while (received < producers * count) {
+            Integer v = queue.poll();
+            if (v == null) {
+                Thread.yield();
+            } else {
+                sum += v;
+                received++;
+            }
+        }
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals((long) producers * count * (count - 1) / 2, sum);
+        assertTrue(queue.isEmpty());
+    }
+
+    private void verifyOfferPoll(BoundedQueue<Integer> queue) {
+        assertEquals(16, queue.capacity());
+        assertTrue(queue.isEmpty());
+        for (int i = 0; i < queue.capacity(); i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(100));
+        for (int i = 0; i < queue.capacity(); i++) {
+            assertEquals(Integer.valueOf(i), queue.poll());
+        }
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.offer(1));
+        queue.clear();
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,94 @@
+package com.plexobject.rx.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.plexobject.rx.util.HashedWheelTimer.Timeout;
+
+public class HashedWheelTimerTest {
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setup() {
+        timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @After
+    public void teardown() {
+        timer.dispose();
+    }
+
+    @Test
+    public void testTimeoutNotRunEarly() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicLong elapsed = new AtomicLong();
+        long started = System.nanoTime();
+        // delay is longer than a round of the wheel
+        Timeout timeout = timer.newTimeout(() -> {
+            elapsed.set(System.nanoTime() - started);
+            latch.countDown();
+        }, 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(elapsed.get() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(timeout.isExpired());
+        assertEquals(0, timer.getPendingTimeouts());
+    }
+
+    @Test
+    public void testManyTimeouts() throws Exception {
+        int count = 100000;
+        CountDownLatch latch = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            timer.newTimeout(latch::countDown, i % 50, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, timer.getPendingTimeouts());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        AtomicBoolean called = new AtomicBoolean();
+        Timeout timeout = timer.newTimeout(() -> called.set(true), 10,
+                TimeUnit.MILLISECONDS);
+        assertEquals(1, timer.getPendingTimeouts());
+        timeout.cancel();
+        assertTrue(timeout.isCanceled());
+        assertEquals(0, timer.getPendingTimeouts());
+        Thread.sleep(30);
+        assertFalse(called.get());
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    public void testTimerContinuesAfterError() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        timer.newTimeout(() -> {
+            throw new RuntimeException("test error");
+        }, 1, TimeUnit.MILLISECONDS);
+        timer.newTimeout(latch::countDown, 5, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNewTimeoutAfterDispose() throws Exception {
+        timer.dispose();
+        timer.newTimeout(() -> {
+        }, 1, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTickDuration() throws Exception {
+        new HashedWheelTimer(0, TimeUnit.MILLISECONDS, 8);
+    }
+}
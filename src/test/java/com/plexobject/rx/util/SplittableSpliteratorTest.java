@@ -0,0 +1,130 @@
+package com.plexobject.rx.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.junit.Test;
+
+public class SplittableSpliteratorTest {
+    @Test
+    public void testAdapterAdvancesLastElement() {
+        SpliteratorAdapter<Integer> spliterator = new SpliteratorAdapter<>(
+                Arrays.asList(1, 2).iterator());
+        List<Integer> list = new ArrayList<>();
+        assertTrue(spliterator.tryAdvance(list::add));
+        assertTrue(spliterator.tryAdvance(list::add));
+        assertFalse(spliterator.tryAdvance(list::add));
+        assertEquals(Arrays.asList(1, 2), list);
+    }
+
+    @Test
+    public void testAdapterSplitsInIncreasingBatches() {
+        SpliteratorAdapter<Integer> spliterator = new SpliteratorAdapter<>(
+                IntStream.range(0, 5000).boxed().iterator());
+        Spliterator<Integer> first = spliterator.trySplit();
+        Spliterator<Integer> second = spliterator.trySplit();
+
+        assertEquals(SpliteratorAdapter.BATCH_UNIT, first.estimateSize());
+        assertEquals(2 * SpliteratorAdapter.BATCH_UNIT,
+                second.estimateSize());
+        assertEquals(Long.MAX_VALUE, spliterator.estimateSize());
+        first.tryAdvance(n -> assertEquals(Integer.valueOf(0), n));
+        second.tryAdvance(n -> assertEquals(Integer.valueOf(1024), n));
+    }
+
+    @Test
+    public void testAdapterInParallel() {
+        List<Integer> numbers = IntStream.range(0, 100000).boxed()
+                .collect(Collectors.toList());
+        List<Integer> result = StreamSupport
+                .stream(new SpliteratorAdapter<>(numbers.iterator()), true)
+                .map(n -> n * 2).collect(Collectors.toList());
+
+        assertEquals(numbers.stream().map(n -> n * 2)
+                .collect(Collectors.toList()), result);
+    }
+
+    @Test
+    public void testNatsSplitsInHalves() {
+        NatsSpliterator spliterator = new NatsSpliterator(
+                Integer.MAX_VALUE - 9);
+        assertEquals(10, spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        assertEquals(5, prefix.estimateSize());
+        assertEquals(5, spliterator.estimateSize());
+        List<Integer> list = new ArrayList<>();
+        prefix.forEachRemaining(list::add);
+        spliterator.forEachRemaining(list::add);
+
+        assertEquals(IntStream.rangeClosed(Integer.MAX_VALUE - 9,
+                Integer.MAX_VALUE).boxed().collect(Collectors.toList()), list);
+        assertNull(new NatsSpliterator(Integer.MAX_VALUE).trySplit());
+    }
+
+    @Test
+    public void testNatsInParallel() {
+        assertEquals(4999950000L,
+                StreamSupport.stream(new NatsSpliterator(0), true)
+                        .limit(100000).mapToLong(n -> n).sum());
+        assertEquals(4999950000L,
+                new IntNatsSpliterator(0).getStream().parallel()
+                        .limit(100000).asLongStream().sum());
+        assertEquals(4999950000L, new LongNatsSpliterator(0).getStream()
+                .parallel().limit(100000).sum());
+    }
+
+    @Test
+    public void testLongNatsFromNegative() {
+        LongNatsSpliterator spliterator = new LongNatsSpliterator(
+                Long.MIN_VALUE);
+        assertEquals(Long.MAX_VALUE, spliterator.estimateSize());
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+
+        Spliterator.OfLong prefix = spliterator.trySplit();
+        assertTrue(prefix.hasCharacteristics(Spliterator.SIZED));
+        spliterator.tryAdvance((long n) -> assertEquals(-1, n));
+    }
+
+    @Test
+    public void testTupleSplitsBothSides() {
+        Integer[] left = IntStream.range(0, 1001).boxed()
+                .toArray(Integer[]::new);
+        List<Integer> right = IntStream.range(0, 700).boxed()
+                .collect(Collectors.toList());
+        // array spliterator splits at even index while list splits at the
+        // middle so prefixes have different sizes
+        List<Tuple> result = new TupleSpliterator<Integer, Integer>(
+                new ArraySpliterator<Integer>(left, 0, left.length),
+                right.spliterator()).getStream().parallel()
+                .collect(Collectors.toList());
+
+        assertEquals(1001, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            if (i < 700) {
+                assertEquals(new Tuple(i, i), result.get(i));
+            } else {
+                assertEquals(new Tuple(i), result.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testTupleIsNotSplitWithoutSize() {
+        TupleSpliterator<Integer, Integer> spliterator = new TupleSpliterator<>(
+                new SpliteratorAdapter<>(Arrays.asList(1, 2).iterator()),
+                Arrays.asList(1, 2).spliterator());
+        assertNull(spliterator.trySplit());
+    }
+}
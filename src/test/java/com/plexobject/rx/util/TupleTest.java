@@ -0,0 +1,49 @@
+package com.plexobject.rx.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class TupleTest {
+    @Test
+    public void testGet() {
+        Tuple tuple = new Tuple("One", 2, 3.0);
+        assertEquals(3, tuple.size());
+        assertEquals("One", tuple.getFirst());
+        assertEquals(Integer.valueOf(2), tuple.getSecond());
+        assertEquals(Double.valueOf(3.0), tuple.getThird());
+        assertEquals(Double.valueOf(3.0), tuple.getLast());
+        assertEquals("[One, 2, 3.0]", tuple.toString());
+    }
+
+    @Test
+    public void testFlatten() {
+        Tuple tuple = new Tuple(new Tuple(1, 2), Arrays.asList(3, 4),
+                new Integer[] { 5 }, 6, null);
+        assertEquals(new Tuple(1, 2, 3, 4, 5, 6, null), tuple);
+        assertEquals(new Tuple(1, 2, 3, 4, 5, 6, null).hashCode(),
+                tuple.hashCode());
+    }
+
+    @Test
+    public void testConstructorCopiesArguments() {
+        Object[] objs = { 1, 2 };
+        Tuple tuple = new Tuple(objs);
+        objs[0] = 3;
+        assertEquals(Integer.valueOf(1), tuple.getFirst());
+    }
+
+    @Test
+    public void testPairAndTriple() {
+        assertEquals(Pair.of("a", 1), new Pair<>("a", 1));
+        assertNotEquals(Pair.of("a", 1), Pair.of("a", 2));
+        assertEquals(Pair.of(null, 1).hashCode(), Pair.of(null, 1).hashCode());
+        assertEquals("(a, 1)", Pair.of("a", 1).toString());
+        assertEquals(Triple.of("a", 1, true), new Triple<>("a", 1, true));
+        assertEquals(Integer.valueOf(1), Triple.of("a", 1, true).getSecond());
+        assertEquals("(a, 1, true)", Triple.of("a", 1, true).toString());
+    }
+}